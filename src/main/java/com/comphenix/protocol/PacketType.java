@@ -6,6 +6,9 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 import com.comphenix.protocol.PacketTypeLookup.ClassLookup;
@@ -718,6 +721,10 @@ public class PacketType implements Serializable, Cloneable, Comparable<PacketTyp
     // Lookup of packet types
     private static PacketTypeLookup LOOKUP;
 
+    // Ordinals of every packet type that has asked for one
+    private static final ConcurrentMap<PacketType, Integer> ORDINALS = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_ORDINAL = new AtomicInteger();
+
     /**
      * Protocol version of all the current IDs.
      */
@@ -736,6 +743,7 @@ public class PacketType implements Serializable, Cloneable, Comparable<PacketTyp
 
     private boolean dynamic;
     private int hashCode;
+    private transient volatile int ordinal = -1;
 
     /**
      * Retrieve the current packet/legacy lookup.
@@ -1229,6 +1237,30 @@ public class PacketType implements Serializable, Cloneable, Comparable<PacketTyp
         return dynamic;
     }
 
+    /**
+     * Retrieve a small, non-negative index that identifies this packet type for the lifetime of the server.
+     * <p>
+     * Unlike the packet ID, ordinals are dense and never reused, which makes them suitable as array indices.
+     * They are assigned on first use, so they are not stable across restarts. Equal packet types share the same ordinal.
+     * @return The ordinal of this packet type.
+     * @see #getOrdinalCount()
+     */
+    public int ordinal() {
+        int ordinal = this.ordinal;
+        if (ordinal < 0) {
+            this.ordinal = ordinal = ORDINALS.computeIfAbsent(this, type -> NEXT_ORDINAL.getAndIncrement());
+        }
+        return ordinal;
+    }
+
+    /**
+     * Retrieve the number of ordinals that have been assigned so far.
+     * @return An exclusive upper bound of every assigned ordinal.
+     */
+    public static int getOrdinalCount() {
+        return NEXT_ORDINAL.get();
+    }
+
     @Override
     public int hashCode() {
         int hash = hashCode;
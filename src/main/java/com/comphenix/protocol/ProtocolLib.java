@@ -19,6 +19,12 @@ import com.comphenix.protocol.async.AsyncFilterManager;
 import com.comphenix.protocol.error.*;
 import com.comphenix.protocol.injector.InternalManager;
 import com.comphenix.protocol.injector.PacketFilterManager;
+import com.comphenix.protocol.injector.SlowListenerWatchdog;
+import com.comphenix.protocol.injector.StructureWarmUp;
+import com.comphenix.protocol.injector.netty.EventLoopStallDetector;
+import com.comphenix.protocol.timing.PacketThroughputManager;
+import com.comphenix.protocol.timing.StartupProfiler;
+import com.comphenix.protocol.timing.TimedListenerManager;
 import com.comphenix.protocol.utility.*;
 import com.google.common.base.Splitter;
 import com.google.common.collect.Iterables;
@@ -29,9 +35,11 @@ import org.bukkit.plugin.PluginManager;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -88,12 +96,48 @@ public class ProtocolLib extends JavaPlugin {
 
     @Override
     public void onLoad() {
+        // Every setting and its default is documented in config.yml
+        this.saveDefaultConfig();
+
+        // Must be enabled before anything is initialized
+        if (this.getConfig().getBoolean("global.startup-profile", false)) {
+            StartupProfiler.getInstance().setEnabled(true);
+        }
+
+        try (StartupProfiler.Phase ignored = StartupProfiler.getInstance().begin("onLoad")) {
+            this.load();
+        }
+    }
+
+    private void load() {
         // Logging
         logger = this.getLogger();
         ProtocolLogger.init(this);
 
         JavaInternals.init();
 
+        // Replay the reflection lookups of the last start, before anything is looked up
+        if (this.getConfig().getBoolean("global.reflection-cache", false)) {
+            ReflectionCache.load(new File(this.getDataFolder(), "reflection-cache.txt"), this.getDescription().getVersion());
+        }
+
+        // Listener timings are cheap enough to be left running
+        if (this.getConfig().getBoolean("global.timings", false)) {
+            TimedListenerManager.getInstance().startTiming();
+        }
+
+        // Packet counters must be enabled before the first player is injected
+        if (this.getConfig().getBoolean("global.packet-metrics", false)) {
+            PacketThroughputManager.getInstance().setEnabled(true);
+        }
+
+        // Watch the time spent by sync listeners on network threads
+        long listenerBudget = this.getConfig().getLong("global.listener-budget-micros", 0);
+        if (listenerBudget > 0) {
+            SlowListenerWatchdog.getInstance().setBudget(listenerBudget, TimeUnit.MICROSECONDS);
+            SlowListenerWatchdog.getInstance().setDemotion(this.getConfig().getBoolean("global.demote-slow-listeners", false));
+        }
+
         // Initialize enhancer factory
         ByteBuddyFactory.getInstance().setClassLoader(this.getClassLoader());
 
@@ -158,6 +202,25 @@ public class ProtocolLib extends JavaPlugin {
 
     @Override
     public void onEnable() {
+        try (StartupProfiler.Phase ignored = StartupProfiler.getInstance().begin("onEnable")) {
+            this.enable();
+        }
+
+        // Later lookups are left out of the report
+        StartupProfiler profiler = StartupProfiler.getInstance();
+        if (profiler.isEnabled()) {
+            profiler.setEnabled(false);
+
+            File reportFile = new File(this.getDataFolder(), "startup-profile.json");
+            try {
+                profiler.writeReport(reportFile);
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Unable to write startup profile to " + reportFile, e);
+            }
+        }
+    }
+
+    private void enable() {
         try {
             Server server = this.getServer();
             PluginManager manager = server.getPluginManager();
@@ -184,6 +247,27 @@ public class ProtocolLib extends JavaPlugin {
             // Worker that ensures that async packets are eventually sent
             // It also performs the update check.
             this.createPacketTask(server);
+
+            // Periodically write the packet counters for external scrapers
+            int exportInterval = this.getConfig().getInt("global.packet-metrics-export", 0);
+            if (PacketThroughputManager.getInstance().isEnabled() && exportInterval > 0) {
+                File metricsFile = new File(this.getDataFolder(), "packet-metrics.prom");
+                PacketThroughputManager.getInstance().startExport(metricsFile, exportInterval, TimeUnit.SECONDS);
+            }
+
+            // Warn about event loops held by packet listeners
+            int stallThreshold = this.getConfig().getInt("global.event-loop-stall-threshold-millis", 0);
+            if (stallThreshold > 0) {
+                EventLoopStallDetector.getInstance().start(stallThreshold, TimeUnit.MILLISECONDS);
+            }
+
+            // Resolve the packet structures before the first players join
+            if (this.getConfig().getBoolean("global.warm-up-structures", false)) {
+                StructureWarmUp.getInstance().start(this);
+            }
+
+            // Most lookups are done by now, the rest is saved on shutdown
+            ReflectionCache.getInstance().save();
         } catch (OutOfMemoryError e) {
             throw e;
         } catch (Throwable e) {
@@ -328,6 +412,12 @@ public class ProtocolLib extends JavaPlugin {
         }
 
         // Clean up
+        PacketThroughputManager.getInstance().stopExport();
+        SlowListenerWatchdog.getInstance().close();
+        EventLoopStallDetector.getInstance().stop();
+        StructureWarmUp.getInstance().stop();
+        ReflectionCache.getInstance().save();
+
         if (this.packetTask >= 0) {
             this.getServer().getScheduler().cancelTask(this.packetTask);
             this.packetTask = -1;
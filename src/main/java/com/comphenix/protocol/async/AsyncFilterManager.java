@@ -318,8 +318,10 @@ public class AsyncFilterManager implements AsynchronousManager {
         // so this should be a pretty safe check
         Player player = syncPacket.getPlayer();
         if (player != null) {
-            // Start the process
-            getSendingQueue(syncPacket).enqueue(newEvent);
+            // Start the process, and remember the queue so it doesn't have to be looked up again
+            PacketSendingQueue sendingQueue = getSendingQueue(syncPacket);
+            asyncMarker.setSendingQueue(sendingQueue);
+            sendingQueue.enqueue(newEvent);
 
             // We know this is occurring on the main thread, so pass TRUE
             getProcessingQueue(syncPacket).enqueue(newEvent, true);
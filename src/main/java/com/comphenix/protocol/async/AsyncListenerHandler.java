@@ -20,6 +20,7 @@ package com.comphenix.protocol.async;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -27,10 +28,12 @@ import java.util.concurrent.atomic.AtomicInteger;
 import com.comphenix.protocol.ProtocolLibrary;
 import com.comphenix.protocol.error.Report;
 import com.comphenix.protocol.error.ReportType;
+import com.comphenix.protocol.events.ListenerPriority;
 import com.comphenix.protocol.events.ListeningWhitelist;
 import com.comphenix.protocol.events.PacketAdapter;
 import com.comphenix.protocol.events.PacketEvent;
 import com.comphenix.protocol.events.PacketListener;
+import com.comphenix.protocol.timing.FlightRecorderEvents;
 import com.comphenix.protocol.timing.TimedListenerManager;
 import com.comphenix.protocol.timing.TimedListenerManager.ListenerType;
 import com.comphenix.protocol.timing.TimedTracker;
@@ -42,7 +45,8 @@ import org.bukkit.plugin.Plugin;
 /**
  * Represents a handler for an asynchronous event.
  * <p>
- * Use {@link AsyncMarker#incrementProcessingDelay()} to delay a packet until a certain condition has been met.
+ * Use {@link AsyncMarker#incrementProcessingDelay()} to delay a packet until a certain condition has been met, or
+ * implement {@link AsyncPacketListener} to hold the packet until a {@link java.util.concurrent.CompletionStage} completes.
  * @author Kristian
  */
 public class AsyncListenerHandler {
@@ -603,27 +607,25 @@ public class AsyncListenerHandler {
                 marker.setListenerHandler(this);
                 marker.setWorkerID(workerID);
                 
+                Object recording = FlightRecorderEvents.startListenerInvocation(packet, listener, getPriority(packet));
+
                 // We're not THAT worried about performance here
                 if (timedManager.isTiming()) {
                     // Retrieve the tracker to use
                     TimedTracker tracker = timedManager.getTracker(listener,
                         packet.isServerPacket() ? ListenerType.ASYNC_SERVER_SIDE : ListenerType.ASYNC_CLIENT_SIDE);
                     long token = tracker.beginTracking();
-                    
-                    if (packet.isServerPacket())
-                        listener.onPacketSending(packet);
-                    else
-                        listener.onPacketReceiving(packet);
+                    long allocationToken = tracker.beginAllocationTracking();
+                    invokeListener(packet);
                     
                     // And we're done
-                    tracker.endTracking(token, packet.getPacketType());
+                    tracker.endTracking(token, allocationToken, packet.getPacketType());
                     
                 } else {
-                    if (packet.isServerPacket())
-                        listener.onPacketSending(packet);
-                    else
-                        listener.onPacketReceiving(packet);
+                    invokeListener(packet);
                 }
+
+                FlightRecorderEvents.finishListenerInvocation(recording, packet);
             }
             
         } catch (OutOfMemoryError e) {
@@ -654,6 +656,70 @@ public class AsyncListenerHandler {
         filterManager.signalPacketTransmission(packet);
     }
     
+    /**
+     * Retrieve the priority of the listener for the given packet.
+     * @param packet - the packet.
+     * @return The priority.
+     */
+    private ListenerPriority getPriority(PacketEvent packet) {
+        ListeningWhitelist whitelist = packet.isServerPacket() ? 
+                listener.getSendingWhitelist() : listener.getReceivingWhitelist();
+        return whitelist.getPriority();
+    }
+    
+    /**
+     * Invoke the current listener with the given packet.
+     * @param packet - the current packet.
+     */
+    void invokeListener(PacketEvent packet) {
+        if (listener instanceof AsyncPacketListener) {
+            AsyncPacketListener asyncListener = (AsyncPacketListener) listener;
+            
+            if (packet.isServerPacket())
+                holdUntilDecided(packet, asyncListener.onPacketSendingAsync(packet));
+            else
+                holdUntilDecided(packet, asyncListener.onPacketReceivingAsync(packet));
+        } else {
+            if (packet.isServerPacket())
+                listener.onPacketSending(packet);
+            else
+                listener.onPacketReceiving(packet);
+        }
+    }
+    
+    /**
+     * Delay the transmission of the given packet until the decision has been made.
+     * <p>
+     * This is equivalent to calling {@link AsyncMarker#incrementProcessingDelay()} and signalling the
+     * transmission once the stage completes, but without blocking the current worker.
+     * @param packet - the current packet.
+     * @param decision - the pending decision, or NULL to release the packet immediately.
+     */
+    private void holdUntilDecided(final PacketEvent packet, CompletionStage<PacketDecision> decision) {
+        if (decision == null)
+            return;
+        
+        final AsyncMarker marker = packet.getAsyncMarker();
+        marker.incrementProcessingDelay();
+        
+        decision.whenComplete((result, error) -> {
+            try {
+                if (error != null) {
+                    filterManager.getErrorReporter().reportMinimal(listener.getPlugin(), "onPacketAsync()", error);
+                } else if (result == PacketDecision.CANCEL) {
+                    synchronized (marker.getProcessingLock()) {
+                        packet.setCancelled(true);
+                    }
+                }
+            } catch (Throwable e) {
+                filterManager.getErrorReporter().reportMinimal(listener.getPlugin(), "onPacketAsync()", e);
+            } finally {
+                // Release our hold on the packet, regardless of the outcome
+                filterManager.signalPacketTransmission(packet);
+            }
+        });
+    }
+    
     /**
      * Close all worker threads and the handler itself.
      */
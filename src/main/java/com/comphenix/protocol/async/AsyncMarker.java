@@ -98,6 +98,9 @@ public class AsyncMarker implements Serializable, Comparable<AsyncMarker> {
     // Used to synchronize processing on the shared PacketEvent
     private Object processingLock = new Object();
 
+    // The sending queue of this packet, cached when the packet is queued
+    private transient PacketSendingQueue sendingQueue;
+
     // Used to identify the asynchronous worker
     private transient AsyncListenerHandler listenerHandler;
     private transient int workerID;
@@ -250,6 +253,22 @@ public class AsyncMarker implements Serializable, Comparable<AsyncMarker> {
         return queuedSendingIndex != null;
     }
 
+    /**
+     * Retrieve the sending queue this packet was queued in.
+     * @return The sending queue, or NULL if it hasn't been queued.
+     */
+    PacketSendingQueue getSendingQueue() {
+        return sendingQueue;
+    }
+
+    /**
+     * Set the sending queue this packet was queued in.
+     * @param sendingQueue - the sending queue.
+     */
+    void setSendingQueue(PacketSendingQueue sendingQueue) {
+        this.sendingQueue = sendingQueue;
+    }
+
     /**
      * Retrieve the sending index when the packet was queued.
      * @return Queued sending index.
@@ -0,0 +1,74 @@
+/*
+ *  ProtocolLib - Bukkit server library that allows access to the Minecraft protocol.
+ *  Copyright (C) 2012 Kristian S. Stangeland
+ *
+ *  This program is free software; you can redistribute it and/or modify it under the terms of the
+ *  GNU General Public License as published by the Free Software Foundation; either version 2 of
+ *  the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ *  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along with this program;
+ *  if not, write to the Free Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ *  02111-1307 USA
+ */
+
+package com.comphenix.protocol.async;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import com.comphenix.protocol.events.PacketEvent;
+import com.comphenix.protocol.events.PacketListener;
+
+/**
+ * Represents an asynchronous packet listener that holds a packet without blocking a worker thread.
+ * <p>
+ * When registered through {@link AsyncFilterManager#registerAsyncHandler(PacketListener)}, the worker invokes
+ * the methods below instead of {@link #onPacketSending(PacketEvent)} and {@link #onPacketReceiving(PacketEvent)}.
+ * The packet is held in its sending queue until the returned stage completes, after which it is either released
+ * or cancelled. This replaces manual calls to {@link AsyncMarker#incrementProcessingDelay()} and
+ * {@link AsyncFilterManager#signalPacketTransmission(PacketEvent)}.
+ * <p>
+ * The packet event may still be modified by the listener until the stage has completed. Synchronize on {@link AsyncMarker#getProcessingLock()} if the event is accessed from another thread.
+ */
+public interface AsyncPacketListener extends PacketListener {
+
+    /**
+     * Invoked on a worker thread right before a packet is transmitted from the server to the client.
+     * @param event - the packet that should be sent.
+     * @return A stage that completes with the decision for this packet, or NULL to release it immediately.
+     */
+    default CompletionStage<PacketDecision> onPacketSendingAsync(PacketEvent event) {
+        return CompletableFuture.completedFuture(PacketDecision.RELEASE);
+    }
+
+    /**
+     * Invoked on a worker thread right before a received packet from a client is being processed.
+     * @param event - the packet that has been received.
+     * @return A stage that completes with the decision for this packet, or NULL to release it immediately.
+     */
+    default CompletionStage<PacketDecision> onPacketReceivingAsync(PacketEvent event) {
+        return CompletableFuture.completedFuture(PacketDecision.RELEASE);
+    }
+
+    /**
+     * Not used by asynchronous workers. See {@link #onPacketSendingAsync(PacketEvent)}.
+     * @param event - the packet that should be sent.
+     */
+    @Override
+    default void onPacketSending(PacketEvent event) {
+        // NULL
+    }
+
+    /**
+     * Not used by asynchronous workers. See {@link #onPacketReceivingAsync(PacketEvent)}.
+     * @param event - the packet that has been received.
+     */
+    @Override
+    default void onPacketReceiving(PacketEvent event) {
+        // NULL
+    }
+}
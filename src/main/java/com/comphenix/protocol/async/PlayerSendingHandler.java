@@ -19,28 +19,44 @@ package com.comphenix.protocol.async;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
 
 import com.comphenix.protocol.PacketType;
 import com.comphenix.protocol.concurrency.ConcurrentPlayerMap;
 import com.comphenix.protocol.error.ErrorReporter;
 import com.comphenix.protocol.events.PacketEvent;
 import com.comphenix.protocol.injector.SortedPacketListenerList;
+import com.comphenix.protocol.injector.netty.Injector;
+import com.comphenix.protocol.injector.netty.channel.NettyChannelInjector;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
+import io.netty.channel.Channel;
+import io.netty.util.Attribute;
+import io.netty.util.AttributeKey;
 import org.bukkit.entity.Player;
 
 /**
  * Contains every sending queue for every player.
+ * <p>
+ * The queues of a player are stored directly in the channel the packet was intercepted on, and the queue
+ * of a packet is cached in its async marker, so no lookups are needed once a packet has been enqueued.
+ * Packets that were not intercepted on an injected channel use queues stored by player instead.
  * 
  * @author Kristian
  */
 class PlayerSendingHandler {
+    private static final AttributeKey<QueueContainer> SENDING_QUEUES = AttributeKey.valueOf(
+            "ProtocolLib-SendingQueues-" + ThreadLocalRandom.current().nextLong());
+
     private final ErrorReporter reporter;
-    private final ConcurrentMap<Player, QueueContainer> playerSendingQueues;
+    private final Set<QueueContainer> playerSendingQueues;
+    private final ConcurrentMap<Player, QueueContainer> fallbackSendingQueues;
     
     // Timeout listeners
     private final SortedPacketListenerList serverTimeoutListeners;
@@ -90,6 +106,10 @@ class PlayerSendingHandler {
         public PacketSendingQueue getClientQueue() {
             return clientQueue;
         }
+
+        public PlayerSendingHandler getOwner() {
+            return PlayerSendingHandler.this;
+        }
     }
     
     /**
@@ -106,7 +126,8 @@ class PlayerSendingHandler {
         this.clientTimeoutListeners = clientTimeoutListeners;
         
         // Initialize storage of queues
-        this.playerSendingQueues = ConcurrentPlayerMap.usingAddress();
+        this.playerSendingQueues = ConcurrentHashMap.newKeySet();
+        this.fallbackSendingQueues = ConcurrentPlayerMap.usingAddress();
     }
     
     /**
@@ -138,25 +159,81 @@ class PlayerSendingHandler {
      * @return The server or client sending queue the packet belongs to.
      */
     public PacketSendingQueue getSendingQueue(PacketEvent packet, boolean createNew) {
-        QueueContainer queues = playerSendingQueues.get(packet.getPlayer());
+        // Fast path - the queue is already known
+        AsyncMarker marker = packet.getAsyncMarker();
+        if (marker != null && marker.getSendingQueue() != null)
+            return marker.getSendingQueue();
+        
+        QueueContainer queues = getQueues(packet, createNew);
+        if (queues != null)
+            return packet.isServerPacket() ? queues.getServerQueue() : queues.getClientQueue();
+        else
+            return null;
+    }
+    
+    /**
+     * Retrieve the sending queues stored in the channel the given packet was intercepted on.
+     * @param packet - the packet.
+     * @param createNew - if TRUE, create new queues if they haven't already been created.
+     * @return The sending queues, or NULL if not found.
+     */
+    private QueueContainer getQueues(PacketEvent packet, boolean createNew) {
+        Injector injector = PacketEvent.getInjector(packet);
+        Channel channel = injector instanceof NettyChannelInjector
+                ? ((NettyChannelInjector) injector).getWrappedChannel() : null;
+        
+        // Players that haven't been injected (yet) don't have a channel to store the queues in
+        if (channel == null)
+            return getFallbackQueues(packet.getPlayer(), createNew);
+        
+        Attribute<QueueContainer> attribute = channel.attr(SENDING_QUEUES);
+        QueueContainer current = attribute.get();
+        
+        // Queues left by a previous handler are of no use to us
+        if (current != null && current.getOwner() == this)
+            return current;
+        if (!createNew)
+            return null;
+        
+        // Safe concurrent initialization
+        final QueueContainer newContainer = new QueueContainer();
+        
+        if (!attribute.compareAndSet(current, newContainer)) {
+            current = attribute.get();
+            return current != null && current.getOwner() == this ? current : getFallbackQueues(packet.getPlayer(), true);
+        }
+        playerSendingQueues.add(newContainer);
+        
+        // Every packet will be dropped once the connection is gone
+        channel.closeFuture().addListener(future -> playerSendingQueues.remove(newContainer));
+        return newContainer;
+    }
+    
+    /**
+     * Retrieve the sending queues of the given player, for packets that were not intercepted on an injected channel.
+     * @param player - the player.
+     * @param createNew - if TRUE, create new queues if they haven't already been created.
+     * @return The sending queues, or NULL if not found.
+     */
+    private QueueContainer getFallbackQueues(Player player, boolean createNew) {
+        if (player == null)
+            return null;
+        
+        QueueContainer queues = fallbackSendingQueues.get(player);
         
         // Safe concurrent initialization
         if (queues == null && createNew) {
             final QueueContainer newContainer = new QueueContainer();
-
+            
             // Attempt to map the queue
-            queues = playerSendingQueues.putIfAbsent(packet.getPlayer(), newContainer);
+            queues = fallbackSendingQueues.putIfAbsent(player, newContainer);
             
             if (queues == null) {
                 queues = newContainer;
+                playerSendingQueues.add(newContainer);
             }
         }
-        
-        // Check for NULL again
-        if (queues != null)
-            return packet.isServerPacket() ? queues.getServerQueue() : queues.getClientQueue();
-        else
-            return null;
+        return queues;
     }
 
     /**
@@ -164,7 +241,7 @@ class PlayerSendingHandler {
      */
     public void sendAllPackets() {
         if (!cleaningUp) {
-            for (QueueContainer queues : playerSendingQueues.values()) {
+            for (QueueContainer queues : playerSendingQueues) {
                 queues.getClientQueue().cleanupAll();
                 queues.getServerQueue().cleanupAll();
             }
@@ -178,7 +255,7 @@ class PlayerSendingHandler {
      */
     public void sendServerPackets(List<PacketType> types, boolean synchronusOK) {
         if (!cleaningUp) {
-            for (QueueContainer queue : playerSendingQueues.values()) {
+            for (QueueContainer queue : playerSendingQueues) {
                 queue.getServerQueue().signalPacketUpdate(types, synchronusOK);
             }
         }
@@ -190,7 +267,7 @@ class PlayerSendingHandler {
      */
     public void sendClientPackets(List<PacketType> types, boolean synchronusOK) {
         if (!cleaningUp) {
-            for (QueueContainer queue : playerSendingQueues.values()) {
+            for (QueueContainer queue : playerSendingQueues) {
                 queue.getClientQueue().signalPacketUpdate(types, synchronusOK);
             }
         }
@@ -201,7 +278,7 @@ class PlayerSendingHandler {
      * @param onMainThread - whether this is occurring on the main thread.
      */
     public void trySendServerPackets(boolean onMainThread) {
-        for (QueueContainer queue : playerSendingQueues.values()) {
+        for (QueueContainer queue : playerSendingQueues) {
             queue.getServerQueue().trySendPackets(onMainThread);
         }
     }
@@ -211,7 +288,7 @@ class PlayerSendingHandler {
      * @param onMainThread - whether this is occurring on the main thread.
      */
     public void trySendClientPackets(boolean onMainThread) {
-        for (QueueContainer queue : playerSendingQueues.values()) {
+        for (QueueContainer queue : playerSendingQueues) {
             queue.getClientQueue().trySendPackets(onMainThread);
         }
     }
@@ -223,7 +300,7 @@ class PlayerSendingHandler {
     public List<PacketSendingQueue> getServerQueues() {
         List<PacketSendingQueue> result = new ArrayList<>();
         
-        for (QueueContainer queue : playerSendingQueues.values())
+        for (QueueContainer queue : playerSendingQueues)
             result.add(queue.getServerQueue());
         return result;
     }
@@ -235,7 +312,7 @@ class PlayerSendingHandler {
     public List<PacketSendingQueue> getClientQueues() {
         List<PacketSendingQueue> result = new ArrayList<>();
         
-        for (QueueContainer queue : playerSendingQueues.values())
+        for (QueueContainer queue : playerSendingQueues)
             result.add(queue.getClientQueue());
         return result;
     }
@@ -249,6 +326,7 @@ class PlayerSendingHandler {
             
             sendAllPackets();
             playerSendingQueues.clear();
+            fallbackSendingQueues.clear();
         }
     }
 
@@ -257,7 +335,12 @@ class PlayerSendingHandler {
      * @param player - the player that just logged out.
      */
     public void removePlayer(Player player) {
-        // Every packet will be dropped - there's nothing we can do
-        playerSendingQueues.remove(player);
+        // Every packet will be dropped - there's nothing we can do. Queues stored in a channel
+        // are removed once the channel closes.
+        QueueContainer queues = player != null ? fallbackSendingQueues.remove(player) : null;
+        
+        if (queues != null) {
+            playerSendingQueues.remove(queues);
+        }
     }
 }
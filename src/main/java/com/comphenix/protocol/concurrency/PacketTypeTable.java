@@ -0,0 +1,123 @@
+package com.comphenix.protocol.concurrency;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import com.comphenix.protocol.PacketType;
+
+/**
+ * Represents a concurrent table of values indexed by {@link PacketType#ordinal()}.
+ * <p>
+ * Values are created on first access. Lookups never lock or hash, which makes this table suitable for
+ * counters that are updated for every packet. Values are created outside of any lock, so a factory that is slow or
+ * looks up other types in the same table never blocks other threads. Threads that race to create the same value may
+ * each invoke the factory, but all of them receive the value that was stored first.
+ *
+ * @param <V> - the type of the values.
+ */
+public class PacketTypeTable<V> {
+
+    private final Function<PacketType, V> factory;
+    private volatile AtomicReferenceArray<Entry<V>> entries = new AtomicReferenceArray<>(0);
+
+    /**
+     * Construct a new table.
+     *
+     * @param factory - the function that creates the value of a packet type on first access.
+     */
+    public PacketTypeTable(Function<PacketType, V> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Retrieve the value of the given packet type, creating it if necessary.
+     *
+     * @param type - the packet type.
+     * @return The value.
+     */
+    public V get(PacketType type) {
+        int ordinal = type.ordinal();
+        AtomicReferenceArray<Entry<V>> current = this.entries;
+
+        if (ordinal < current.length()) {
+            Entry<V> entry = current.get(ordinal);
+
+            if (entry != null) {
+                return entry.value;
+            }
+        }
+        return this.create(type, ordinal);
+    }
+
+    /**
+     * Retrieve the value of the given packet type, if it has been created.
+     *
+     * @param type - the packet type.
+     * @return The value, or NULL if not found.
+     */
+    public V getIfPresent(PacketType type) {
+        int ordinal = type.ordinal();
+        AtomicReferenceArray<Entry<V>> current = this.entries;
+
+        if (ordinal < current.length()) {
+            Entry<V> entry = current.get(ordinal);
+            return entry != null ? entry.value : null;
+        }
+        return null;
+    }
+
+    /**
+     * Invoke the given action for every value in the table.
+     *
+     * @param action - the action to invoke.
+     */
+    public void forEach(BiConsumer<PacketType, V> action) {
+        AtomicReferenceArray<Entry<V>> current = this.entries;
+
+        for (int i = 0; i < current.length(); i++) {
+            Entry<V> entry = current.get(i);
+
+            if (entry != null) {
+                action.accept(entry.type, entry.value);
+            }
+        }
+    }
+
+    private V create(PacketType type, int ordinal) {
+        V value = this.factory.apply(type);
+        return this.publish(type, ordinal, value);
+    }
+
+    private synchronized V publish(PacketType type, int ordinal, V value) {
+        AtomicReferenceArray<Entry<V>> current = this.entries;
+
+        // Lazily grow the table, other threads may still read the old one
+        if (ordinal >= current.length()) {
+            int length = Math.max(ordinal + 1, PacketType.getOrdinalCount());
+            AtomicReferenceArray<Entry<V>> grown = new AtomicReferenceArray<>(length);
+
+            for (int i = 0; i < current.length(); i++) {
+                grown.set(i, current.get(i));
+            }
+            this.entries = current = grown;
+        }
+
+        // another thread might have been faster
+        Entry<V> entry = current.get(ordinal);
+        if (entry == null) {
+            current.set(ordinal, entry = new Entry<>(type, value));
+        }
+        return entry.value;
+    }
+
+    private static final class Entry<V> {
+        private final PacketType type;
+        private final V value;
+
+        Entry(PacketType type, V value) {
+            this.type = type;
+            this.value = value;
+        }
+    }
+}
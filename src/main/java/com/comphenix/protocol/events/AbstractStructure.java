@@ -4,9 +4,17 @@ import javax.annotation.Nonnull;
 import java.lang.reflect.Array;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.reflect.BooleanStructureModifier;
+import com.comphenix.protocol.reflect.ByteStructureModifier;
+import com.comphenix.protocol.reflect.DoubleStructureModifier;
 import com.comphenix.protocol.reflect.EquivalentConverter;
+import com.comphenix.protocol.reflect.FloatStructureModifier;
+import com.comphenix.protocol.reflect.IntStructureModifier;
+import com.comphenix.protocol.reflect.LongStructureModifier;
+import com.comphenix.protocol.reflect.ShortStructureModifier;
 import com.comphenix.protocol.reflect.StructureModifier;
 import com.comphenix.protocol.utility.MinecraftReflection;
 import com.comphenix.protocol.utility.MinecraftVersion;
@@ -35,6 +43,11 @@ public abstract class AbstractStructure {
     protected transient Object handle;
     protected transient StructureModifier<Object> structureModifier;
 
+    // Modifiers of this structure without a converter, by field type, created on first use
+    private transient volatile Map<Class<?>, StructureModifier<?>> typedModifiers;
+    // The entity modifier of the last requested world
+    private transient volatile EntityModifier entityModifier;
+
     protected AbstractStructure() {}
 
     protected AbstractStructure(Object handle, StructureModifier<Object> modifier) {
@@ -53,6 +66,37 @@ public abstract class AbstractStructure {
         return structureModifier;
     }
 
+    /**
+     * Retrieves the read/write structure for every field with the given type, which is only created once per structure.
+     * @param <T> Type
+     * @param fieldType - the type, or supertype, of every field to modify.
+     * @return A modifier for this specific type.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> StructureModifier<T> getTypedModifier(Class<?> fieldType) {
+        if (fieldType == null) {
+            // not supported in this version
+            return structureModifier.withType(null);
+        }
+
+        Map<Class<?>, StructureModifier<?>> modifiers = typedModifiers;
+        if (modifiers == null) {
+            // racing threads might each create a map, which only costs them a modifier
+            typedModifiers = modifiers = new ConcurrentHashMap<>(8);
+        }
+
+        StructureModifier<?> modifier = modifiers.get(fieldType);
+        if (modifier == null) {
+            modifier = structureModifier.withType(fieldType);
+
+            StructureModifier<?> existing = modifiers.putIfAbsent(fieldType, modifier);
+            if (existing != null) {
+                modifier = existing;
+            }
+        }
+        return (StructureModifier<T>) modifier;
+    }
+
     /**
      * Retrieves a read/write structure for every field with the given type.
      * @param <T> Type
@@ -60,7 +104,7 @@ public abstract class AbstractStructure {
      * @return A modifier for this specific type.
      */
     public <T> StructureModifier<T> getSpecificModifier(Class<T> primitiveType) {
-        return structureModifier.withType(primitiveType);
+        return getTypedModifier(primitiveType);
     }
 
     /**
@@ -68,7 +112,7 @@ public abstract class AbstractStructure {
      * @return A modifier for every byte field.
      */
     public StructureModifier<Byte> getBytes() {
-        return structureModifier.withType(byte.class);
+        return getTypedModifier(byte.class);
     }
 
     /**
@@ -76,7 +120,7 @@ public abstract class AbstractStructure {
      * @return A modifier for every boolean field.
      */
     public StructureModifier<Boolean> getBooleans() {
-        return structureModifier.withType(boolean.class);
+        return getTypedModifier(boolean.class);
     }
 
     /**
@@ -84,7 +128,7 @@ public abstract class AbstractStructure {
      * @return A modifier for every short field.
      */
     public StructureModifier<Short> getShorts() {
-        return structureModifier.withType(short.class);
+        return getTypedModifier(short.class);
     }
 
     /**
@@ -92,14 +136,14 @@ public abstract class AbstractStructure {
      * @return A modifier for every integer field.
      */
     public StructureModifier<Integer> getIntegers() {
-        return structureModifier.withType(int.class);
+        return getTypedModifier(int.class);
     }
     /**
      * Retrieves a read/write structure for every long field.
      * @return A modifier for every long field.
      */
     public StructureModifier<Long> getLongs() {
-        return structureModifier.withType(long.class);
+        return getTypedModifier(long.class);
     }
 
     /**
@@ -107,7 +151,7 @@ public abstract class AbstractStructure {
      * @return A modifier for every float field.
      */
     public StructureModifier<Float> getFloat() {
-        return structureModifier.withType(float.class);
+        return getTypedModifier(float.class);
     }
 
     /**
@@ -115,7 +159,70 @@ public abstract class AbstractStructure {
      * @return A modifier for every double field.
      */
     public StructureModifier<Double> getDoubles() {
-        return structureModifier.withType(double.class);
+        return getTypedModifier(double.class);
+    }
+
+    /**
+     * Retrieves a read/write structure for every boolean field, which can read and write them without boxing.
+     * @return A modifier for every boolean field.
+     * @see #getBooleans()
+     */
+    public BooleanStructureModifier getBooleanModifier() {
+        return (BooleanStructureModifier) this.<Boolean>getTypedModifier(boolean.class);
+    }
+
+    /**
+     * Retrieves a read/write structure for every byte field, which can read and write them without boxing.
+     * @return A modifier for every byte field.
+     * @see #getBytes()
+     */
+    public ByteStructureModifier getByteModifier() {
+        return (ByteStructureModifier) this.<Byte>getTypedModifier(byte.class);
+    }
+
+    /**
+     * Retrieves a read/write structure for every short field, which can read and write them without boxing.
+     * @return A modifier for every short field.
+     * @see #getShorts()
+     */
+    public ShortStructureModifier getShortModifier() {
+        return (ShortStructureModifier) this.<Short>getTypedModifier(short.class);
+    }
+
+    /**
+     * Retrieves a read/write structure for every int field, which can read and write them without boxing.
+     * @return A modifier for every int field.
+     * @see #getIntegers()
+     */
+    public IntStructureModifier getIntModifier() {
+        return (IntStructureModifier) this.<Integer>getTypedModifier(int.class);
+    }
+
+    /**
+     * Retrieves a read/write structure for every long field, which can read and write them without boxing.
+     * @return A modifier for every long field.
+     * @see #getLongs()
+     */
+    public LongStructureModifier getLongModifier() {
+        return (LongStructureModifier) this.<Long>getTypedModifier(long.class);
+    }
+
+    /**
+     * Retrieves a read/write structure for every float field, which can read and write them without boxing.
+     * @return A modifier for every float field.
+     * @see #getFloat()
+     */
+    public FloatStructureModifier getFloatModifier() {
+        return (FloatStructureModifier) this.<Float>getTypedModifier(float.class);
+    }
+
+    /**
+     * Retrieves a read/write structure for every double field, which can read and write them without boxing.
+     * @return A modifier for every double field.
+     * @see #getDoubles()
+     */
+    public DoubleStructureModifier getDoubleModifier() {
+        return (DoubleStructureModifier) this.<Double>getTypedModifier(double.class);
     }
 
     /**
@@ -123,7 +230,7 @@ public abstract class AbstractStructure {
      * @return A modifier for every String field.
      */
     public StructureModifier<String> getStrings() {
-        return structureModifier.withType(String.class);
+        return getTypedModifier(String.class);
     }
 
     /**
@@ -131,7 +238,7 @@ public abstract class AbstractStructure {
      * @return A modifier for every UUID field.
      */
     public StructureModifier<UUID> getUUIDs() {
-        return structureModifier.withType(UUID.class);
+        return getTypedModifier(UUID.class);
     }
 
     /**
@@ -139,7 +246,7 @@ public abstract class AbstractStructure {
      * @return A modifier for every String array field.
      */
     public StructureModifier<String[]> getStringArrays() {
-        return structureModifier.withType(String[].class);
+        return getTypedModifier(String[].class);
     }
 
     /**
@@ -147,7 +254,7 @@ public abstract class AbstractStructure {
      * @return A modifier for every byte array field.
      */
     public StructureModifier<byte[]> getByteArrays() {
-        return structureModifier.withType(byte[].class);
+        return getTypedModifier(byte[].class);
     }
 
     /**
@@ -163,7 +270,7 @@ public abstract class AbstractStructure {
      * @return A modifier for every int array field.
      */
     public StructureModifier<int[]> getIntegerArrays() {
-        return structureModifier.withType(int[].class);
+        return getTypedModifier(int[].class);
     }
 
     /**
@@ -171,7 +278,7 @@ public abstract class AbstractStructure {
      * @return A modifier for every short array field.
      */
     public StructureModifier<short[]> getShortArrays() {
-        return structureModifier.withType(short[].class);
+        return getTypedModifier(short[].class);
     }
 
     /**
@@ -267,9 +374,15 @@ public abstract class AbstractStructure {
      */
     public StructureModifier<Entity> getEntityModifier(@Nonnull World world) {
         Preconditions.checkNotNull(world, "world cannot be NULL.");
-        // Convert to and from the Bukkit wrapper
-        return structureModifier.withType(
-                int.class, BukkitConverters.getEntityConverter(world));
+
+        // listeners usually ask for the entities of the same world
+        EntityModifier cached = entityModifier;
+        if (cached == null || cached.world != world) {
+            // Convert to and from the Bukkit wrapper
+            entityModifier = cached = new EntityModifier(world, structureModifier.withType(
+                    int.class, BukkitConverters.getEntityConverter(world)));
+        }
+        return cached.modifier;
     }
 
     /**
@@ -983,7 +1096,7 @@ public abstract class AbstractStructure {
      * @return The Structure Modifier
      */
     public StructureModifier<Instant> getInstants() {
-        return structureModifier.withType(Instant.class);
+        return getTypedModifier(Instant.class);
     }
 
     /**
@@ -1334,4 +1447,17 @@ public abstract class AbstractStructure {
             }
         }
     }
+
+    /**
+     * The entity modifier of a world.
+     */
+    private static final class EntityModifier {
+        private final World world;
+        private final StructureModifier<Entity> modifier;
+
+        private EntityModifier(World world, StructureModifier<Entity> modifier) {
+            this.world = world;
+            this.modifier = modifier;
+        }
+    }
 }
@@ -0,0 +1,338 @@
+package com.comphenix.protocol.events;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.concurrency.PacketTypeTable;
+import com.comphenix.protocol.utility.MinecraftMethods;
+import com.comphenix.protocol.utility.MinecraftReflection;
+import com.google.common.collect.ImmutableSet;
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Deep clones packets with whichever of the two cloning strategies is faster for their type.
+ * <p>
+ * Packets can either be cloned reflectively, by walking their object graph, or by writing them to a buffer and reading
+ * them back. Small packets are usually faster to clone reflectively, while large packets such as chunks and recipe
+ * books are faster to read back. The first clones of each packet type alternate between the two strategies and measure
+ * them, after which the faster one is used. The slower strategy is measured again every now and then, in case the
+ * packets of the type change in size.
+ * <p>
+ * Reading a packet back drops any state that its wire format doesn't carry, such as fields set by plugins that the
+ * client never receives. Only the large packet types whose wire format is known to carry all of their state are
+ * therefore measured; every other type is cloned reflectively, and only read back if that fails.
+ * <p>
+ * A strategy that fails for a packet type is never used for it again.
+ */
+public final class AdaptivePacketCloner {
+
+    // The shared cloner
+    private static final AdaptivePacketCloner INSTANCE = new AdaptivePacketCloner();
+
+    // Clones of each strategy to measure before choosing one, including the first call which is not measured
+    private static final int SAMPLES = 16;
+    // Clones between measuring the slower strategy again
+    private static final int RESAMPLE_INTERVAL = 1024;
+    // Weight of a new measurement in the average
+    private static final double SMOOTHING = 1 / 8.0;
+
+    // Packets that cannot be cloned reflectively
+    private static final Set<PacketType> REFLECTIVE_UNSUPPORTED = ImmutableSet.of(
+            PacketType.Play.Server.BOSS,
+            PacketType.Play.Server.ADVANCEMENTS,
+            PacketType.Play.Client.USE_ENTITY,
+            PacketType.Status.Server.SERVER_INFO
+    );
+
+    // Large packets that can be read back without losing state, and are thus worth measuring
+    private static final Set<PacketType> SERIALIZED_LOSSLESS = ImmutableSet.of(
+            PacketType.Play.Server.MAP_CHUNK,
+            PacketType.Play.Server.LIGHT_UPDATE,
+            PacketType.Play.Server.COMMANDS,
+            PacketType.Play.Server.RECIPES,
+            PacketType.Play.Server.RECIPE_UPDATE,
+            PacketType.Play.Server.TAGS
+    );
+
+    private final PacketTypeTable<TypeStatistics> statistics = new PacketTypeTable<>(TypeStatistics::new);
+
+    /**
+     * Retrieve the shared adaptive cloner.
+     *
+     * @return The shared adaptive cloner.
+     */
+    public static AdaptivePacketCloner getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Deep clone the given packet.
+     *
+     * @param type   - the type of the packet.
+     * @param handle - the packet.
+     * @return The cloned packet.
+     * @throws RuntimeException If neither strategy can clone the packet.
+     */
+    public Object clone(PacketType type, Object handle) {
+        TypeStatistics statistics = this.statistics.get(type);
+
+        while (true) {
+            Strategy strategy = statistics.nextStrategy();
+            long startTime = System.nanoTime();
+
+            try {
+                Object cloned = strategy == Strategy.REFLECTIVE
+                        ? PacketContainer.cloneReflectively(handle)
+                        : cloneSerialized(statistics, handle);
+
+                statistics.record(strategy, System.nanoTime() - startTime);
+                return cloned;
+            } catch (RuntimeException ex) {
+                // try the other strategy, unless it failed as well
+                if (!statistics.disable(strategy)) {
+                    throw ex;
+                }
+            }
+        }
+    }
+
+    private static Object cloneSerialized(TypeStatistics statistics, Object handle) {
+        // not pooled, as readers may keep slices of the buffer or allocate from it
+        Object serializer = MinecraftReflection.createPacketDataSerializer(statistics.bufferSize);
+        MinecraftMethods.getPacketWriteByteBufMethod().invoke1(handle, serializer);
+
+        // start with a large enough buffer next time
+        statistics.bufferSize = Math.max(statistics.bufferSize, ((ByteBuf) serializer).writerIndex());
+        return PacketContainer.deserializeFromBuffer(statistics.type, serializer);
+    }
+
+    /**
+     * Retrieve the cloning statistics of the given packet type.
+     *
+     * @param type - the packet type.
+     * @return The statistics, or NULL if no packet of the type has been cloned.
+     */
+    public CloneStatistics getStatistics(PacketType type) {
+        TypeStatistics statistics = this.statistics.getIfPresent(type);
+        return statistics != null ? statistics.snapshot() : null;
+    }
+
+    /**
+     * Retrieve the cloning statistics of every packet type that has been cloned.
+     *
+     * @return The statistics by packet type.
+     */
+    public Map<PacketType, CloneStatistics> getStatistics() {
+        Map<PacketType, CloneStatistics> result = new LinkedHashMap<>();
+        this.statistics.forEach((type, statistics) -> result.put(type, statistics.snapshot()));
+        return result;
+    }
+
+    /**
+     * A strategy for cloning packets.
+     */
+    public enum Strategy {
+        /**
+         * Copy the object graph of the packet.
+         */
+        REFLECTIVE,
+
+        /**
+         * Write the packet to a buffer and read it back.
+         */
+        SERIALIZED
+    }
+
+    /**
+     * The cloning statistics of a packet type at a given point in time.
+     */
+    public static final class CloneStatistics {
+
+        private final PacketType type;
+        private final Strategy strategy;
+        private final long clones;
+        private final double reflectiveNanos;
+        private final double serializedNanos;
+        private final boolean reflectiveSupported;
+        private final boolean serializedSupported;
+
+        private CloneStatistics(PacketType type, Strategy strategy, long clones, double reflectiveNanos,
+                double serializedNanos, boolean reflectiveSupported, boolean serializedSupported) {
+            this.type = type;
+            this.strategy = strategy;
+            this.clones = clones;
+            this.reflectiveNanos = reflectiveNanos;
+            this.serializedNanos = serializedNanos;
+            this.reflectiveSupported = reflectiveSupported;
+            this.serializedSupported = serializedSupported;
+        }
+
+        /**
+         * Retrieve the packet type.
+         *
+         * @return The packet type.
+         */
+        public PacketType getType() {
+            return this.type;
+        }
+
+        /**
+         * Retrieve the strategy used for most clones of this packet type.
+         *
+         * @return The current strategy.
+         */
+        public Strategy getStrategy() {
+            return this.strategy;
+        }
+
+        /**
+         * Retrieve the number of packets of this type that have been cloned.
+         *
+         * @return The number of clones.
+         */
+        public long getClones() {
+            return this.clones;
+        }
+
+        /**
+         * Retrieve the recent average time of a reflective clone.
+         *
+         * @return The average time in nanoseconds, or NaN if it hasn't been measured.
+         */
+        public double getReflectiveNanos() {
+            return this.reflectiveNanos;
+        }
+
+        /**
+         * Retrieve the recent average time of a serialized clone.
+         *
+         * @return The average time in nanoseconds, or NaN if it hasn't been measured.
+         */
+        public double getSerializedNanos() {
+            return this.serializedNanos;
+        }
+
+        /**
+         * Determine if packets of this type can be cloned reflectively.
+         *
+         * @return TRUE if they can, FALSE if it failed.
+         */
+        public boolean isReflectiveSupported() {
+            return this.reflectiveSupported;
+        }
+
+        /**
+         * Determine if packets of this type can be cloned by serializing them.
+         *
+         * @return TRUE if they can, FALSE if it failed.
+         */
+        public boolean isSerializedSupported() {
+            return this.serializedSupported;
+        }
+
+        @Override
+        public String toString() {
+            return "CloneStatistics[type=" + this.type + ", strategy=" + this.strategy + ", clones=" + this.clones
+                    + ", reflectiveNanos=" + this.reflectiveNanos + ", serializedNanos=" + this.serializedNanos + "]";
+        }
+    }
+
+    private static final class TypeStatistics {
+
+        private final PacketType type;
+        // whether the serialized strategy is measured, or only used as a fallback
+        private final boolean measured;
+        private final AtomicLong clones = new AtomicLong();
+
+        // the first clone of each strategy resolves everything it needs, and is not measured
+        private final AtomicInteger reflectiveCalls = new AtomicInteger();
+        private final AtomicInteger serializedCalls = new AtomicInteger();
+        private volatile double reflectiveNanos = Double.NaN;
+        private volatile double serializedNanos = Double.NaN;
+
+        private volatile boolean reflectiveSupported;
+        private volatile boolean serializedSupported = true;
+
+        // races only cause a buffer to grow
+        private volatile int bufferSize = 256;
+
+        private TypeStatistics(PacketType type) {
+            this.type = type;
+            this.measured = SERIALIZED_LOSSLESS.contains(type);
+            this.reflectiveSupported = !REFLECTIVE_UNSUPPORTED.contains(type);
+        }
+
+        private Strategy nextStrategy() {
+            long clone = this.clones.getAndIncrement();
+            if (!this.reflectiveSupported) {
+                return Strategy.SERIALIZED;
+            } else if (!this.serializedSupported || !this.measured) {
+                return Strategy.REFLECTIVE;
+            }
+
+            if (clone < 2 * SAMPLES) {
+                // alternate while sampling
+                return clone % 2 == 0 ? Strategy.REFLECTIVE : Strategy.SERIALIZED;
+            }
+
+            Strategy fastest = this.getFastest();
+            if (clone % RESAMPLE_INTERVAL == 0) {
+                // measure the other one again
+                return fastest == Strategy.REFLECTIVE ? Strategy.SERIALIZED : Strategy.REFLECTIVE;
+            }
+            return fastest;
+        }
+
+        private Strategy getFastest() {
+            if (!this.reflectiveSupported) {
+                return Strategy.SERIALIZED;
+            } else if (!this.serializedSupported || !this.measured) {
+                return Strategy.REFLECTIVE;
+            }
+
+            // prefer the reflective clone until the other one has been measured
+            double serialized = this.serializedNanos;
+            return serialized < this.reflectiveNanos ? Strategy.SERIALIZED : Strategy.REFLECTIVE;
+        }
+
+        private void record(Strategy strategy, long elapsedNanos) {
+            if (strategy == Strategy.REFLECTIVE) {
+                if (this.reflectiveCalls.getAndIncrement() > 0) {
+                    this.reflectiveNanos = average(this.reflectiveNanos, elapsedNanos);
+                }
+            } else if (this.serializedCalls.getAndIncrement() > 0) {
+                this.serializedNanos = average(this.serializedNanos, elapsedNanos);
+            }
+        }
+
+        private static double average(double current, long elapsedNanos) {
+            // racing updates might drop a measurement, which doesn't matter for an average
+            return Double.isNaN(current) ? elapsedNanos : current + (elapsedNanos - current) * SMOOTHING;
+        }
+
+        /**
+         * Stop using the given strategy.
+         *
+         * @param strategy - the strategy that failed.
+         * @return TRUE if the other strategy can still be used, FALSE otherwise.
+         */
+        private boolean disable(Strategy strategy) {
+            if (strategy == Strategy.REFLECTIVE) {
+                this.reflectiveSupported = false;
+                return this.serializedSupported;
+            } else {
+                this.serializedSupported = false;
+                return this.reflectiveSupported;
+            }
+        }
+
+        private CloneStatistics snapshot() {
+            return new CloneStatistics(this.type, this.getFastest(), this.clones.get(), this.reflectiveNanos,
+                    this.serializedNanos, this.reflectiveSupported, this.serializedSupported);
+        }
+    }
+}
@@ -27,21 +27,22 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.function.Function;
 
 import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.concurrency.PacketTypeTable;
 import com.comphenix.protocol.injector.StructureCache;
 import com.comphenix.protocol.reflect.FuzzyReflection;
+import com.comphenix.protocol.reflect.IntStructureModifier;
+import com.comphenix.protocol.reflect.CopyOnWriteTarget;
 import com.comphenix.protocol.reflect.ObjectWriter;
 import com.comphenix.protocol.reflect.StructureModifier;
 import com.comphenix.protocol.reflect.accessors.Accessors;
 import com.comphenix.protocol.reflect.accessors.ConstructorAccessor;
 import com.comphenix.protocol.reflect.accessors.MethodAccessor;
 import com.comphenix.protocol.reflect.cloning.AggregateCloner;
-import com.comphenix.protocol.reflect.cloning.AggregateCloner.BuilderParameters;
 import com.comphenix.protocol.reflect.cloning.BukkitCloner;
 import com.comphenix.protocol.reflect.cloning.Cloner;
 import com.comphenix.protocol.reflect.cloning.CollectionCloner;
@@ -56,10 +57,8 @@ import com.comphenix.protocol.utility.MinecraftMethods;
 import com.comphenix.protocol.utility.MinecraftReflection;
 import com.comphenix.protocol.utility.MinecraftVersion;
 import com.comphenix.protocol.wrappers.Converters;
-import com.google.common.collect.Sets;
 import io.netty.buffer.ByteBuf;
 import io.netty.util.ReferenceCountUtil;
-import javax.annotation.Nullable;
 
 /**
  * Represents a Minecraft packet indirectly.
@@ -72,10 +71,13 @@ public class PacketContainer extends AbstractStructure implements Serializable {
 
     private PacketType type;
 
+    // Shares the packet with another container until it is first modified, or NULL
+    private transient CopyOnWriteTarget copyOnWrite;
+
     // Support for serialization
     private static final Map<PacketType, Function<Object, Object>> PACKET_DESERIALIZER_METHODS = new ConcurrentHashMap<>();
 
-    // Used to clone packets
+    // Used to clone packets, every cloner decides by class alone
     private static final AggregateCloner DEEP_CLONER = AggregateCloner
             .newBuilder()
             .instanceProvider(StructureCache::newPacket)
@@ -84,7 +86,8 @@ public class PacketContainer extends AbstractStructure implements Serializable {
             .andThen(JavaOptionalCloner.class)
             .andThen(GuavaOptionalCloner.class)
             .andThen(CollectionCloner.class)
-            .andThen(getSpecializedDeepClonerFactory())
+            .andThen(FieldCloner.class)
+            .compiled()
             .build();
 
     private static final AggregateCloner SHALLOW_CLONER = AggregateCloner
@@ -101,13 +104,9 @@ public class PacketContainer extends AbstractStructure implements Serializable {
             })
             .build();
 
-    // Packets that cannot be cloned by our default deep cloner
-    private static final Set<PacketType> FAST_CLONE_UNSUPPORTED = Sets.newHashSet(
-        PacketType.Play.Server.BOSS,
-        PacketType.Play.Server.ADVANCEMENTS,
-        PacketType.Play.Client.USE_ENTITY,
-        PacketType.Status.Server.SERVER_INFO
-    );
+    // Shared modifiers without a target, by packet and field type
+    private static final PacketTypeTable<ConcurrentMap<Class<?>, StructureModifier<?>>> STRUCTURE_HANDLES =
+            new PacketTypeTable<>(type -> new ConcurrentHashMap<>());
 
     /**
      * Creates a packet container for a new packet.
@@ -158,6 +157,44 @@ public class PacketContainer extends AbstractStructure implements Serializable {
         return new PacketContainer(type, packet);
     }
 
+    /**
+     * Retrieve a shared structure modifier for every field of the given type in packets of the given type.
+     * <p>
+     * The modifier has no target, and is only created once for every packet and field type. Use it to read and write
+     * the fields of any packet of this type with {@link StructureModifier#read(Object, int)} and
+     * {@link StructureModifier#write(Object, int, Object)}, passing {@link #getHandle()} as the target. Unlike
+     * {@link #getSpecificModifier(Class)}, which is created once per container, this doesn't allocate a modifier for
+     * every packet:
+     * <pre><code>
+     * StructureModifier&lt;Integer&gt; integers = PacketContainer.getStructureHandle(type, int.class);
+     * int entityId = integers.read(packet.getHandle(), 0);
+     * </code></pre>
+     * For primitive field types, the modifier is the matching primitive modifier (such as {@link IntStructureModifier}
+     * for int fields) which can also read and write the fields without boxing.
+     *
+     * @param <T>       Type
+     * @param type      - the packet type.
+     * @param fieldType - the type, or supertype, of every field to modify.
+     * @return The shared structure modifier.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> StructureModifier<T> getStructureHandle(PacketType type, Class<?> fieldType) {
+        ConcurrentMap<Class<?>, StructureModifier<?>> handles = STRUCTURE_HANDLES.get(type);
+
+        StructureModifier<?> handle = handles.get(fieldType);
+        if (handle == null) {
+            // primitive field types get the matching primitive modifier
+            handle = StructureCache.getStructure(type).withType(fieldType);
+
+            // another thread might have been faster
+            StructureModifier<?> existing = handles.putIfAbsent(fieldType, handle);
+            if (existing != null) {
+                handle = existing;
+            }
+        }
+        return (StructureModifier<T>) handle;
+    }
+
     /**
      * For serialization.
      */
@@ -166,6 +203,9 @@ public class PacketContainer extends AbstractStructure implements Serializable {
 
     /**
      * Retrieves the underlying Minecraft packet.
+     * <p>
+     * If this container still shares its packet (see {@link #isSharedPacket()}), the handle is the shared packet and
+     * must not be modified. Write through the structure modifiers instead, which copy it first.
      * @return Underlying Minecraft packet.
      */
     public Object getHandle() {
@@ -217,13 +257,56 @@ public class PacketContainer extends AbstractStructure implements Serializable {
         return new PacketContainer(getType(), clonedPacket);
     }
 
+    /**
+     * Create a container that shares the packet of this container until it is first modified.
+     * <p>
+     * This is meant for sending a packet to many players, and only modifying it for some of them. The first write
+     * through any structure modifier of the returned container makes a shallow copy of the packet, and writes to that
+     * copy instead. Containers that are never written to send the original packet, without copying it at all.
+     * <p>
+     * Only writes through the structure modifiers (and the metadata) are detected. Objects read from the packet, such as
+     * lists, item stacks or internal structures, are still shared with the original packet and must not be modified in
+     * place - write a modified copy to the field instead. The original packet must not be modified either while the
+     * returned container is in use.
+     *
+     * @return A container sharing the packet until it is modified.
+     */
+    public PacketContainer copyOnWrite() {
+        PacketContainer copy = new PacketContainer();
+        copy.type = this.type;
+        copy.handle = this.getHandle();
+        copy.copyOnWrite = new CopyOnWriteTarget(copy.handle, SHALLOW_CLONER::clone, packet -> {
+            // the metadata belongs to the packet object
+            PacketMetadata.copy(copy.handle, packet);
+            copy.handle = packet;
+        });
+        copy.structureModifier = this.structureModifier.withCopyOnWrite(copy.copyOnWrite);
+        return copy;
+    }
+
+    /**
+     * Determine if this container still shares its packet with another container.
+     *
+     * @return TRUE if it does, FALSE if the packet belongs to this container alone.
+     * @see #copyOnWrite()
+     */
+    public boolean isSharedPacket() {
+        return this.copyOnWrite != null && !this.copyOnWrite.isCopied();
+    }
+
+    /**
+     * Retrieve the packet to modify, copying it first if it is still shared.
+     * @return The packet that belongs to this container alone.
+     */
+    Object getWritableHandle() {
+        return this.copyOnWrite != null ? this.copyOnWrite.getForWrite() : this.handle;
+    }
+
     /**
      * Create a deep copy of the current packet.
      * <p>
      * This will perform a full copy of the entire object tree, only skipping
      * known immutable objects and primitive types.
-     * <p>
-     * Note that the inflated buffers in packet 51 and 56 will be copied directly to save memory.
      *
      * @return A deep copy of the current packet.
      */
@@ -235,46 +318,19 @@ public class PacketContainer extends AbstractStructure implements Serializable {
             return this;
         }
 
-        // try fast cloning first
-        if (!FAST_CLONE_UNSUPPORTED.contains(packetType)) {
-            try {
-                Object cloned = DEEP_CLONER.clone(handle);
-                return new PacketContainer(packetType, cloned);
-            } catch (Exception ex) {
-                FAST_CLONE_UNSUPPORTED.add(packetType);
-            }
-        }
-
-        // Fall back on the slower alternative method of reading and writing back the packet
-        Object serialized = this.serializeToBuffer();
-        Object deserialized = deserializeFromBuffer(packetType, serialized);
-
-        // ensure that we don't leak memory
-        ReferenceCountUtil.safeRelease(serialized);
-        return new PacketContainer(packetType, deserialized);
+        // either reflectively or by serializing it, whichever is faster for this type
+        Object cloned = AdaptivePacketCloner.getInstance().clone(packetType, handle);
+        return new PacketContainer(packetType, cloned);
     }
 
-    // To save space, we'll skip copying the inflated buffers in packet 51 and 56
-    private static com.google.common.base.Function<BuilderParameters, Cloner> getSpecializedDeepClonerFactory() {
-        // Look at what you've made me do Java, look at it!!
-        return new com.google.common.base.Function<BuilderParameters, Cloner>() {
-            @Override
-            public Cloner apply(@Nullable BuilderParameters param) {
-                return new FieldCloner(param.getAggregateCloner(), param.getInstanceProvider()) {{
-                    this.writer = new ObjectWriter() {
-                        @Override
-                        protected void transformField(StructureModifier<Object> modifierSource,
-                                                      StructureModifier<Object> modifierDest, int fieldIndex) {
-                            // No need to clone inflated buffers
-                            if (modifierSource.getField(fieldIndex).getName().startsWith("inflatedBuffer"))
-                                modifierDest.write(fieldIndex, modifierSource.read(fieldIndex));
-                            else
-                                defaultTransform(modifierSource, modifierDest, getDefaultCloner(), fieldIndex);
-                        };
-                    };
-                }};
-            }
-        };
+    /**
+     * Deep clone the given packet by copying its object graph.
+     *
+     * @param handle - the packet.
+     * @return The cloned packet.
+     */
+    static Object cloneReflectively(Object handle) {
+        return DEEP_CLONER.clone(handle);
     }
 
     private void writeObject(ObjectOutputStream output) throws IOException {
@@ -363,7 +419,7 @@ public class PacketContainer extends AbstractStructure implements Serializable {
                                 .build());
                 if (!methods.isEmpty()) {
                     MethodAccessor accessor = Accessors.getMethodAccessor(methods.get(0));
-                    return buf -> accessor.invoke(null, buf);
+                    return buf -> accessor.invoke1(null, buf);
                 }
             }
 
@@ -378,7 +434,7 @@ public class PacketContainer extends AbstractStructure implements Serializable {
             // okay, Packet#read exists
             return buf -> {
                 Object packet = DefaultInstances.DEFAULT.create(type.getPacketClass());
-                readMethod.invoke(packet, buf);
+                readMethod.invoke1(packet, buf);
                 return packet;
             };
         });
@@ -392,15 +448,15 @@ public class PacketContainer extends AbstractStructure implements Serializable {
         }
 
         Object targetBuffer = MinecraftReflection.createPacketDataSerializer(0);
-        MinecraftMethods.getPacketWriteByteBufMethod().invoke(handle, targetBuffer);
+        MinecraftMethods.getPacketWriteByteBufMethod().invoke1(handle, targetBuffer);
         return targetBuffer;
     }
 
     // ---- Metadata
 
     /**
-     * Gets the metadata value for a given key if it exists. Packet metadata expires after a minute, which is far longer
-     * than a packet will ever be held in processing.
+     * Gets the metadata value for a given key if it exists. Packet metadata is kept until the packet itself is garbage
+     * collected.
      *
      * @param key Metadata key
      * @param <T> Metadata type
@@ -411,15 +467,14 @@ public class PacketContainer extends AbstractStructure implements Serializable {
     }
 
     /**
-     * Sets the metadata value at a given key. Packet metadata expires after a minute, which is far longer than a packet
-     * will ever be held in processing.
+     * Sets the metadata value at a given key. Packet metadata is kept until the packet itself is garbage collected.
      *
      * @param key Metadata key
      * @param value Metadata value
      * @param <T> Metadata type
      */
     public <T> void setMeta(String key, T value) {
-        PacketMetadata.set(handle, key, value);
+        PacketMetadata.set(getWritableHandle(), key, value);
     }
 
     /**
@@ -427,7 +482,7 @@ public class PacketContainer extends AbstractStructure implements Serializable {
      * @param key Key to remove meta for
      */
     public void removeMeta(String key) {
-        PacketMetadata.remove(handle, key);
+        PacketMetadata.remove(getWritableHandle(), key);
     }
 
     /**
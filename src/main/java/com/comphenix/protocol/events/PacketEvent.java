@@ -29,6 +29,7 @@ import com.comphenix.protocol.async.AsyncMarker;
 import com.comphenix.protocol.error.PluginContext;
 import com.comphenix.protocol.error.Report;
 import com.comphenix.protocol.error.ReportType;
+import com.comphenix.protocol.injector.netty.Injector;
 import com.comphenix.protocol.injector.temporary.TemporaryPlayer;
 import com.google.common.base.Objects;
 import com.google.common.base.Preconditions;
@@ -63,6 +64,8 @@ public class PacketEvent extends EventObject implements Cancellable {
     // Network input and output handlers
     NetworkMarker networkMarker;
     private transient WeakReference<Player> playerReference;
+    // The connection the packet was intercepted on
+    private transient Injector injector;
     private PacketContainer packet;
     private boolean serverPacket;
     private boolean cancel;
@@ -111,10 +114,35 @@ public class PacketEvent extends EventObject implements Cancellable {
         this.serverPacket = original.serverPacket;
         this.filtered = original.filtered;
         this.networkMarker = original.networkMarker;
+        this.injector = original.injector;
         this.asyncMarker = asyncMarker;
         this.asynchronous = true;
     }
 
+    /**
+     * Retrieve the injector of the connection the packet of a particular event was intercepted on.
+     * <p>
+     * This is an internal method that should not be used by API users.
+     *
+     * @param event - the event.
+     * @return The injector, or NULL if the packet was not intercepted on a connection.
+     */
+    public static Injector getInjector(PacketEvent event) {
+        return event.injector;
+    }
+
+    /**
+     * Set the injector of the connection the packet of a particular event was intercepted on.
+     * <p>
+     * This is an internal method that should not be used by API users.
+     *
+     * @param event    - the event.
+     * @param injector - the injector.
+     */
+    public static void setInjector(PacketEvent event, Injector injector) {
+        event.injector = injector;
+    }
+
     /**
      * Creates an event representing a client packet transmission.
      *
@@ -0,0 +1,42 @@
+package com.comphenix.protocol.events;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Selects the packet field that a method of a packet view reads or writes.
+ * <p>
+ * Without this annotation, the field with the same name as the method is used. As Spigot servers use obfuscated field
+ * names, only the index selects the same field on every server.
+ *
+ * @see PacketViewFactory
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PacketField {
+
+    /**
+     * The index of the field among every field of the given type, as in {@link AbstractStructure#getSpecificModifier(Class)}.
+     *
+     * @return The field index, or -1 to select the field by name.
+     */
+    int index() default -1;
+
+    /**
+     * The name of the field, if it is not selected by index.
+     *
+     * @return The field name, or an empty string to use the name of the method.
+     */
+    String name() default "";
+
+    /**
+     * The type of the fields to index, if it is not the type returned (or accepted) by the method.
+     *
+     * @return The field type, or void to use the type of the method.
+     */
+    Class<?> type() default void.class;
+}
@@ -16,128 +16,189 @@
  */
 package com.comphenix.protocol.events;
 
-import java.util.*;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.TimeUnit;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentMap;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.MapMaker;
 
 import org.apache.commons.lang.Validate;
 
 /**
  * Stores and retrieves metadata for applicable packet objects.
+ * <p>
+ * Metadata is tied to the identity of the packet object, and is dropped along with it once the packet is garbage
+ * collected. Structurally equal packets never share metadata. The metadata of a packet is not dropped when it is sent,
+ * as the same packet object might be sent to several players.
  * @author dmulloy2
  */
 class PacketMetadata {
 
-    private static class MetaObject<T> {
-        private final String key;
-        private final T value;
+    // Packet metadata, by packet identity
+    private static final ConcurrentMap<Object, MetaTable> META_TABLES = new MapMaker().weakKeys().makeMap();
 
-        private MetaObject(String key, T value) {
-            this.key = key;
-            this.value = value;
-        }
+    public static <T> Optional<T> get(Object packet, String key) {
+        Validate.notNull(key, "Null keys are not permitted!");
 
-        @Override
-        public int hashCode() {
-            return Objects.hash(key, value);
+        MetaTable table = META_TABLES.get(packet);
+        if (table == null) {
+            return Optional.empty();
         }
 
-        @Override
-        public boolean equals(Object o) {
-            if (o == this) return true;
-
-            if (o instanceof MetaObject) {
-                MetaObject that = (MetaObject) o;
-                return that.key.equals(this.key) &&
-                       that.value.equals(this.value);
-            }
+        return Optional.ofNullable(table.get(key));
+    }
 
-            return false;
-        }
+    public static <T> void set(Object packet, String key, T value) {
+        Validate.notNull(key, "Null keys are not permitted!");
 
-        @Override
-        public String toString() {
-            return "MetaObject[" + key + "=" + value + "]";
-        }
+        META_TABLES.computeIfAbsent(packet, p -> new MetaTable()).put(key, value);
     }
 
-    // Packet meta cache
-    private static Cache<Object, List<MetaObject>> META_CACHE;
-
-    public static <T> Optional<T> get(Object packet, String key) {
+    public static <T> Optional<T> remove(Object packet, String key) {
         Validate.notNull(key, "Null keys are not permitted!");
 
-        if (META_CACHE == null) {
+        MetaTable table = META_TABLES.get(packet);
+        if (table == null) {
             return Optional.empty();
         }
 
-        List<MetaObject> meta = META_CACHE.getIfPresent(packet);
-        if (meta == null) {
-            return Optional.empty();
+        return Optional.ofNullable(table.remove(key));
+    }
+
+    /**
+     * Copy every metadata value of a packet to another packet, for instance to a copy of the packet.
+     * @param source - the packet to copy from.
+     * @param destination - the packet to copy to.
+     */
+    public static void copy(Object source, Object destination) {
+        MetaTable table = META_TABLES.get(source);
+        if (table != null) {
+            META_TABLES.put(destination, table.copy());
         }
+    }
 
-        for (MetaObject object : meta) {
-            if (object.key.equals(key)) {
-                return Optional.of((T) object.value);
-            }
+    /**
+     * The metadata of a single packet, in an open-addressed table with linear probing.
+     * <p>
+     * Packets rarely have more than a few values, which all fit in the smallest table.
+     */
+    private static final class MetaTable {
+        private String[] keys;
+        private Object[] values;
+        private int size;
+
+        private MetaTable() {
+            this(4);
         }
 
-        return Optional.empty();
-    }
+        private MetaTable(int capacity) {
+            this.keys = new String[capacity];
+            this.values = new Object[capacity];
+        }
 
-    private static void createCache() {
-        META_CACHE = CacheBuilder
-                .newBuilder()
-                .expireAfterWrite(1, TimeUnit.MINUTES)
-                .build();
-    }
+        @SuppressWarnings("unchecked")
+        synchronized <T> T get(String key) {
+            int index = indexOf(key);
+            return index >= 0 ? (T) values[index] : null;
+        }
 
-    public static <T> void set(Object packet, String key, T value) {
-        Validate.notNull(key, "Null keys are not permitted!");
+        synchronized void put(String key, Object value) {
+            int mask = keys.length - 1;
+            int index = slot(key, mask);
+
+            while (keys[index] != null) {
+                if (keys[index].equals(key)) {
+                    values[index] = value;
+                    return;
+                }
+                index = (index + 1) & mask;
+            }
+
+            keys[index] = key;
+            values[index] = value;
 
-        if (META_CACHE == null) {
-            createCache();
+            // keep at least half of the slots free
+            if (++size * 2 > keys.length) {
+                resize(keys.length * 2);
+            }
         }
 
-        List<MetaObject> packetMeta;
+        @SuppressWarnings("unchecked")
+        synchronized <T> T remove(String key) {
+            int index = indexOf(key);
+            if (index < 0) {
+                return null;
+            }
 
-        try {
-            packetMeta = META_CACHE.get(packet, ArrayList::new);
-        } catch (ExecutionException ex) {
-            // Not possible, but let's humor the array list constructor having an issue
-            packetMeta = new ArrayList<>();
+            T value = (T) values[index];
+            delete(index);
+            return value;
         }
 
-        packetMeta.removeIf(meta -> meta.key.equals(key));
-        packetMeta.add(new MetaObject<>(key, value));
-        META_CACHE.put(packet, packetMeta);
-    }
+        synchronized MetaTable copy() {
+            MetaTable copy = new MetaTable(keys.length);
+            System.arraycopy(keys, 0, copy.keys, 0, keys.length);
+            System.arraycopy(values, 0, copy.values, 0, values.length);
+            copy.size = size;
+            return copy;
+        }
 
-    public static <T> Optional<T> remove(Object packet, String key) {
-        Validate.notNull(key, "Null keys are not permitted!");
+        private int indexOf(String key) {
+            int mask = keys.length - 1;
+            int index = slot(key, mask);
 
-        if (META_CACHE == null) {
-            return Optional.empty();
+            while (keys[index] != null) {
+                if (keys[index].equals(key)) {
+                    return index;
+                }
+                index = (index + 1) & mask;
+            }
+            return -1;
         }
 
-        List<MetaObject> packetMeta = META_CACHE.getIfPresent(packet);
-        if (packetMeta == null) {
-            return Optional.empty();
+        // Remove the entry at the given slot, and move the entries after it that can no longer be found
+        private void delete(int index) {
+            int mask = keys.length - 1;
+            keys[index] = null;
+            values[index] = null;
+            size--;
+
+            int next = (index + 1) & mask;
+            while (keys[next] != null) {
+                int home = slot(keys[next], mask);
+
+                // the entry can't stay if the free slot lies between its home slot and itself
+                boolean movable = index <= next
+                        ? home <= index || home > next
+                        : home <= index && home > next;
+                if (movable) {
+                    keys[index] = keys[next];
+                    values[index] = values[next];
+                    keys[next] = null;
+                    values[next] = null;
+                    index = next;
+                }
+                next = (next + 1) & mask;
+            }
         }
 
-        Optional<T> value = Optional.empty();
-        Iterator<MetaObject> iter = packetMeta.iterator();
-        while (iter.hasNext()) {
-            MetaObject meta = iter.next();
-            if (meta.key.equals(key)) {
-                value = Optional.of((T) meta.value);
-                iter.remove();
+        private void resize(int capacity) {
+            String[] oldKeys = keys;
+            Object[] oldValues = values;
+
+            keys = new String[capacity];
+            values = new Object[capacity];
+            size = 0;
+
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != null) {
+                    put(oldKeys[i], oldValues[i]);
+                }
             }
         }
 
-        return value;
+        private static int slot(String key, int mask) {
+            int hash = key.hashCode();
+            return (hash ^ (hash >>> 16)) & mask;
+        }
     }
 }
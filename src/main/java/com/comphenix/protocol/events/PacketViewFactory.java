@@ -0,0 +1,273 @@
+package com.comphenix.protocol.events;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.injector.StructureCache;
+import com.comphenix.protocol.reflect.StructureModifier;
+import com.comphenix.protocol.reflect.accessors.Accessors;
+import com.comphenix.protocol.reflect.accessors.ConstructorAccessor;
+import com.comphenix.protocol.reflect.accessors.FieldAccessor;
+import com.comphenix.protocol.utility.ByteBuddyFactory;
+import com.google.common.base.Preconditions;
+import com.google.common.primitives.Primitives;
+import net.bytebuddy.description.modifier.FieldManifestation;
+import net.bytebuddy.description.modifier.Visibility;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import net.bytebuddy.dynamic.scaffold.subclass.ConstructorStrategy;
+import net.bytebuddy.implementation.Implementation;
+import net.bytebuddy.implementation.MethodCall;
+import net.bytebuddy.implementation.bytecode.assign.Assigner;
+import net.bytebuddy.matcher.ElementMatchers;
+
+/**
+ * Binds an interface declared by a plugin to the fields of a packet type, as a typed view of packets of this type.
+ * <p>
+ * The interface must be public. Every abstract method of the interface must either be a getter (no parameters, returns
+ * the field value) or a setter (one parameter, returns void) of a packet field. The field is selected by index with
+ * {@link PacketField}, or by its name otherwise. A method called {@code getHandle} without a {@link PacketField}
+ * annotation returns the packet itself. For example:
+ * <pre><code>
+ * public interface EntityVelocity {
+ *     &#64;PacketField(index = 0) int entityId();
+ *     &#64;PacketField(index = 0) void entityId(int entityId);
+ * }
+ *
+ * EntityVelocity velocity = PacketViewFactory.of(PacketType.Play.Server.ENTITY_VELOCITY, EntityVelocity.class)
+ *         .wrap(event.getPacket());
+ * </code></pre>
+ * The implementation of the interface is generated once per packet type, and reads and writes the fields directly
+ * through their field accessors - without index lookups, converters, boxing of primitive fields or structure modifier
+ * allocations. Fields are resolved when the view is bound, so a missing field fails early rather than on the first
+ * packet.
+ * <p>
+ * Selecting fields by name only works on servers that keep the field names of the Mojang mappings. Spigot servers use
+ * obfuscated field names that change between versions, so views that should work there must select every field by
+ * index.
+ *
+ * @param <T> - the type of the view.
+ */
+public final class PacketViewFactory<T> {
+
+    // Factories of every view interface, by packet type
+    private static final ClassValue<ConcurrentMap<PacketType, PacketViewFactory<?>>> FACTORIES =
+            new ClassValue<ConcurrentMap<PacketType, PacketViewFactory<?>>>() {
+                @Override
+                protected ConcurrentMap<PacketType, PacketViewFactory<?>> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
+    private static final AtomicInteger VIEW_COUNTER = new AtomicInteger();
+    private static final String HANDLE_FIELD = "handle";
+
+    private final PacketType type;
+    private final Class<T> viewType;
+    private final Class<?> packetClass;
+    private final ConstructorAccessor constructor;
+
+    private PacketViewFactory(PacketType type, Class<T> viewType) {
+        this.type = type;
+        this.viewType = viewType;
+
+        StructureModifier<Object> structure = StructureCache.getStructure(type);
+        this.packetClass = structure.getTargetType();
+        this.constructor = generateView(type, viewType, structure);
+    }
+
+    /**
+     * Retrieve the view factory of the given interface for the given packet type.
+     * <p>
+     * The implementation of the interface is generated on first use, and shared afterwards.
+     *
+     * @param <T>      - the type of the view.
+     * @param type     - the packet type.
+     * @param viewType - the view interface.
+     * @return The view factory.
+     * @throws IllegalArgumentException If a method of the interface cannot be bound to a field of the packet.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> PacketViewFactory<T> of(PacketType type, Class<T> viewType) {
+        Preconditions.checkNotNull(type, "type cannot be NULL");
+        Preconditions.checkNotNull(viewType, "viewType cannot be NULL");
+        Preconditions.checkArgument(viewType.isInterface(), "%s is not an interface", viewType);
+        Preconditions.checkArgument(Modifier.isPublic(viewType.getModifiers()), "%s is not public", viewType);
+
+        ConcurrentMap<PacketType, PacketViewFactory<?>> factories = FACTORIES.get(viewType);
+        PacketViewFactory<?> factory = factories.get(type);
+        if (factory == null) {
+            factory = factories.computeIfAbsent(type, t -> new PacketViewFactory<>(t, viewType));
+        }
+        return (PacketViewFactory<T>) factory;
+    }
+
+    /**
+     * Retrieve a view of the given packet.
+     *
+     * @param packet - the packet, an instance of the packet class of this packet type.
+     * @return The view of the packet.
+     * @throws IllegalArgumentException If the packet is not of the packet class of this packet type.
+     */
+    @SuppressWarnings("unchecked")
+    public T wrap(Object packet) {
+        // the field accessors don't check the type themselves
+        if (!this.packetClass.isInstance(packet)) {
+            throw new IllegalArgumentException("Expected a packet of " + this.packetClass + ", got " + packet);
+        }
+        return (T) this.constructor.invoke1(packet);
+    }
+
+    /**
+     * Retrieve a view of the packet in the given container.
+     * <p>
+     * A packet that the container shares with others is copied first, as the view can modify it.
+     *
+     * @param packet - the packet container.
+     * @return The view of the packet.
+     * @throws IllegalArgumentException If the packet is not of the packet class of this packet type.
+     */
+    public T wrap(PacketContainer packet) {
+        return this.wrap(packet.getWritableHandle());
+    }
+
+    /**
+     * Create a new packet of this type, and retrieve a view of it.
+     *
+     * @return The view of the new packet.
+     */
+    public T create() {
+        return this.wrap(StructureCache.newPacket(this.type));
+    }
+
+    /**
+     * Retrieve the packet type of the views.
+     *
+     * @return The packet type.
+     */
+    public PacketType getType() {
+        return this.type;
+    }
+
+    /**
+     * Retrieve the view interface.
+     *
+     * @return The view interface.
+     */
+    public Class<T> getViewType() {
+        return this.viewType;
+    }
+
+    private static ConstructorAccessor generateView(PacketType type, Class<?> viewType, StructureModifier<Object> structure) {
+        try {
+            DynamicType.Builder<?> builder = ByteBuddyFactory.getInstance()
+                    .createSubclass(Object.class, ConstructorStrategy.Default.NO_CONSTRUCTORS)
+                    .name(viewType.getName() + "$ProtocolLibView$" + VIEW_COUNTER.incrementAndGet())
+                    .implement(viewType)
+
+                    .defineField(HANDLE_FIELD, Object.class, Visibility.PRIVATE, FieldManifestation.FINAL)
+                    .defineConstructor(Visibility.PUBLIC)
+                    .withParameters(Object.class)
+                    .intercept(MethodCall.invoke(Object.class.getDeclaredConstructor())
+                            .andThen(net.bytebuddy.implementation.FieldAccessor.ofField(HANDLE_FIELD).setsArgumentAt(0)));
+
+            for (Method method : viewType.getMethods()) {
+                if (Modifier.isAbstract(method.getModifiers())) {
+                    builder = builder.method(ElementMatchers.is(method)).intercept(bindMethod(type, method, structure));
+                }
+            }
+
+            // a class loader of its own, which can see both the view and ProtocolLib through the plugin class loader
+            Class<?> generated = builder.make()
+                    .load(viewType.getClassLoader(), ClassLoadingStrategy.Default.WRAPPER)
+                    .getLoaded();
+            return Accessors.getConstructorAccessor(generated.getDeclaredConstructor(Object.class));
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Failed to find the constructor of the view " + viewType, e);
+        }
+    }
+
+    private static Implementation bindMethod(PacketType type, Method method, StructureModifier<Object> structure) {
+        PacketField annotation = method.getAnnotation(PacketField.class);
+        int parameters = method.getParameterCount();
+
+        if (annotation == null && parameters == 0 && method.getName().equals("getHandle")) {
+            return net.bytebuddy.implementation.FieldAccessor.ofField(HANDLE_FIELD);
+        }
+
+        boolean getter = parameters == 0 && method.getReturnType() != void.class;
+        boolean setter = parameters == 1 && method.getReturnType() == void.class;
+        if (!getter && !setter) {
+            throw new IllegalArgumentException("Method " + method + " is neither a getter nor a setter");
+        }
+
+        Class<?> valueType = getter ? method.getReturnType() : method.getParameterTypes()[0];
+        FieldAccessor accessor = findField(type, method, annotation, valueType, structure);
+        Class<?> fieldType = accessor.getField().getType();
+
+        // getters may return a supertype, and setters accept a subtype of the field
+        if (getter ? !Primitives.wrap(valueType).isAssignableFrom(Primitives.wrap(fieldType))
+                : !Primitives.wrap(fieldType).isAssignableFrom(Primitives.wrap(valueType))) {
+            throw new IllegalArgumentException("Method " + method + " does not match the type of field "
+                    + accessor.getField() + " in " + type);
+        }
+
+        try {
+            Method target;
+            if (fieldType.isPrimitive() && valueType == fieldType) {
+                // read and write primitives without boxing
+                String suffix = Character.toUpperCase(fieldType.getName().charAt(0)) + fieldType.getName().substring(1);
+                target = getter
+                        ? FieldAccessor.class.getMethod("get" + suffix, Object.class)
+                        : FieldAccessor.class.getMethod("set" + suffix, Object.class, fieldType);
+            } else {
+                target = getter
+                        ? FieldAccessor.class.getMethod("get", Object.class)
+                        : FieldAccessor.class.getMethod("set", Object.class, Object.class);
+            }
+
+            // the accessor is stored in a static field of the view
+            MethodCall call = MethodCall.invoke(target).on(accessor, FieldAccessor.class).withField(HANDLE_FIELD);
+            if (setter) {
+                call = call.withArgument(0);
+            }
+            return call.withAssigner(Assigner.DEFAULT, Assigner.Typing.DYNAMIC);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Unable to find field accessor method for " + fieldType, e);
+        }
+    }
+
+    private static FieldAccessor findField(PacketType type, Method method, PacketField annotation, Class<?> valueType,
+            StructureModifier<Object> structure) {
+        if (annotation != null && annotation.index() >= 0) {
+            Class<?> fieldType = annotation.type() != void.class ? annotation.type() : valueType;
+            List<FieldAccessor> fields = structure.withType(fieldType).getFields();
+
+            if (annotation.index() >= fields.size()) {
+                throw new IllegalArgumentException(String.format(
+                        "Method %s refers to field %d of type %s, but %s only has %d",
+                        method, annotation.index(), fieldType.getName(), type, fields.size()));
+            }
+            return fields.get(annotation.index());
+        }
+
+        String name = annotation != null && !annotation.name().isEmpty() ? annotation.name() : method.getName();
+        for (FieldAccessor accessor : structure.getFields()) {
+            if (accessor.getField().getName().equals(name)) {
+                return accessor;
+            }
+        }
+        throw new IllegalArgumentException("Method " + method + " refers to unknown field " + name + " in " + type
+                + ". Field names are obfuscated on Spigot servers, select the field by index instead.");
+    }
+
+    @Override
+    public String toString() {
+        return "PacketViewFactory[type=" + this.type + ", view=" + this.viewType.getName() + "]";
+    }
+}
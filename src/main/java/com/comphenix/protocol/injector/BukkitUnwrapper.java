@@ -153,7 +153,7 @@ public class BukkitUnwrapper implements Unwrapper {
      * @param type - the type of the class.
      * @return An unwrapper for the given class.
      */
-    private Unwrapper getSpecificUnwrapper(final Class<?> type) {
+    Unwrapper getSpecificUnwrapper(final Class<?> type) {
         // See if we're already determined this
         if (UNWRAPPER_CACHE.containsKey(type)) {
             // We will never remove from the cache, so this ought to be thread safe
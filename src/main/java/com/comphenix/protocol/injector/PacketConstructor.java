@@ -22,13 +22,19 @@ import com.comphenix.protocol.error.RethrowErrorReporter;
 import com.comphenix.protocol.events.PacketContainer;
 import com.comphenix.protocol.injector.packet.PacketRegistry;
 import com.comphenix.protocol.reflect.FieldAccessException;
+import com.comphenix.protocol.reflect.accessors.Accessors;
+import com.comphenix.protocol.reflect.accessors.ConstructorAccessor;
 import com.comphenix.protocol.wrappers.BukkitConverters;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.primitives.Primitives;
+import java.lang.invoke.WrongMethodTypeException;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * A packet constructor that uses an internal Minecraft.
@@ -46,26 +52,40 @@ public class PacketConstructor {
 
     // The constructor method that's actually responsible for creating the packet
     private final Constructor<?> constructorMethod;
+    private final ConstructorAccessor constructorAccessor;
     // Used to unwrap Bukkit objects
     private final List<Unwrapper> unwrappers;
+    // Constructors created by withPacket, by packet type and argument classes
+    private final ConstructorCache constructorCache;
 
     // The packet ID
     private PacketType type;
     // Parameters that need to be unwrapped
     private Unwrapper[] paramUnwrapper;
 
+    // The argument classes the constructor was resolved with, and their unwrappers when an argument is of that class
+    private Class<?>[] boundTypes;
+    private Unwrapper[] boundUnwrappers;
+
     private PacketConstructor(Constructor<?> constructorMethod) {
         this.constructorMethod = constructorMethod;
+        this.constructorAccessor = null;
         this.unwrappers = Lists.newArrayList((Unwrapper) new BukkitUnwrapper(new RethrowErrorReporter()));
         this.unwrappers.addAll(BukkitConverters.getUnwrappers());
+        this.constructorCache = new ConstructorCache();
     }
 
     private PacketConstructor(PacketType type, Constructor<?> constructorMethod, List<Unwrapper> unwrappers,
-            Unwrapper[] paramUnwrapper) {
+            ConstructorCache constructorCache, Unwrapper[] paramUnwrapper, Class<?>[] boundTypes,
+            Unwrapper[] boundUnwrappers) {
         this.type = type;
         this.constructorMethod = constructorMethod;
+        this.constructorAccessor = constructorMethod != null ? getConstructorAccessor(constructorMethod) : null;
         this.unwrappers = unwrappers;
+        this.constructorCache = constructorCache;
         this.paramUnwrapper = paramUnwrapper;
+        this.boundTypes = boundTypes;
+        this.boundUnwrappers = boundUnwrappers;
     }
 
     // Determine if a method with the types 'params' can be called with 'types'
@@ -141,13 +161,16 @@ public class PacketConstructor {
      * @return A constructor with a different set of unwrappers.
      */
     public PacketConstructor withUnwrappers(List<Unwrapper> unwrappers) {
-        return new PacketConstructor(type, constructorMethod, unwrappers, paramUnwrapper);
+        // the cached constructors were resolved with the old unwrappers
+        return new PacketConstructor(type, constructorMethod, unwrappers, new ConstructorCache(), paramUnwrapper,
+                boundTypes, boundUnwrappers);
     }
 
     /**
      * Create a packet constructor that creates packets using the given types.
      * <p>
-     * Note that if you pass a Class as a value, it will use its type directly.
+     * Note that if you pass a Class as a value, it will use its type directly. The resolved constructor is cached by the
+     * packet type and the classes of the values, so later calls with values of the same classes return it directly.
      *
      * @param type   - the type of the packet to create.
      * @param values - the values that will match each parameter in the desired constructor.
@@ -155,6 +178,14 @@ public class PacketConstructor {
      * @throws IllegalArgumentException If no packet constructor could be created with these types.
      */
     public PacketConstructor withPacket(PacketType type, Object[] values) {
+        PacketConstructor cached = constructorCache.get(type, values);
+        if (cached != null) {
+            return cached;
+        }
+        return constructorCache.put(type, values, resolve(type, values));
+    }
+
+    private PacketConstructor resolve(PacketType type, Object[] values) {
         Class<?>[] types = new Class<?>[values.length];
         Throwable lastException = null;
         Unwrapper[] paramUnwrapper = new Unwrapper[values.length];
@@ -199,31 +230,80 @@ public class PacketConstructor {
 
             if (isCompatible(types, params)) {
                 // Right, we've found our type
-                return new PacketConstructor(type, constructor, unwrappers, paramUnwrapper);
+                Class<?>[] boundTypes = new Class<?>[values.length];
+                Unwrapper[] boundUnwrappers = new Unwrapper[values.length];
+                for (int i = 0; i < values.length; i++) {
+                    bindUnwrapper(values[i], paramUnwrapper[i], boundTypes, boundUnwrappers, i);
+                }
+                return new PacketConstructor(type, constructor, unwrappers, constructorCache, paramUnwrapper,
+                        boundTypes, boundUnwrappers);
             }
         }
         throw new IllegalArgumentException("No suitable constructor could be found.", lastException);
     }
 
+    // Abstract and inaccessible constructors are left to reflection, which reports them as before
+    private static ConstructorAccessor getConstructorAccessor(Constructor<?> constructor) {
+        try {
+            return Accessors.getConstructorAccessor(constructor);
+        } catch (IllegalStateException e) {
+            return null;
+        }
+    }
+
+    // Resolve the unwrapper that handles values of the same class as the given value, skipping the class checks
+    private static void bindUnwrapper(Object value, Unwrapper unwrapper, Class<?>[] boundTypes,
+            Unwrapper[] boundUnwrappers, int index) {
+        if (value == null || value instanceof Class) {
+            // passed by type, we can't tell the class of the actual values
+            return;
+        }
+
+        boundTypes[index] = value.getClass();
+        if (unwrapper instanceof BukkitUnwrapper && !(value instanceof Collection)) {
+            // may still be null if the class doesn't need unwrapping
+            boundUnwrappers[index] = ((BukkitUnwrapper) unwrapper).getSpecificUnwrapper(value.getClass());
+        } else {
+            boundUnwrappers[index] = unwrapper;
+        }
+    }
+
     /**
      * Construct a packet using the special builtin Minecraft constructors.
      *
      * @param values - values containing Bukkit wrapped items to pass to Minecraft.
      * @return The created packet.
-     * @throws FieldAccessException     Failure due to a security limitation.
+     * @throws FieldAccessException     Failure due to a security limitation, or if the packet is abstract.
      * @throws IllegalArgumentException Arguments doesn't match the constructor.
+     * @throws IllegalStateException    No constructor has been resolved by {@link #withPacket(PacketType, Object[])}.
      * @throws RuntimeException         Minecraft threw an exception.
      */
     public PacketContainer createPacket(Object... values) throws FieldAccessException {
-        try {
-            // Convert types that needs to be converted
-            for (int i = 0; i < values.length; i++) {
-                if (paramUnwrapper[i] != null) {
-                    values[i] = paramUnwrapper[i].unwrapItem(values[i]);
+        if (constructorMethod == null) {
+            throw new IllegalStateException("No packet constructor has been resolved, call withPacket() first.");
+        }
+        if (values.length != paramUnwrapper.length) {
+            throw new IllegalArgumentException("Expected " + paramUnwrapper.length + " arguments, got " + values.length);
+        }
+
+        // Convert types that needs to be converted
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+
+            if (value != null && value.getClass() == boundTypes[i]) {
+                // same class as when the constructor was resolved
+                if (boundUnwrappers[i] != null) {
+                    values[i] = boundUnwrappers[i].unwrapItem(value);
                 }
+            } else if (paramUnwrapper[i] != null) {
+                values[i] = paramUnwrapper[i].unwrapItem(value);
             }
+        }
 
-            Object nmsPacket = constructorMethod.newInstance(values);
+        try {
+            Object nmsPacket = constructorAccessor != null
+                    ? constructorAccessor.invoke(values)
+                    : constructorMethod.newInstance(values);
             return new PacketContainer(type, nmsPacket);
 
         } catch (IllegalArgumentException e) {
@@ -234,6 +314,13 @@ public class PacketConstructor {
             throw new FieldAccessException("Cannot construct packet due to a security limitation.", e);
         } catch (InvocationTargetException e) {
             throw new RuntimeException("Minecraft error.", e);
+        } catch (IllegalStateException e) {
+            // the accessor wraps everything, including what reflection reports as an argument mismatch
+            Throwable cause = e.getCause();
+            if (cause instanceof ClassCastException || cause instanceof WrongMethodTypeException) {
+                throw new IllegalArgumentException("Arguments don't match " + constructorMethod, cause);
+            }
+            throw new RuntimeException("Minecraft error.", cause);
         }
     }
 
@@ -255,4 +342,72 @@ public class PacketConstructor {
          */
         public Object unwrapItem(Object wrappedObject);
     }
+
+    /**
+     * Constructors created by withPacket, by packet type and argument classes.
+     * <p>
+     * A lookup compares the values with the few signatures a plugin uses, so a cache hit doesn't allocate. Once full,
+     * further signatures are resolved on every call.
+     */
+    private static final class ConstructorCache {
+
+        private static final int MAX_ENTRIES = 64;
+
+        private volatile CacheEntry[] entries = new CacheEntry[0];
+
+        public PacketConstructor get(PacketType type, Object[] values) {
+            for (CacheEntry entry : entries) {
+                if (entry.matches(type, values)) {
+                    return entry.constructor;
+                }
+            }
+            return null;
+        }
+
+        public synchronized PacketConstructor put(PacketType type, Object[] values, PacketConstructor constructor) {
+            PacketConstructor existing = get(type, values);
+            if (existing != null) {
+                return existing;
+            }
+
+            CacheEntry[] current = entries;
+            if (current.length < MAX_ENTRIES) {
+                CacheEntry[] copy = Arrays.copyOf(current, current.length + 1);
+                copy[current.length] = new CacheEntry(type, values, constructor);
+                entries = copy;
+            }
+            return constructor;
+        }
+    }
+
+    private static final class CacheEntry {
+
+        private final PacketType type;
+        private final Class<?>[] types;
+        private final PacketConstructor constructor;
+
+        public CacheEntry(PacketType type, Object[] values, PacketConstructor constructor) {
+            this.type = type;
+            this.types = new Class<?>[values.length];
+            this.constructor = constructor;
+
+            for (int i = 0; i < values.length; i++) {
+                // a class and an instance of it resolve to the same constructor
+                types[i] = values[i] != null ? PacketConstructor.getClass(values[i]) : null;
+            }
+        }
+
+        public boolean matches(PacketType type, Object[] values) {
+            if (!Objects.equals(this.type, type) || types.length != values.length) {
+                return false;
+            }
+            for (int i = 0; i < values.length; i++) {
+                Class<?> valueType = values[i] != null ? PacketConstructor.getClass(values[i]) : null;
+                if (valueType != types[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
 }
@@ -5,6 +5,7 @@ import com.comphenix.protocol.PacketType;
 import com.comphenix.protocol.PacketType.Sender;
 import com.comphenix.protocol.ProtocolLibrary;
 import com.comphenix.protocol.async.AsyncFilterManager;
+import com.comphenix.protocol.async.AsyncPacketListener;
 import com.comphenix.protocol.error.ErrorReporter;
 import com.comphenix.protocol.error.Report;
 import com.comphenix.protocol.error.ReportType;
@@ -23,6 +24,7 @@ import com.comphenix.protocol.injector.packet.PacketInjector;
 import com.comphenix.protocol.injector.packet.PacketRegistry;
 import com.comphenix.protocol.injector.player.PlayerInjectionHandler;
 import com.comphenix.protocol.injector.player.PlayerInjectionHandler.ConflictStrategy;
+import com.comphenix.protocol.timing.StartupProfiler;
 import com.comphenix.protocol.utility.MinecraftReflection;
 import com.comphenix.protocol.utility.MinecraftVersion;
 import com.google.common.collect.ImmutableSet;
@@ -59,6 +61,8 @@ public class PacketFilterManager implements ListenerInvoker, InternalManager {
     // listener registration reports
     private static final ReportType UNSUPPORTED_PACKET = new ReportType(
             "Plugin %s tried to register listener for unknown packet %s [direction: from %s]");
+    private static final ReportType ASYNC_LISTENER_REGISTERED_SYNC = new ReportType(
+            "Plugin %s registered the asynchronous listener %s as a synchronous listener, it will never be invoked. Use registerAsyncHandler instead.");
 
     // bukkit references
     private final Plugin plugin;
@@ -135,7 +139,7 @@ public class PacketFilterManager implements ListenerInvoker, InternalManager {
             Plugin plugin,
             ErrorReporter reporter
     ) {
-        try {
+        try (StartupProfiler.Phase ignored = StartupProfiler.getInstance().begin("PluginVerifier.initialize")) {
             // do this here to prevent us from exploding just because the verifier fails
             return new PluginVerifier(plugin);
         } catch (Exception exception) {
@@ -305,6 +309,13 @@ public class PacketFilterManager implements ListenerInvoker, InternalManager {
     @Override
     public void addPacketListener(PacketListener listener) {
         if (!this.closed && !this.registeredListeners.contains(listener)) {
+            // the synchronous methods of these listeners do nothing
+            if (listener instanceof AsyncPacketListener) {
+                this.reporter.reportWarning(this, Report.newBuilder(ASYNC_LISTENER_REGISTERED_SYNC)
+                        .messageParam(PacketAdapter.getPluginName(listener), listener.getClass().getName())
+                        .build());
+            }
+
             // get the packet types which we should actually send
             ListeningWhitelist outbound = listener.getSendingWhitelist();
             ListeningWhitelist inbound = listener.getReceivingWhitelist();
@@ -6,6 +6,7 @@ import java.util.List;
 import java.util.Set;
 import java.util.logging.Level;
 
+import com.comphenix.protocol.timing.StartupProfiler;
 import com.google.common.collect.ImmutableSet;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.plugin.PluginLoadOrder;
@@ -145,7 +146,12 @@ class PluginVerifier {
         // Skip the load order check for ProtocolLib itself
         if (!dependency.equals(plugin)) {
             if (!loadedAfter.contains(name) && !DYNAMIC_DEPENDENCY.contains(name)) {
-                if (verifyLoadOrder(dependency, plugin)) {
+                boolean loadedAfterDependency;
+                try (StartupProfiler.Phase ignored = StartupProfiler.getInstance().begin("PluginVerifier.verify")) {
+                    loadedAfterDependency = verifyLoadOrder(dependency, plugin);
+                }
+
+                if (loadedAfterDependency) {
                     // Memorize
                     loadedAfter.add(plugin.getName());
                 } else {
@@ -0,0 +1,293 @@
+package com.comphenix.protocol.injector;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.concurrency.PacketTypeTable;
+import com.comphenix.protocol.error.ErrorReporter;
+import com.comphenix.protocol.error.Report;
+import com.comphenix.protocol.error.ReportType;
+import com.comphenix.protocol.events.NetworkMarker;
+import com.comphenix.protocol.events.PacketAdapter;
+import com.comphenix.protocol.events.PacketEvent;
+import com.comphenix.protocol.events.PacketListener;
+import com.google.common.collect.MapMaker;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.bukkit.Bukkit;
+
+/**
+ * Enforces a time budget on synchronous packet listeners that run on network threads.
+ * <p>
+ * Whenever more than one percent of the last {@link #WINDOW} invocations of a listener for a packet type exceeded the
+ * budget - that is, its rolling 99th percentile is above the budget - the listener is reported once. If demotion is
+ * enabled, the listener is from then on invoked on a separate worker thread for that packet type, with a read-only copy
+ * of the packet event. It can no longer modify or cancel these packets, just like a MONITOR listener. If the worker
+ * thread falls more than {@link #QUEUE_CAPACITY} events behind, further events are dropped and reported.
+ *
+ * @see SortedPacketListenerList
+ */
+public final class SlowListenerWatchdog {
+
+    public static final ReportType REPORT_SLOW_LISTENER = new ReportType(
+            "Listener %s of plugin %s exceeded its budget of %s us for %s in %s of the last %s packets on a network thread (longest: %s us).");
+    public static final ReportType REPORT_DEMOTED_LISTENER = new ReportType(
+            "Listener %s of plugin %s will now receive %s on a separate thread, and can no longer modify these packets.");
+    public static final ReportType REPORT_DROPPED_EVENTS = new ReportType(
+            "Dropped %s packet events of demoted listeners so far, as %s events were already waiting for them.");
+
+    /**
+     * The number of invocations in every window of the rolling percentile.
+     */
+    public static final int WINDOW = 1024;
+
+    /**
+     * The maximum number of events waiting for demoted listeners.
+     */
+    public static final int QUEUE_CAPACITY = 4096;
+
+    // The shared watchdog
+    private static final SlowListenerWatchdog INSTANCE = new SlowListenerWatchdog();
+
+    // zero if disabled
+    private volatile long budgetNanos;
+    private volatile boolean demotion;
+
+    private final ConcurrentMap<PacketListener, PacketTypeTable<Budget>> budgets = new MapMaker().weakKeys().makeMap();
+    private final AtomicLong droppedEvents = new AtomicLong();
+
+    private final int queueCapacity;
+    private ThreadPoolExecutor demotedWorker;
+
+    private SlowListenerWatchdog() {
+        this(QUEUE_CAPACITY);
+    }
+
+    SlowListenerWatchdog(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Retrieve the shared watchdog.
+     *
+     * @return The shared watchdog.
+     */
+    public static SlowListenerWatchdog getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Retrieve the budget of every listener invocation on a network thread.
+     *
+     * @param unit - the unit of the budget.
+     * @return The budget, or zero if the watchdog is disabled.
+     */
+    public long getBudget(TimeUnit unit) {
+        return unit.convert(this.budgetNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Set the budget of every listener invocation on a network thread.
+     *
+     * @param budget - the budget, or zero to disable the watchdog.
+     * @param unit   - the unit of the budget.
+     */
+    public void setBudget(long budget, TimeUnit unit) {
+        this.budgetNanos = Math.max(0, unit.toNanos(budget));
+    }
+
+    /**
+     * Determine if listeners exceeding their budget are demoted to a worker thread.
+     *
+     * @return TRUE if they are, FALSE otherwise.
+     */
+    public boolean isDemotion() {
+        return this.demotion;
+    }
+
+    /**
+     * Set whether or not listeners exceeding their budget should be demoted to a worker thread.
+     *
+     * @param demotion - TRUE to demote slow listeners, FALSE otherwise.
+     */
+    public void setDemotion(boolean demotion) {
+        this.demotion = demotion;
+    }
+
+    /**
+     * Retrieve the number of events that were dropped, as too many events were waiting for demoted listeners.
+     *
+     * @return The number of dropped events.
+     */
+    public long getDroppedEvents() {
+        return this.droppedEvents.get();
+    }
+
+    /**
+     * Determine if the listeners of the given event should be watched.
+     *
+     * @param event - the packet event.
+     * @return TRUE if the watchdog is enabled and the event is handled on a network thread, FALSE otherwise.
+     */
+    boolean isWatching(PacketEvent event) {
+        return this.budgetNanos > 0 && !event.isAsynchronous() && !Bukkit.isPrimaryThread();
+    }
+
+    /**
+     * Invoke the given listener on the worker thread if it has been demoted for the packet type of the event.
+     *
+     * @param reporter - the error reporter.
+     * @param event    - the packet event.
+     * @param listener - the listener.
+     * @return TRUE if the listener was demoted and scheduled, FALSE if it must be invoked directly.
+     */
+    boolean invokeIfDemoted(ErrorReporter reporter, PacketEvent event, PacketListener listener) {
+        PacketTypeTable<Budget> table = this.budgets.get(listener);
+        Budget budget = table != null ? table.getIfPresent(event.getPacketType()) : null;
+
+        if (budget == null || !budget.demoted) {
+            return false;
+        }
+
+        // the original packet might be sent (and modified) before the listener runs
+        PacketEvent copy;
+        if (event.isServerPacket()) {
+            copy = PacketEvent.fromServer(this, event.getPacket().shallowClone(),
+                    NetworkMarker.getNetworkMarker(event), event.getPlayer());
+        } else {
+            copy = PacketEvent.fromClient(this, event.getPacket().shallowClone(),
+                    NetworkMarker.getNetworkMarker(event), event.getPlayer());
+        }
+        copy.setReadOnly(true);
+
+        this.getDemotedWorker().execute(new DemotedInvocation(reporter, listener, copy));
+        return true;
+    }
+
+    /**
+     * Record the time spent by a listener on a network thread.
+     *
+     * @param reporter - the error reporter.
+     * @param event    - the packet event.
+     * @param listener - the listener.
+     * @param elapsed  - the elapsed time in nanoseconds.
+     */
+    void record(ErrorReporter reporter, PacketEvent event, PacketListener listener, long elapsed) {
+        PacketType type = event.getPacketType();
+        Budget budget = this.budgets.computeIfAbsent(listener, l -> new PacketTypeTable<>(t -> new Budget())).get(type);
+
+        long budgetNanos = this.budgetNanos;
+        if (elapsed > budgetNanos) {
+            budget.overBudget.incrementAndGet();
+            budget.longest.accumulateAndGet(elapsed, Math::max);
+        }
+
+        if (budget.samples.incrementAndGet() >= WINDOW) {
+            // start a new window, concurrent observations may end up in either one
+            budget.samples.set(0);
+            int overBudget = budget.overBudget.getAndSet(0);
+            long longest = budget.longest.getAndSet(0);
+
+            if (overBudget * 100 > WINDOW && budget.reported.compareAndSet(false, true)) {
+                this.reportSlowListener(reporter, listener, type, budget, overBudget, longest, budgetNanos);
+            }
+        }
+    }
+
+    private void reportSlowListener(ErrorReporter reporter, PacketListener listener, PacketType type, Budget budget,
+            int overBudget, long longest, long budgetNanos) {
+        String pluginName = PacketAdapter.getPluginName(listener);
+
+        reporter.reportWarning(this, Report.newBuilder(REPORT_SLOW_LISTENER).messageParam(
+                listener.getClass().getName(), pluginName, TimeUnit.NANOSECONDS.toMicros(budgetNanos), type,
+                overBudget, WINDOW, TimeUnit.NANOSECONDS.toMicros(longest)));
+
+        if (this.demotion) {
+            budget.demoted = true;
+            reporter.reportWarning(this, Report.newBuilder(REPORT_DEMOTED_LISTENER).messageParam(
+                    listener.getClass().getName(), pluginName, type));
+        }
+    }
+
+    private synchronized ThreadPoolExecutor getDemotedWorker() {
+        if (this.demotedWorker == null) {
+            // bounded, so a listener that cannot keep up doesn't fill the heap with events
+            this.demotedWorker = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(this.queueCapacity),
+                    new ThreadFactoryBuilder()
+                            .setDaemon(true)
+                            .setNameFormat("ProtocolLib-DemotedListener %s")
+                            .build(),
+                    this::dropInvocation);
+        }
+        return this.demotedWorker;
+    }
+
+    private void dropInvocation(Runnable runnable, ThreadPoolExecutor executor) {
+        if (executor.isShutdown()) {
+            return;
+        }
+
+        // report the first drop, and then only whenever the count doubles
+        long dropped = this.droppedEvents.incrementAndGet();
+        if ((dropped & (dropped - 1)) == 0) {
+            DemotedInvocation invocation = (DemotedInvocation) runnable;
+            invocation.reporter.reportWarning(this, Report.newBuilder(REPORT_DROPPED_EVENTS)
+                    .messageParam(dropped, this.queueCapacity));
+        }
+    }
+
+    /**
+     * Stop the worker thread of demoted listeners, and forget every observation.
+     */
+    public synchronized void close() {
+        if (this.demotedWorker != null) {
+            this.demotedWorker.shutdownNow();
+            this.demotedWorker = null;
+        }
+        this.budgets.clear();
+        this.droppedEvents.set(0);
+    }
+
+    private static final class DemotedInvocation implements Runnable {
+        private final ErrorReporter reporter;
+        private final PacketListener listener;
+        private final PacketEvent event;
+
+        private DemotedInvocation(ErrorReporter reporter, PacketListener listener, PacketEvent event) {
+            this.reporter = reporter;
+            this.listener = listener;
+            this.event = event;
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (this.event.isServerPacket()) {
+                    this.listener.onPacketSending(this.event);
+                } else {
+                    this.listener.onPacketReceiving(this.event);
+                }
+            } catch (OutOfMemoryError | ThreadDeath e) {
+                throw e;
+            } catch (Throwable e) {
+                this.reporter.reportMinimal(this.listener.getPlugin(),
+                        this.event.isServerPacket() ? "onPacketSending(PacketEvent)" : "onPacketReceiving(PacketEvent)", e);
+            }
+        }
+    }
+
+    private static final class Budget {
+        private final AtomicInteger samples = new AtomicInteger();
+        private final AtomicInteger overBudget = new AtomicInteger();
+        private final AtomicLong longest = new AtomicLong();
+
+        private final AtomicBoolean reported = new AtomicBoolean();
+        private volatile boolean demoted;
+    }
+}
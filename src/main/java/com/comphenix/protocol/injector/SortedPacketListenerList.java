@@ -30,6 +30,8 @@ import com.comphenix.protocol.events.ListenerPriority;
 import com.comphenix.protocol.events.PacketContainer;
 import com.comphenix.protocol.events.PacketEvent;
 import com.comphenix.protocol.events.PacketListener;
+import com.comphenix.protocol.injector.netty.EventLoopStallDetector;
+import com.comphenix.protocol.timing.FlightRecorderEvents;
 import com.comphenix.protocol.timing.TimedListenerManager;
 import com.comphenix.protocol.timing.TimedListenerManager.ListenerType;
 import com.comphenix.protocol.timing.TimedTracker;
@@ -44,6 +46,10 @@ import javax.annotation.Nullable;
 public final class SortedPacketListenerList extends AbstractConcurrentListenerMultimap<PacketListener> {
     // The current listener manager
     private TimedListenerManager timedManager = TimedListenerManager.getInstance();
+    // Budget enforcement on network threads
+    private SlowListenerWatchdog watchdog = SlowListenerWatchdog.getInstance();
+    // Attributes event loop stalls to plugins
+    private EventLoopStallDetector stallDetector = EventLoopStallDetector.getInstance();
     
     public SortedPacketListenerList() {
         super();
@@ -65,10 +71,11 @@ public final class SortedPacketListenerList extends AbstractConcurrentListenerMu
             for (PrioritizedListener<PacketListener> element : list) {
                 TimedTracker tracker = timedManager.getTracker(element.getListener(), ListenerType.SYNC_CLIENT_SIDE);
                 long token = tracker.beginTracking();
+                long allocationToken = tracker.beginAllocationTracking();
                 
                 // Measure and record the execution time
                 invokeReceivingListener(reporter, event, element);
-                tracker.endTracking(token, event.getPacketType());
+                tracker.endTracking(token, allocationToken, event.getPacketType());
             }
         } else {
             for (PrioritizedListener<PacketListener> element : list) {
@@ -95,10 +102,11 @@ public final class SortedPacketListenerList extends AbstractConcurrentListenerMu
                 if (element.getPriority() == priorityFilter) {
                     TimedTracker tracker = timedManager.getTracker(element.getListener(), ListenerType.SYNC_CLIENT_SIDE);
                     long token = tracker.beginTracking();
+                    long allocationToken = tracker.beginAllocationTracking();
                     
                     // Measure and record the execution time
                     invokeReceivingListener(reporter, event, element);
-                    tracker.endTracking(token, event.getPacketType());
+                    tracker.endTracking(token, allocationToken, event.getPacketType());
                 }
             }
         } else {
@@ -117,6 +125,18 @@ public final class SortedPacketListenerList extends AbstractConcurrentListenerMu
      * @param element - the listener to invoke.
      */
     private void invokeReceivingListener(ErrorReporter reporter, PacketEvent event, PrioritizedListener<PacketListener> element) {
+        boolean watched = watchdog.isWatching(event);
+        if (watched && watchdog.invokeIfDemoted(reporter, event, element.getListener())) {
+            return;
+        }
+
+        Object recording = FlightRecorderEvents.startListenerInvocation(event, element.getListener(), element.getPriority());
+        long start = watched ? System.nanoTime() : 0;
+        boolean stallTracked = stallDetector.isEnabled();
+        if (stallTracked) {
+            stallDetector.enterListener(element.getListener());
+        }
+
         try {
             event.setReadOnly(element.getPriority() == ListenerPriority.MONITOR);
             element.getListener().onPacketReceiving(event);
@@ -127,6 +147,14 @@ public final class SortedPacketListenerList extends AbstractConcurrentListenerMu
             // Minecraft doesn't want your Exception.
             reporter.reportMinimal(element.getListener().getPlugin(), "onPacketReceiving(PacketEvent)", e, 
                     event.getPacket().getHandle());
+        } finally {
+            FlightRecorderEvents.finishListenerInvocation(recording, event);
+            if (watched) {
+                watchdog.record(reporter, event, element.getListener(), System.nanoTime() - start);
+            }
+            if (stallTracked) {
+                stallDetector.exitListener();
+            }
         }
     }
     
@@ -192,10 +220,11 @@ public final class SortedPacketListenerList extends AbstractConcurrentListenerMu
                 if (priorityFilter == null || element.getPriority() == priorityFilter) {
                     TimedTracker tracker = timedManager.getTracker(element.getListener(), ListenerType.SYNC_SERVER_SIDE);
                     long token = tracker.beginTracking();
+                    long allocationToken = tracker.beginAllocationTracking();
 
                     // Measure and record the execution time
                     invokeSendingListener(reporter, event, element);
-                    tracker.endTracking(token, event.getPacketType());
+                    tracker.endTracking(token, allocationToken, event.getPacketType());
                 }
             }
         } else {
@@ -214,6 +243,18 @@ public final class SortedPacketListenerList extends AbstractConcurrentListenerMu
      * @param element - the listener to invoke.
      */
     private void invokeSendingListener(ErrorReporter reporter, PacketEvent event, PrioritizedListener<PacketListener> element) {
+        boolean watched = watchdog.isWatching(event);
+        if (watched && watchdog.invokeIfDemoted(reporter, event, element.getListener())) {
+            return;
+        }
+
+        Object recording = FlightRecorderEvents.startListenerInvocation(event, element.getListener(), element.getPriority());
+        long start = watched ? System.nanoTime() : 0;
+        boolean stallTracked = stallDetector.isEnabled();
+        if (stallTracked) {
+            stallDetector.enterListener(element.getListener());
+        }
+
         try {
             event.setReadOnly(element.getPriority() == ListenerPriority.MONITOR);
             element.getListener().onPacketSending(event);
@@ -224,6 +265,14 @@ public final class SortedPacketListenerList extends AbstractConcurrentListenerMu
             // Minecraft doesn't want your Exception.
             reporter.reportMinimal(element.getListener().getPlugin(), "onPacketSending(PacketEvent)", e, 
                     event.getPacket().getHandle());
+        } finally {
+            FlightRecorderEvents.finishListenerInvocation(recording, event);
+            if (watched) {
+                watchdog.record(reporter, event, element.getListener(), System.nanoTime() - start);
+            }
+            if (stallTracked) {
+                stallDetector.exitListener();
+            }
         }
     }
 }
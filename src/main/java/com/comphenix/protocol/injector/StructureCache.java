@@ -17,25 +17,44 @@
 
 package com.comphenix.protocol.injector;
 
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.concurrency.PacketTypeTable;
 import com.comphenix.protocol.injector.packet.PacketRegistry;
 import com.comphenix.protocol.reflect.StructureModifier;
 import com.comphenix.protocol.reflect.accessors.Accessors;
 import com.comphenix.protocol.reflect.accessors.ConstructorAccessor;
+import com.comphenix.protocol.reflect.accessors.FieldAccessor;
 import com.comphenix.protocol.reflect.instances.DefaultInstances;
+import com.comphenix.protocol.timing.StartupProfiler;
 import com.comphenix.protocol.utility.ByteBuddyFactory;
+import com.comphenix.protocol.utility.JavaInternals;
 import com.comphenix.protocol.utility.MinecraftMethods;
 import com.comphenix.protocol.utility.MinecraftReflection;
 import com.comphenix.protocol.utility.MinecraftVersion;
 import com.comphenix.protocol.utility.ZeroBuffer;
 import com.comphenix.protocol.wrappers.WrappedChatComponent;
 import com.google.common.base.Preconditions;
+import com.google.common.primitives.Primitives;
 import io.netty.buffer.ByteBuf;
 import net.bytebuddy.dynamic.DynamicType;
 import net.bytebuddy.dynamic.loading.ClassLoadingStrategy.Default;
@@ -52,6 +71,8 @@ public class StructureCache {
     // Structure modifiers
     private static final Map<Class<?>, Supplier<Object>> PACKET_INSTANCE_CREATORS = new ConcurrentHashMap<>();
     private static final Map<PacketType, StructureModifier<Object>> STRUCTURE_MODIFIER_CACHE = new ConcurrentHashMap<>();
+    private static final PacketTypeTable<Supplier<Object>> PACKET_TYPE_CREATORS = new PacketTypeTable<>(
+            type -> getPacketCreator(PacketRegistry.getPacketClassFromType(type)));
 
     // packet data serializer which always returns an empty nbt tag compound
     private static final Object TRICK_INIT_LOCK = new Object();
@@ -61,46 +82,205 @@ public class StructureCache {
     private static ConstructorAccessor TRICKED_DATA_SERIALIZER_JSON;
 
     public static Object newPacket(Class<?> packetClass) {
-        Supplier<Object> packetConstructor = PACKET_INSTANCE_CREATORS.computeIfAbsent(packetClass, clazz -> {
-            // prefer construction via PacketDataSerializer constructor on 1.17 and above
-            if (MinecraftVersion.CAVES_CLIFFS_1.atOrAbove()) {
-                ConstructorAccessor serializerAccessor = Accessors.getConstructorAccessorOrNull(
-                        clazz,
-                        MinecraftReflection.getPacketDataSerializerClass());
-                if (serializerAccessor != null) {
-                    // check if the method is possible
-                    if (tryInitTrickDataSerializer()) {
-                        try {
-                            // first try with the base accessor
-                            Object serializer = TRICKED_DATA_SERIALIZER_BASE.invoke(new ZeroBuffer());
-                            serializerAccessor.invoke(serializer); // throwaway instance, for testing
-
-                            // method is working
-                            return () -> serializerAccessor.invoke(serializer);
-                        } catch (Exception exception) {
-                            try {
-                                // try with the json accessor
-                                Object serializer = TRICKED_DATA_SERIALIZER_JSON.invoke(new ZeroBuffer());
-                                serializerAccessor.invoke(serializer); // throwaway instance, for testing
-
-                                // method is working
-                                return () -> serializerAccessor.invoke(serializer);
-                            } catch (Exception ignored) {
-                                // shrug, fall back to default behaviour
-                            }
-                        }
-                    }
-                }
-            }
+        return getPacketCreator(packetClass).get();
+    }
+
+    /**
+     * Retrieve the function that creates empty packets of the given class, resolving it on first use.
+     *
+     * @param packetClass - the packet class.
+     * @return The packet creator.
+     */
+    static Supplier<Object> getPacketCreator(Class<?> packetClass) {
+        return PACKET_INSTANCE_CREATORS.computeIfAbsent(packetClass, StructureCache::compileInstantiationPlan);
+    }
+
+    /**
+     * Find a way to create an empty packet of the given class. The candidates are tried in order of preference, each
+     * once, so that the returned creator is known to work.
+     *
+     * @param packetClass - the packet class.
+     * @return The packet creator.
+     */
+    private static Supplier<Object> compileInstantiationPlan(Class<?> packetClass) {
+        Supplier<Object> plan = null;
+
+        // prefer construction via PacketDataSerializer constructor on 1.17 and above
+        if (MinecraftVersion.CAVES_CLIFFS_1.atOrAbove()) {
+            plan = tryPlan(packetClass, StructureCache::createSerializerPlan);
+        }
+
+        // a public no-args constructor, called directly
+        if (plan == null) {
+            plan = tryPlan(packetClass, StructureCache::createNoArgsPlan);
+        }
+
+        // the constructor DefaultInstances would pick, with its arguments resolved in advance
+        if (plan == null) {
+            plan = tryPlan(packetClass, StructureCache::createDefaultArgumentsPlan);
+        }
 
+        // skip the constructors entirely, and fill in the fields instead
+        if (plan == null) {
+            plan = tryPlan(packetClass, StructureCache::createAllocationPlan);
+        }
+
+        if (plan == null) {
             // try via DefaultInstances as fallback
             return () -> {
-                Object packetInstance = DefaultInstances.DEFAULT.create(clazz);
-                Objects.requireNonNull(packetInstance, "Unable to create packet instance for class " + clazz);
+                Object packetInstance = DefaultInstances.DEFAULT.create(packetClass);
+                Objects.requireNonNull(packetInstance, "Unable to create packet instance for class " + packetClass);
                 return packetInstance;
             };
-        });
-        return packetConstructor.get();
+        }
+        return plan;
+    }
+
+    private static Supplier<Object> tryPlan(Class<?> packetClass, Function<Class<?>, Supplier<Object>> factory) {
+        try {
+            Supplier<Object> plan = factory.apply(packetClass);
+            if (plan != null && plan.get() != null) { // throwaway instance, for testing
+                return plan;
+            }
+        } catch (Exception | LinkageError ignored) {
+            // shrug, try the next plan
+        }
+        return null;
+    }
+
+    private static Supplier<Object> createNoArgsPlan(Class<?> packetClass) {
+        Constructor<?> constructor;
+        try {
+            constructor = packetClass.getConstructor();
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+
+        Supplier<Object> direct = createConstructorSupplier(constructor);
+        if (direct != null) {
+            return direct;
+        }
+
+        ConstructorAccessor accessor = Accessors.getConstructorAccessor(constructor);
+        return accessor::invoke0;
+    }
+
+    /**
+     * Generate a supplier that calls the given constructor directly, with the given arguments bound to it.
+     *
+     * @param constructor - the constructor.
+     * @param arguments   - the arguments to pass to the constructor on every call.
+     * @return The supplier, or NULL if it cannot be generated.
+     */
+    @SuppressWarnings("unchecked")
+    private static Supplier<Object> createConstructorSupplier(Constructor<?> constructor, Object... arguments) {
+        Class<?> packetClass = constructor.getDeclaringClass();
+        try {
+            MethodHandles.Lookup lookup = JavaInternals.LOOKUP.in(packetClass);
+            MethodHandle handle = lookup.unreflectConstructor(constructor);
+            return (Supplier<Object>) LambdaMetafactory.metafactory(
+                    lookup,
+                    "get",
+                    MethodType.methodType(Supplier.class, constructor.getParameterTypes()),
+                    MethodType.methodType(Object.class),
+                    handle,
+                    MethodType.methodType(packetClass)).getTarget().invokeWithArguments(arguments);
+        } catch (Throwable ex) {
+            return null;
+        }
+    }
+
+    private static Supplier<Object> createSerializerPlan(Class<?> packetClass) {
+        ConstructorAccessor serializerAccessor = Accessors.getConstructorAccessorOrNull(
+                packetClass,
+                MinecraftReflection.getPacketDataSerializerClass());
+        if (serializerAccessor == null || !tryInitTrickDataSerializer()) {
+            return null;
+        }
+
+        // first try with the base accessor, then with the json accessor
+        for (ConstructorAccessor trickedSerializer : Arrays.asList(TRICKED_DATA_SERIALIZER_BASE, TRICKED_DATA_SERIALIZER_JSON)) {
+            try {
+                Object serializer = trickedSerializer.invoke(new ZeroBuffer());
+                serializerAccessor.invoke1(serializer); // throwaway instance, for testing
+
+                // method is working, call the constructor directly if possible
+                Supplier<Object> direct = createConstructorSupplier(serializerAccessor.getConstructor(), serializer);
+                return direct != null ? direct : () -> serializerAccessor.invoke1(serializer);
+            } catch (Exception ignored) {
+                // try the next one
+            }
+        }
+        return null;
+    }
+
+    private static Supplier<Object> createDefaultArgumentsPlan(Class<?> packetClass) {
+        Constructor<?> constructor = DefaultInstances.DEFAULT.getMinimumConstructor(packetClass);
+        if (constructor == null) {
+            return null;
+        }
+
+        Class<?>[] parameterTypes = constructor.getParameterTypes();
+        List<Supplier<Object>> arguments = new ArrayList<>(parameterTypes.length);
+        for (Class<?> parameterType : parameterTypes) {
+            arguments.add(getDefaultValueSupplier(parameterType));
+        }
+
+        ConstructorAccessor accessor = Accessors.getConstructorAccessor(constructor);
+        return () -> {
+            Object[] values = new Object[arguments.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = arguments.get(i).get();
+            }
+            return accessor.invoke(values);
+        };
+    }
+
+    private static Supplier<Object> createAllocationPlan(Class<?> packetClass) {
+        List<FieldAccessor> fields = new ArrayList<>();
+        List<Supplier<Object>> values = new ArrayList<>();
+
+        for (Class<?> current = packetClass; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                // primitives are already zero
+                if (!Modifier.isStatic(field.getModifiers()) && !field.getType().isPrimitive()) {
+                    Supplier<Object> value = getDefaultValueSupplier(field.getType());
+                    if (value.get() != null) {
+                        fields.add(Accessors.getFieldAccessor(field));
+                        values.add(value);
+                    }
+                }
+            }
+        }
+
+        return () -> {
+            try {
+                Object packet = JavaInternals.UNSAFE.allocateInstance(packetClass);
+                for (int i = 0; i < fields.size(); i++) {
+                    fields.get(i).set(packet, values.get(i).get());
+                }
+                return packet;
+            } catch (InstantiationException ex) {
+                throw new IllegalStateException("Unable to allocate packet " + packetClass, ex);
+            }
+        };
+    }
+
+    /**
+     * Retrieve a supplier of the default value of the given type. Immutable values are shared, everything else is
+     * created again by every call.
+     *
+     * @param type - the type.
+     * @return The default value supplier.
+     */
+    private static Supplier<Object> getDefaultValueSupplier(Class<?> type) {
+        Object value = DefaultInstances.DEFAULT.getDefault(type);
+        if (value == null || type.isPrimitive() || Primitives.isWrapperType(type) || type.isEnum()
+                || type == String.class || type == UUID.class || type == Optional.class
+                || (type.isArray() && Array.getLength(value) == 0)) {
+            return () -> value;
+        }
+        return () -> DefaultInstances.DEFAULT.getDefault(type);
     }
 
     /**
@@ -110,7 +290,7 @@ public class StructureCache {
      * @return Created packet.
      */
     public static Object newPacket(PacketType type) {
-        return newPacket(PacketRegistry.getPacketClassFromType(type));
+        return PACKET_TYPE_CREATORS.get(type).get();
     }
 
     /**
@@ -143,7 +323,10 @@ public class StructureCache {
                 packetClass = MinecraftReflection.getPackedBundlePacketClass().get();
             }
 
-            return new StructureModifier<>(packetClass, MinecraftReflection.getPacketClass(), true);
+            StructureModifier<Object> structure = new StructureModifier<>(packetClass, MinecraftReflection.getPacketClass(), true);
+            // this modifier is shared by every thread, so don't leave the common lookups to the first packet
+            structure.precomputeSubtypes();
+            return structure;
         });
     }
 
@@ -171,7 +354,7 @@ public class StructureCache {
                 return TRICKED_DATA_SERIALIZER_BASE != null;
             }
 
-            try {
+            try (StartupProfiler.Phase ignored = StartupProfiler.getInstance().begin("StructureCache.tryInitTrickDataSerializer")) {
                 // create an empty instance of a nbt tag compound / text compound that we can re-use when needed
                 Object textCompound = WrappedChatComponent.fromText("").getHandle();
                 Object compound = Accessors.getConstructorAccessor(MinecraftReflection.getNBTCompoundClass()).invoke();
@@ -0,0 +1,268 @@
+package com.comphenix.protocol.injector;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.ProtocolLogger;
+import com.comphenix.protocol.injector.packet.PacketRegistry;
+import com.comphenix.protocol.reflect.EquivalentConverter;
+import com.comphenix.protocol.wrappers.BukkitConverters;
+import com.comphenix.protocol.wrappers.EnumWrappers;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Resolves the structure modifiers, packet creators and wrapper converters of every packet type in the background.
+ * <p>
+ * All of these are resolved through fuzzy reflection on first use, which otherwise happens on the Netty thread of
+ * the first player to send or receive each packet type - a noticeable hiccup right after a restart. The wrapper
+ * converters are resolved first, as their static state is not safe to initialize concurrently and some of them need
+ * the server. They are resolved by a main thread task, a few per tick, so they never hold up a single tick for long.
+ * Only the packet types are then spread over a fork-join pool.
+ */
+public final class StructureWarmUp {
+
+    // The shared warm-up
+    private static final StructureWarmUp INSTANCE = new StructureWarmUp();
+
+    // The time the converters may take on the main thread per tick
+    private static final long CONVERTER_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private final AtomicInteger completedConverters = new AtomicInteger();
+    private volatile int totalConverters;
+
+    private final AtomicInteger completed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private volatile int total;
+    private volatile long startTime;
+    private volatile long endTime;
+
+    private Plugin plugin;
+    private int converterTask = -1;
+    private ForkJoinPool pool;
+
+    /**
+     * Retrieve the shared warm-up.
+     *
+     * @return The shared warm-up.
+     */
+    public static StructureWarmUp getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Start warming up the wrapper converters on the main thread, and then every registered packet type in the
+     * background, unless it is already running.
+     *
+     * @param plugin - the plugin that schedules the main thread task.
+     */
+    public synchronized void start(Plugin plugin) {
+        if (this.pool != null || this.converterTask != -1) {
+            return;
+        }
+
+        Set<PacketType> types = new LinkedHashSet<>(PacketRegistry.getServerPacketTypes());
+        types.addAll(PacketRegistry.getClientPacketTypes());
+
+        Deque<Runnable> converters = getConverterSteps();
+
+        this.completedConverters.set(0);
+        this.totalConverters = converters.size();
+        this.completed.set(0);
+        this.failed.set(0);
+        this.total = types.size();
+        this.startTime = System.nanoTime();
+        this.endTime = 0;
+
+        // before any worker can touch them
+        this.plugin = plugin;
+        this.converterTask = plugin.getServer().getScheduler().scheduleSyncRepeatingTask(plugin, () -> {
+            long deadline = System.nanoTime() + CONVERTER_BUDGET_NANOS;
+            while (!converters.isEmpty() && System.nanoTime() < deadline) {
+                converters.poll().run();
+                this.completedConverters.incrementAndGet();
+            }
+
+            ProtocolLogger.debug("Warmed up {0} of {1} converters", this.completedConverters.get(), this.totalConverters);
+            if (converters.isEmpty()) {
+                this.startPacketTypes(types);
+            }
+        }, 1L, 1L);
+    }
+
+    private synchronized void startPacketTypes(Set<PacketType> types) {
+        if (this.converterTask == -1) {
+            return; // stopped in the meantime
+        }
+        this.plugin.getServer().getScheduler().cancelTask(this.converterTask);
+        this.converterTask = -1;
+
+        // leave some cores to the server, which is starting as well
+        int parallelism = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        ForkJoinPool pool = new ForkJoinPool(parallelism, fjPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(fjPool);
+            thread.setName("ProtocolLib-WarmUp " + thread.getPoolIndex());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        }, null, false);
+        this.pool = pool;
+
+        pool.execute(() -> {
+            types.parallelStream().forEach(this::warmUp);
+
+            this.endTime = System.nanoTime();
+            ProtocolLogger.log(Level.INFO, "Warmed up {0} converters and {1} packet types in {2} ms ({3} failed)",
+                    this.completedConverters.get(), this.completed.get(), this.getElapsed(TimeUnit.MILLISECONDS),
+                    this.failed.get());
+            this.shutdown(pool);
+        });
+    }
+
+    /**
+     * Stop the warm-up, if it is still running.
+     */
+    public synchronized void stop() {
+        if (this.converterTask != -1) {
+            this.plugin.getServer().getScheduler().cancelTask(this.converterTask);
+            this.converterTask = -1;
+        }
+        if (this.pool != null) {
+            this.pool.shutdownNow();
+            this.pool = null;
+        }
+    }
+
+    private synchronized void shutdown(ForkJoinPool pool) {
+        pool.shutdown();
+        if (this.pool == pool) {
+            this.pool = null;
+        }
+    }
+
+    /**
+     * Determine if the warm-up is still running.
+     *
+     * @return TRUE if it is, FALSE otherwise.
+     */
+    public boolean isRunning() {
+        return this.startTime != 0 && this.endTime == 0;
+    }
+
+    /**
+     * Retrieve the number of wrapper converters that have been warmed up so far.
+     *
+     * @return The number of converters.
+     */
+    public int getCompletedConverters() {
+        return this.completedConverters.get();
+    }
+
+    /**
+     * Retrieve the number of wrapper converters to warm up.
+     *
+     * @return The number of converters.
+     */
+    public int getTotalConverters() {
+        return this.totalConverters;
+    }
+
+    /**
+     * Retrieve the number of packet types that have been warmed up so far.
+     *
+     * @return The number of packet types.
+     */
+    public int getCompletedTypes() {
+        return this.completed.get();
+    }
+
+    /**
+     * Retrieve the number of packet types that could not be warmed up, and will be resolved on first use instead.
+     *
+     * @return The number of packet types.
+     */
+    public int getFailedTypes() {
+        return this.failed.get();
+    }
+
+    /**
+     * Retrieve the number of packet types to warm up.
+     *
+     * @return The number of packet types.
+     */
+    public int getTotalTypes() {
+        return this.total;
+    }
+
+    /**
+     * Retrieve the time the warm-up took, or has taken so far.
+     *
+     * @param unit - the unit of the result.
+     * @return The elapsed time, or zero if it never started.
+     */
+    public long getElapsed(TimeUnit unit) {
+        long start = this.startTime;
+        if (start == 0) {
+            return 0;
+        }
+
+        long end = this.endTime;
+        return unit.convert((end != 0 ? end : System.nanoTime()) - start, TimeUnit.NANOSECONDS);
+    }
+
+    private void warmUp(PacketType type) {
+        try {
+            StructureCache.getStructure(type);
+            StructureCache.getPacketCreator(PacketRegistry.getPacketClassFromType(type));
+            this.completed.incrementAndGet();
+        } catch (Throwable ex) {
+            // not fatal, the type is resolved again on first use
+            this.failed.incrementAndGet();
+            ProtocolLogger.debug("Unable to warm up " + type, ex);
+        }
+    }
+
+    private static Deque<Runnable> getConverterSteps() {
+        Deque<Runnable> steps = new ArrayDeque<>();
+
+        // every enum class getter initializes all of them
+        steps.add(() -> {
+            try {
+                EnumWrappers.getProtocolClass();
+            } catch (Throwable ex) {
+                ProtocolLogger.debug("Unable to warm up the enum wrappers", ex);
+            }
+        });
+
+        for (Method method : BukkitConverters.class.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers()) && method.getParameterCount() == 0
+                    && EquivalentConverter.class.isAssignableFrom(method.getReturnType())) {
+                steps.add(() -> {
+                    try {
+                        method.invoke(null);
+                    } catch (Throwable ex) {
+                        ProtocolLogger.debug("Unable to warm up " + method.getName(), ex);
+                    }
+                });
+            }
+        }
+
+        steps.add(() -> {
+            try {
+                BukkitConverters.getUnwrappers();
+            } catch (Throwable ex) {
+                ProtocolLogger.debug("Unable to warm up the unwrappers", ex);
+            }
+        });
+        return steps;
+    }
+}
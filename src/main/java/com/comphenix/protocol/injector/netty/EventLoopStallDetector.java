@@ -0,0 +1,315 @@
+package com.comphenix.protocol.injector.netty;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.ProtocolLogger;
+import com.comphenix.protocol.events.PacketAdapter;
+import com.comphenix.protocol.events.PacketListener;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.netty.channel.EventLoop;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+
+/**
+ * Detects work done by ProtocolLib that holds a Netty event loop for too long.
+ * <p>
+ * Every section of ProtocolLib work on an event loop - intercepting an inbound packet, or running a task we scheduled
+ * or proxied - is tracked along with the packet type and the plugin whose listener is currently running. A background
+ * thread samples every event loop and warns when a section has been running longer than the threshold, including the
+ * number of tasks waiting in the loop. Sections that finish past the threshold between two samples are reported as
+ * well, with the plugin whose listener took the longest.
+ * <p>
+ * While disabled, tracking a section costs a single volatile read.
+ */
+public final class EventLoopStallDetector {
+
+    // The shared detector
+    private static final EventLoopStallDetector INSTANCE = new EventLoopStallDetector();
+
+    // zero if disabled
+    private volatile long thresholdNanos;
+
+    private final Set<LoopState> loops = ConcurrentHashMap.newKeySet();
+    private final ThreadLocal<LoopState> currentLoop = new ThreadLocal<>();
+    private ScheduledExecutorService sampler;
+
+    /**
+     * Retrieve the shared stall detector.
+     *
+     * @return The shared stall detector.
+     */
+    public static EventLoopStallDetector getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Determine if the stall detector is running.
+     *
+     * @return TRUE if it is, FALSE otherwise.
+     */
+    public boolean isEnabled() {
+        return this.thresholdNanos > 0;
+    }
+
+    /**
+     * Start detecting event loops blocked by ProtocolLib for longer than the given threshold.
+     *
+     * @param threshold - the threshold.
+     * @param unit      - the unit of the threshold.
+     */
+    public synchronized void start(long threshold, TimeUnit unit) {
+        this.stop();
+
+        long thresholdNanos = unit.toNanos(threshold);
+        if (thresholdNanos <= 0) {
+            throw new IllegalArgumentException("Threshold must be positive, got " + threshold);
+        }
+
+        this.thresholdNanos = thresholdNanos;
+        this.sampler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("ProtocolLib-StallDetector %s")
+                .build());
+
+        // sample twice per threshold, so that no stall goes unnoticed for longer than 1.5 times the threshold
+        long period = Math.max(1, thresholdNanos / 2);
+        this.sampler.scheduleAtFixedRate(this::sample, period, period, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Stop detecting blocked event loops.
+     */
+    public synchronized void stop() {
+        this.thresholdNanos = 0;
+
+        if (this.sampler != null) {
+            this.sampler.shutdownNow();
+            this.sampler = null;
+        }
+    }
+
+    /**
+     * Retrieve the number of tasks waiting in every event loop that ran ProtocolLib work, at the time of the last sample.
+     *
+     * @return The queue depths, indexed by the name of the event loop thread.
+     */
+    public Map<String, Integer> getQueueDepths() {
+        Map<String, Integer> depths = new HashMap<>();
+
+        for (LoopState state : this.loops) {
+            depths.put(state.thread.getName(), state.queueDepth);
+        }
+        return depths;
+    }
+
+    /**
+     * Begin a section of ProtocolLib work on the current event loop.
+     * <p>
+     * Nested sections are merged into the outermost one.
+     *
+     * @param loop - the event loop of the current thread.
+     * @param task - a description of the work.
+     * @param type - the packet type, or NULL if not known.
+     * @return The token to pass to {@link #exit(Object)}, or NULL if the section is not tracked.
+     */
+    public Object enter(EventLoop loop, String task, PacketType type) {
+        if (this.thresholdNanos <= 0) {
+            return null;
+        }
+
+        LoopState state = this.currentLoop.get();
+        if (state == null) {
+            state = new LoopState(Thread.currentThread(), loop);
+            this.currentLoop.set(state);
+            this.loops.add(state);
+        }
+
+        if (state.depth++ > 0) {
+            return state;
+        }
+
+        state.task = task;
+        state.type = type;
+        state.currentPlugin = null;
+        state.slowestPlugin = null;
+        state.slowestNanos = 0;
+        state.reported = false;
+        state.started = System.nanoTime();
+        return state;
+    }
+
+    /**
+     * End a section of ProtocolLib work.
+     *
+     * @param token - the token returned by {@link #enter(EventLoop, String, PacketType)}, or NULL.
+     */
+    public void exit(Object token) {
+        if (token == null) {
+            return;
+        }
+
+        LoopState state = (LoopState) token;
+        if (--state.depth > 0) {
+            return;
+        }
+
+        long elapsed = System.nanoTime() - state.started;
+        state.started = 0;
+
+        long thresholdNanos = this.thresholdNanos;
+        if (thresholdNanos > 0 && elapsed > thresholdNanos && !state.reported) {
+            state.reported = true;
+            this.warn(state, elapsed, state.slowestPlugin, queueDepth(state.loop));
+        }
+    }
+
+    /**
+     * Note that a listener is about to be invoked on the current thread.
+     *
+     * @param listener - the listener.
+     */
+    public void enterListener(PacketListener listener) {
+        LoopState state = this.currentLoop.get();
+
+        if (state != null && state.depth > 0) {
+            state.currentPlugin = PacketAdapter.getPluginName(listener);
+            state.listenerStarted = System.nanoTime();
+        }
+    }
+
+    /**
+     * Note that the listener given to {@link #enterListener(PacketListener)} has returned.
+     */
+    public void exitListener() {
+        LoopState state = this.currentLoop.get();
+
+        if (state != null && state.currentPlugin != null) {
+            long elapsed = System.nanoTime() - state.listenerStarted;
+
+            if (elapsed > state.slowestNanos) {
+                state.slowestNanos = elapsed;
+                state.slowestPlugin = state.currentPlugin;
+            }
+            state.currentPlugin = null;
+        }
+    }
+
+    /**
+     * Wrap a task that will be executed on the given event loop in a tracked section.
+     *
+     * @param loop - the event loop.
+     * @param task - a description of the task.
+     * @param type - the packet type, or NULL if not known.
+     * @param runnable - the task.
+     * @return The wrapped task, or the original task if the detector is disabled.
+     */
+    public Runnable wrap(EventLoop loop, String task, PacketType type, Runnable runnable) {
+        if (this.thresholdNanos <= 0 || runnable == null) {
+            return runnable;
+        }
+
+        return () -> {
+            Object token = this.enter(loop, task, type);
+            try {
+                runnable.run();
+            } finally {
+                this.exit(token);
+            }
+        };
+    }
+
+    /**
+     * Wrap a task that will be executed on the given event loop in a tracked section.
+     *
+     * @param loop - the event loop.
+     * @param task - a description of the task.
+     * @param type - the packet type, or NULL if not known.
+     * @param callable - the task.
+     * @param <T> - the return type of the task.
+     * @return The wrapped task, or the original task if the detector is disabled.
+     */
+    public <T> Callable<T> wrap(EventLoop loop, String task, PacketType type, Callable<T> callable) {
+        if (this.thresholdNanos <= 0 || callable == null) {
+            return callable;
+        }
+
+        return () -> {
+            Object token = this.enter(loop, task, type);
+            try {
+                return callable.call();
+            } finally {
+                this.exit(token);
+            }
+        };
+    }
+
+    private void sample() {
+        long now = System.nanoTime();
+        long thresholdNanos = this.thresholdNanos;
+
+        for (LoopState state : this.loops) {
+            if (!state.thread.isAlive()) {
+                this.loops.remove(state);
+                continue;
+            }
+
+            state.queueDepth = queueDepth(state.loop);
+
+            // the section might end while we look at it, which is harmless
+            long started = state.started;
+            if (started != 0 && now - started > thresholdNanos && !state.reported) {
+                state.reported = true;
+
+                String plugin = state.currentPlugin;
+                this.warn(state, now - started, plugin != null ? plugin : state.slowestPlugin, state.queueDepth);
+            }
+        }
+    }
+
+    private void warn(LoopState state, long elapsed, String plugin, int queueDepth) {
+        ProtocolLogger.log(Level.WARNING,
+                "Event loop {0} was blocked for {1} ms by {2} (packet: {3}, plugin: {4}, queued tasks: {5})",
+                state.thread.getName(), TimeUnit.NANOSECONDS.toMillis(elapsed), state.task,
+                state.type != null ? state.type : "unknown", plugin != null ? plugin : "none",
+                queueDepth >= 0 ? queueDepth : "unknown");
+    }
+
+    private static int queueDepth(EventLoop loop) {
+        if (loop instanceof SingleThreadEventExecutor) {
+            return ((SingleThreadEventExecutor) loop).pendingTasks();
+        }
+        return -1;
+    }
+
+    private static final class LoopState {
+        private final Thread thread;
+        private final EventLoop loop;
+
+        // only changed by the event loop thread
+        private int depth;
+        private long listenerStarted;
+        private long slowestNanos;
+        private volatile String slowestPlugin;
+
+        // read by the sampler
+        private volatile long started;
+        private volatile String task;
+        private volatile PacketType type;
+        private volatile String currentPlugin;
+        private volatile boolean reported;
+        private volatile int queueDepth = -1;
+
+        LoopState(Thread thread, EventLoop loop) {
+            this.thread = thread;
+            this.loop = loop;
+        }
+    }
+}
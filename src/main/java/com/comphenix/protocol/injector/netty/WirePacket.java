@@ -86,7 +86,7 @@ public class WirePacket {
 
         // Read the bytes once
         MethodAccessor write = MinecraftMethods.getPacketWriteByteBufMethod();
-        write.invoke(packet.getHandle(), buffer);
+        write.invoke1(packet.getHandle(), buffer);
 
         byte[] bytes = StreamSerializer.getDefault().getBytesAndRelease(buffer);
 
@@ -98,7 +98,7 @@ public class WirePacket {
             store.writeBytes(bytes);
 
             MethodAccessor read = MinecraftMethods.getPacketReadByteBufMethod();
-            read.invoke(packet.getHandle(), store);
+            read.invoke1(packet.getHandle(), store);
 
             bytes = ret;
         }
@@ -121,7 +121,7 @@ public class WirePacket {
         ByteBuf buffer = PacketContainer.createPacketBuffer();
 
         MethodAccessor write = MinecraftMethods.getPacketWriteByteBufMethod();
-        write.invoke(packet, buffer);
+        write.invoke1(packet, buffer);
 
         byte[] bytes = StreamSerializer.getDefault().getBytesAndRelease(buffer);
         int id = PacketType.fromClass(packet.getClass()).getCurrentId();
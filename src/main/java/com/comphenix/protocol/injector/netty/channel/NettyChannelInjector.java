@@ -22,11 +22,15 @@ import com.comphenix.protocol.events.NetworkMarker;
 import com.comphenix.protocol.events.PacketEvent;
 import com.comphenix.protocol.injector.NetworkProcessor;
 import com.comphenix.protocol.injector.netty.ChannelListener;
+import com.comphenix.protocol.injector.netty.EventLoopStallDetector;
 import com.comphenix.protocol.injector.netty.Injector;
+import com.comphenix.protocol.injector.packet.PacketRegistry;
 import com.comphenix.protocol.reflect.FuzzyReflection;
 import com.comphenix.protocol.reflect.accessors.Accessors;
 import com.comphenix.protocol.reflect.accessors.FieldAccessor;
 import com.comphenix.protocol.reflect.fuzzy.FuzzyFieldContract;
+import com.comphenix.protocol.timing.FlightRecorderEvents;
+import com.comphenix.protocol.timing.PacketThroughputManager;
 import com.comphenix.protocol.utility.*;
 import com.comphenix.protocol.wrappers.WrappedGameProfile;
 import io.netty.channel.Channel;
@@ -59,9 +63,16 @@ public class NettyChannelInjector implements Injector {
     private static final String INTERCEPTOR_NAME = "protocol_lib_inbound_interceptor";
     private static final String WIRE_PACKET_ENCODER_NAME = "protocol_lib_wire_packet_encoder";
 
+    private static final String OUTBOUND_PACKET_COUNTER_NAME = "protocol_lib_outbound_packet_counter";
+    private static final String OUTBOUND_BYTE_COUNTER_NAME = "protocol_lib_outbound_byte_counter";
+    private static final String INBOUND_PACKET_COUNTER_NAME = "protocol_lib_inbound_packet_counter";
+    private static final String INBOUND_BYTE_COUNTER_NAME = "protocol_lib_inbound_byte_counter";
+
     // all registered channel handlers to easier make sure we unregister them all from the pipeline
     private static final String[] PROTOCOL_LIB_HANDLERS = new String[]{
-            WIRE_PACKET_ENCODER_NAME, INTERCEPTOR_NAME
+            WIRE_PACKET_ENCODER_NAME, INTERCEPTOR_NAME,
+            OUTBOUND_PACKET_COUNTER_NAME, OUTBOUND_BYTE_COUNTER_NAME,
+            INBOUND_PACKET_COUNTER_NAME, INBOUND_BYTE_COUNTER_NAME
     };
 
     private static final ReportType REPORT_CANNOT_SEND_PACKET = new ReportType("Unable to send packet %s to %s");
@@ -100,6 +111,9 @@ public class NettyChannelInjector implements Injector {
     protected final ThreadLocal<Boolean> processedPackets = ThreadLocal.withInitial(() -> Boolean.FALSE);
 
     // status of this injector
+    // the packet counters of this channel, only present if counting was enabled when we were first injected
+    private volatile PacketCountingHandler packetCounter;
+
     private volatile boolean closed = false;
     private volatile boolean injected = false;
 
@@ -210,6 +224,7 @@ public class NettyChannelInjector implements Injector {
                     "decoder",
                     INTERCEPTOR_NAME,
                     new InboundPacketInterceptor(this, this.channelListener));
+            this.injectPacketCounter();
 
             this.injected = true;
             return true;
@@ -220,6 +235,23 @@ public class NettyChannelInjector implements Injector {
         }
     }
 
+    private void injectPacketCounter() {
+        PacketCountingHandler counter = this.packetCounter;
+        if (counter == null) {
+            if (!PacketThroughputManager.getInstance().isEnabled()) {
+                return;
+            }
+            this.packetCounter = counter = new PacketCountingHandler(
+                    PacketThroughputManager.getInstance().register(this::getPlayer));
+        }
+
+        // the counters next to the decoder are placed closest to it, so that they see the packets before any listener
+        this.wrappedChannel.pipeline().addAfter("encoder", OUTBOUND_PACKET_COUNTER_NAME, counter.outboundPacketHandler());
+        this.wrappedChannel.pipeline().addBefore("encoder", OUTBOUND_BYTE_COUNTER_NAME, counter.outboundByteHandler());
+        this.wrappedChannel.pipeline().addAfter("decoder", INBOUND_PACKET_COUNTER_NAME, counter.inboundPacketHandler());
+        this.wrappedChannel.pipeline().addBefore("decoder", INBOUND_BYTE_COUNTER_NAME, counter.inboundByteHandler());
+    }
+
     @Override
     public void uninject() {
         // ensure that we injected into the channel before trying to remove anything from it
@@ -258,6 +290,10 @@ public class NettyChannelInjector implements Injector {
             this.savedMarkers.clear();
             this.skippedPackets.clear();
 
+            if (this.packetCounter != null) {
+                this.packetCounter.getCounters().close();
+            }
+
             // wipe this injector completely
             this.injectionFactory.invalidate(this.getPlayer(), this.playerName);
         }
@@ -279,12 +315,12 @@ public class NettyChannelInjector implements Injector {
         this.saveMarker(packet, marker);
         try {
             if (this.resolvedPlayer instanceof ByteBuddyGenerated) {
-                MinecraftMethods.getNetworkManagerHandleMethod().invoke(this.networkManager, packet);
+                MinecraftMethods.getNetworkManagerHandleMethod().invoke1(this.networkManager, packet);
             } else {
                 // ensure that the player is properly connected before sending
                 Object playerConnection = this.getPlayerConnection();
                 if (playerConnection != null) {
-                    MinecraftMethods.getSendPacketMethod().invoke(playerConnection, packet);
+                    MinecraftMethods.getSendPacketMethod().invoke1(playerConnection, packet);
                 }
             }
         } catch (Exception exception) {
@@ -305,7 +341,7 @@ public class NettyChannelInjector implements Injector {
         Runnable receiveAction = () -> {
             try {
                 // try to invoke the method, this should normally not fail
-                MinecraftMethods.getNetworkManagerReadPacketMethod().invoke(this.networkManager, null, packet);
+                MinecraftMethods.getNetworkManagerReadPacketMethod().invoke2(this.networkManager, null, packet);
             } catch (Exception exception) {
                 // 99% the user gave wrong information to the server
                 this.errorReporter.reportMinimal(this.injectionFactory.getPlugin(), "receiveClientPacket", exception);
@@ -483,11 +519,27 @@ public class NettyChannelInjector implements Injector {
         if (eventLoop.inEventLoop()) {
             runnable.run();
         } else {
-            eventLoop.execute(runnable);
+            eventLoop.execute(EventLoopStallDetector.getInstance().wrap(eventLoop, "scheduled event loop task", null, runnable));
         }
     }
 
     void processInboundPacket(ChannelHandlerContext ctx, Object packet, Class<?> packetClass) {
+        // track how long we hold the event loop, this is a no-op if the stall detector is disabled
+        EventLoopStallDetector stallDetector = EventLoopStallDetector.getInstance();
+        Object stallToken = null;
+        if (stallDetector.isEnabled() && ctx.channel().eventLoop().inEventLoop()) {
+            stallToken = stallDetector.enter(ctx.channel().eventLoop(), "inbound packet interception",
+                    PacketRegistry.getPacketType(packetClass));
+        }
+
+        try {
+            this.interceptInboundPacket(ctx, packet, packetClass);
+        } finally {
+            stallDetector.exit(stallToken);
+        }
+    }
+
+    private void interceptInboundPacket(ChannelHandlerContext ctx, Object packet, Class<?> packetClass) {
         if (this.channelListener.hasMainThreadListener(packetClass) && !this.server.isPrimaryThread()) {
             // not on the main thread but we are required to be - re-schedule the packet on the main thread
             this.server.getScheduler().runTask(
@@ -497,7 +549,13 @@ public class NettyChannelInjector implements Injector {
         }
 
         // call packet handlers, a null result indicates that we shouldn't change anything
+        Object recording = FlightRecorderEvents.startPacketInterception(false);
         PacketEvent interceptionResult = this.channelListener.onPacketReceiving(this, packet, null);
+        if (recording != null) {
+            FlightRecorderEvents.finishPacketInterception(recording, PacketRegistry.getPacketType(packetClass),
+                    this.playerName, interceptionResult);
+        }
+
         if (interceptionResult == null) {
             this.ensureInEventLoop(ctx.channel().eventLoop(), () -> ctx.fireChannelRead(packet));
             return;
@@ -563,7 +621,13 @@ public class NettyChannelInjector implements Injector {
 
         // call all listeners which are listening to the outbound packet, if any
         // null indicates that no listener was affected by the packet, meaning that we can directly send the original packet
+        Object recording = FlightRecorderEvents.startPacketInterception(true);
         PacketEvent event = this.channelListener.onPacketSending(this, packet, marker);
+        if (recording != null) {
+            FlightRecorderEvents.finishPacketInterception(recording, PacketRegistry.getPacketType(packet.getClass()),
+                    this.playerName, event);
+        }
+
         if (event == null) {
             return action;
         }
@@ -1,5 +1,6 @@
 package com.comphenix.protocol.injector.netty.channel;
 
+import com.comphenix.protocol.injector.netty.EventLoopStallDetector;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelPromise;
@@ -43,14 +44,14 @@ abstract class NettyEventLoopProxy implements EventLoop {
         Runnable proxied = this.doProxyRunnable(original);
         if (proxied != null && proxied == original) {
             // was not changed, we need to mark the packet as processed manually
-            return () -> {
+            proxied = () -> {
                 this.injector.processedPackets.set(Boolean.TRUE);
                 original.run();
             };
-        } else {
-            // either the action was not executed, or the proxy will set the packet as processes
-            return proxied;
         }
+
+        // a null action was not executed, otherwise track how long it holds the event loop
+        return EventLoopStallDetector.getInstance().wrap(this.delegate, "proxied event loop task", null, proxied);
     }
 
     private <T> Callable<T> proxyCallable(Callable<T> original) {
@@ -58,14 +59,14 @@ abstract class NettyEventLoopProxy implements EventLoop {
         Callable<T> proxied = this.doProxyCallable(original);
         if (proxied != null && proxied == original) {
             // was not changed, we need to mark the packet as processed manually
-            return () -> {
+            proxied = () -> {
                 this.injector.processedPackets.set(Boolean.TRUE);
-                return proxied.call();
+                return original.call();
             };
-        } else {
-            // either the action was not executed, or the proxy will set the packet as processes
-            return proxied;
         }
+
+        // a null action was not executed, otherwise track how long it holds the event loop
+        return EventLoopStallDetector.getInstance().wrap(this.delegate, "proxied event loop task", null, proxied);
     }
 
     /**
@@ -0,0 +1,120 @@
+package com.comphenix.protocol.injector.netty.channel;
+
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.injector.packet.PacketRegistry;
+import com.comphenix.protocol.timing.ConnectionCounters;
+import com.comphenix.protocol.utility.MinecraftReflection;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+
+/**
+ * Counts the packets of a single channel, along with their encoded size.
+ * <p>
+ * The packet type is only known on one side of the encoder (and decoder), and the size only on the other. Both sides
+ * run on the channel event loop during the same write (or read), so a handler on each side is used to pair them.
+ * Once compression is enabled, the compressor ends up between the encoder and our handler, so the counted size is
+ * the compressed size.
+ */
+final class PacketCountingHandler {
+
+    // packet classes never change their type, so cache the lookup
+    private static final ClassValue<PacketType> PACKET_TYPES = new ClassValue<PacketType>() {
+        @Override
+        protected PacketType computeValue(Class<?> type) {
+            if (MinecraftReflection.getPacketClass().isAssignableFrom(type)) {
+                return PacketRegistry.getPacketType(type);
+            }
+            return null;
+        }
+    };
+
+    private final ConnectionCounters counters;
+
+    // only accessed from the event loop
+    private PacketType pendingOutbound;
+    private int pendingInboundSize;
+
+    PacketCountingHandler(ConnectionCounters counters) {
+        this.counters = counters;
+    }
+
+    ConnectionCounters getCounters() {
+        return this.counters;
+    }
+
+    /**
+     * Retrieve the handler that should be placed right before the encoder, seeing the packets.
+     *
+     * @return The handler.
+     */
+    ChannelHandler outboundPacketHandler() {
+        return new ChannelOutboundHandlerAdapter() {
+            @Override
+            public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+                PacketCountingHandler.this.pendingOutbound = PACKET_TYPES.get(msg.getClass());
+                ctx.write(msg, promise);
+            }
+        };
+    }
+
+    /**
+     * Retrieve the handler that should be placed right after the encoder, seeing the encoded packets.
+     *
+     * @return The handler.
+     */
+    ChannelHandler outboundByteHandler() {
+        return new ChannelOutboundHandlerAdapter() {
+            @Override
+            public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+                PacketType type = PacketCountingHandler.this.pendingOutbound;
+
+                if (type != null && msg instanceof ByteBuf) {
+                    PacketCountingHandler.this.pendingOutbound = null;
+                    PacketCountingHandler.this.counters.record(type, ((ByteBuf) msg).readableBytes());
+                }
+                ctx.write(msg, promise);
+            }
+        };
+    }
+
+    /**
+     * Retrieve the handler that should be placed right before the decoder, seeing the encoded packets.
+     *
+     * @return The handler.
+     */
+    ChannelHandler inboundByteHandler() {
+        return new ChannelInboundHandlerAdapter() {
+            @Override
+            public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+                if (msg instanceof ByteBuf) {
+                    PacketCountingHandler.this.pendingInboundSize = ((ByteBuf) msg).readableBytes();
+                }
+                ctx.fireChannelRead(msg);
+            }
+        };
+    }
+
+    /**
+     * Retrieve the handler that should be placed right after the decoder, seeing the packets.
+     *
+     * @return The handler.
+     */
+    ChannelHandler inboundPacketHandler() {
+        return new ChannelInboundHandlerAdapter() {
+            @Override
+            public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+                PacketType type = PACKET_TYPES.get(msg.getClass());
+
+                if (type != null) {
+                    PacketCountingHandler.this.counters.record(type, PacketCountingHandler.this.pendingInboundSize);
+                    PacketCountingHandler.this.pendingInboundSize = 0;
+                }
+                ctx.fireChannelRead(msg);
+            }
+        };
+    }
+}
@@ -95,6 +95,7 @@ public class NetworkManagerInjector implements ChannelListener {
             // wrap packet and construct the event
             PacketContainer container = new PacketContainer(PacketRegistry.getPacketType(packetClass), packet);
             PacketEvent packetEvent = PacketEvent.fromServer(this, container, marker, injector.getPlayer());
+            PacketEvent.setInjector(packetEvent, injector);
 
             // post to all listeners, then return the packet event we constructed
             this.listenerInvoker.invokePacketSending(packetEvent);
@@ -113,6 +114,7 @@ public class NetworkManagerInjector implements ChannelListener {
             // wrap the packet and construct the event
             PacketContainer container = new PacketContainer(PacketRegistry.getPacketType(packetClass), packet);
             PacketEvent packetEvent = PacketEvent.fromClient(this, container, marker, injector.getPlayer());
+            PacketEvent.setInjector(packetEvent, injector);
 
             // post to all listeners, then return the packet event we constructed
             this.listenerInvoker.invokePacketReceiving(packetEvent);
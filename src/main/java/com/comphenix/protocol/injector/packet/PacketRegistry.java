@@ -28,6 +28,7 @@ import com.comphenix.protocol.ProtocolLogger;
 import com.comphenix.protocol.reflect.FuzzyReflection;
 import com.comphenix.protocol.reflect.StructureModifier;
 import com.comphenix.protocol.reflect.fuzzy.FuzzyFieldContract;
+import com.comphenix.protocol.timing.StartupProfiler;
 import com.comphenix.protocol.utility.MinecraftReflection;
 import com.comphenix.protocol.utility.MinecraftVersion;
 
@@ -288,10 +289,12 @@ public class PacketRegistry {
                 return;
             }
 
-            if (MinecraftVersion.BEE_UPDATE.atOrAbove()) {
-                REGISTER = createNewRegister();
-            } else {
-                REGISTER = createOldRegister();
+            try (StartupProfiler.Phase ignored = StartupProfiler.getInstance().begin("PacketRegistry.initialize")) {
+                if (MinecraftVersion.BEE_UPDATE.atOrAbove()) {
+                    REGISTER = createNewRegister();
+                } else {
+                    REGISTER = createOldRegister();
+                }
             }
 
             INITIALIZED = true;
@@ -18,6 +18,7 @@
 package com.comphenix.protocol.injector.temporary;
 
 import com.comphenix.protocol.events.PacketContainer;
+import com.comphenix.protocol.timing.StartupProfiler;
 import com.comphenix.protocol.utility.ByteBuddyFactory;
 import com.comphenix.protocol.utility.ChatExtensions;
 import java.lang.reflect.Constructor;
@@ -142,7 +143,7 @@ public class TemporaryPlayerFactory {
         final ElementMatcher.Junction<ByteCodeElement> callbackFilter = ElementMatchers.not(
                 ElementMatchers.isDeclaredBy(Object.class).or(ElementMatchers.isDeclaredBy(TemporaryPlayer.class)));
 
-        try {
+        try (StartupProfiler.Phase ignored = StartupProfiler.getInstance().begin("TemporaryPlayerFactory.generate")) {
             final Constructor<?> constructor = ByteBuddyFactory.getInstance()
                     .createSubclass(TemporaryPlayer.class, ConstructorStrategy.Default.NO_CONSTRUCTORS)
                     .name(TemporaryPlayerFactory.class.getPackage().getName() + ".TemporaryPlayerInvocationHandler")
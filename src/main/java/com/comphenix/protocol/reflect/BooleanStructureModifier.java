@@ -0,0 +1,73 @@
+package com.comphenix.protocol.reflect;
+
+/**
+ * Provides list-oriented access to the boolean fields of a Minecraft packet, without boxing their values.
+ *
+ * @see PrimitiveStructureModifier
+ */
+public class BooleanStructureModifier extends PrimitiveStructureModifier<Boolean> {
+
+    /**
+     * Creates a primitive view of a structure modifier for boolean fields, sharing its fields and target.
+     *
+     * @param modifier - the structure modifier of every boolean field.
+     */
+    public BooleanStructureModifier(StructureModifier<Boolean> modifier) {
+        super(modifier, boolean.class);
+    }
+
+    /**
+     * Reads the value of a field given its index.
+     *
+     * @param fieldIndex - index of the field.
+     * @return Value of the field.
+     * @see #read(int)
+     */
+    public boolean readBoolean(int fieldIndex) throws FieldAccessException {
+        return this.requireFieldAccessor(fieldIndex).getBoolean(this.currentTarget());
+    }
+
+    /**
+     * Writes the value of a field given its index.
+     *
+     * @param fieldIndex - index of the field.
+     * @param value      - new value of the field.
+     * @return This structure modifier - for chaining.
+     * @see #write(int, Object)
+     */
+    public BooleanStructureModifier writeBoolean(int fieldIndex, boolean value) throws FieldAccessException {
+        this.requireFieldAccessor(fieldIndex).setBoolean(this.writableTarget(), value);
+        return this;
+    }
+
+    /**
+     * Reads the value of a field of the given target, given its index.
+     *
+     * @param target     - the object to read from, an instance of the target type.
+     * @param fieldIndex - index of the field.
+     * @return Value of the field.
+     * @see #read(Object, int)
+     */
+    public boolean readBoolean(Object target, int fieldIndex) throws FieldAccessException {
+        return this.requireFieldAccessor(target, fieldIndex).getBoolean(target);
+    }
+
+    /**
+     * Writes the value of a field of the given target, given its index.
+     *
+     * @param target     - the object to write to, an instance of the target type.
+     * @param fieldIndex - index of the field.
+     * @param value      - new value of the field.
+     * @return This structure modifier - for chaining.
+     * @see #write(Object, int, Object)
+     */
+    public BooleanStructureModifier writeBoolean(Object target, int fieldIndex, boolean value) throws FieldAccessException {
+        this.requireFieldAccessor(target, fieldIndex).setBoolean(target, value);
+        return this;
+    }
+
+    @Override
+    public BooleanStructureModifier withTarget(Object target) {
+        return this.withTarget(new BooleanStructureModifier(this), target);
+    }
+}
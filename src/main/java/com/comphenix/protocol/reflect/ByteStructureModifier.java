@@ -0,0 +1,73 @@
+package com.comphenix.protocol.reflect;
+
+/**
+ * Provides list-oriented access to the byte fields of a Minecraft packet, without boxing their values.
+ *
+ * @see PrimitiveStructureModifier
+ */
+public class ByteStructureModifier extends PrimitiveStructureModifier<Byte> {
+
+    /**
+     * Creates a primitive view of a structure modifier for byte fields, sharing its fields and target.
+     *
+     * @param modifier - the structure modifier of every byte field.
+     */
+    public ByteStructureModifier(StructureModifier<Byte> modifier) {
+        super(modifier, byte.class);
+    }
+
+    /**
+     * Reads the value of a field given its index.
+     *
+     * @param fieldIndex - index of the field.
+     * @return Value of the field.
+     * @see #read(int)
+     */
+    public byte readByte(int fieldIndex) throws FieldAccessException {
+        return this.requireFieldAccessor(fieldIndex).getByte(this.currentTarget());
+    }
+
+    /**
+     * Writes the value of a field given its index.
+     *
+     * @param fieldIndex - index of the field.
+     * @param value      - new value of the field.
+     * @return This structure modifier - for chaining.
+     * @see #write(int, Object)
+     */
+    public ByteStructureModifier writeByte(int fieldIndex, byte value) throws FieldAccessException {
+        this.requireFieldAccessor(fieldIndex).setByte(this.writableTarget(), value);
+        return this;
+    }
+
+    /**
+     * Reads the value of a field of the given target, given its index.
+     *
+     * @param target     - the object to read from, an instance of the target type.
+     * @param fieldIndex - index of the field.
+     * @return Value of the field.
+     * @see #read(Object, int)
+     */
+    public byte readByte(Object target, int fieldIndex) throws FieldAccessException {
+        return this.requireFieldAccessor(target, fieldIndex).getByte(target);
+    }
+
+    /**
+     * Writes the value of a field of the given target, given its index.
+     *
+     * @param target     - the object to write to, an instance of the target type.
+     * @param fieldIndex - index of the field.
+     * @param value      - new value of the field.
+     * @return This structure modifier - for chaining.
+     * @see #write(Object, int, Object)
+     */
+    public ByteStructureModifier writeByte(Object target, int fieldIndex, byte value) throws FieldAccessException {
+        this.requireFieldAccessor(target, fieldIndex).setByte(target, value);
+        return this;
+    }
+
+    @Override
+    public ByteStructureModifier withTarget(Object target) {
+        return this.withTarget(new ByteStructureModifier(this), target);
+    }
+}
@@ -0,0 +1,69 @@
+package com.comphenix.protocol.reflect;
+
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * The target of structure modifiers that share an object with others until it is first written to.
+ * <p>
+ * Structure modifiers with such a target read from the shared object. The first write replaces it with a copy, and
+ * every modifier with the same target continues to read and write the copy from then on.
+ */
+public final class CopyOnWriteTarget {
+
+    private final UnaryOperator<Object> copier;
+    private final Consumer<Object> copyListener;
+
+    private volatile Object target;
+    private volatile boolean copied;
+
+    /**
+     * Create a new copy-on-write target.
+     *
+     * @param target       - the shared object.
+     * @param copier       - copies the shared object.
+     * @param copyListener - notified of the copy, when it is made.
+     */
+    public CopyOnWriteTarget(Object target, UnaryOperator<Object> copier, Consumer<Object> copyListener) {
+        this.target = target;
+        this.copier = copier;
+        this.copyListener = copyListener;
+    }
+
+    /**
+     * Retrieve the object to read from, which is still the shared object if it was never written to.
+     *
+     * @return The current object.
+     */
+    public Object get() {
+        return this.target;
+    }
+
+    /**
+     * Retrieve the object to write to, copying the shared object first if this is the first write.
+     *
+     * @return The copied object.
+     */
+    public Object getForWrite() {
+        if (!this.copied) {
+            synchronized (this) {
+                if (!this.copied) {
+                    Object copy = this.copier.apply(this.target);
+                    this.target = copy;
+                    this.copied = true;
+                    this.copyListener.accept(copy);
+                }
+            }
+        }
+        return this.target;
+    }
+
+    /**
+     * Determine if the shared object has been copied.
+     *
+     * @return TRUE if it has, FALSE if it is still shared.
+     */
+    public boolean isCopied() {
+        return this.copied;
+    }
+}
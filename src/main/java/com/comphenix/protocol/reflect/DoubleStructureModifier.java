@@ -0,0 +1,73 @@
+package com.comphenix.protocol.reflect;
+
+/**
+ * Provides list-oriented access to the double fields of a Minecraft packet, without boxing their values.
+ *
+ * @see PrimitiveStructureModifier
+ */
+public class DoubleStructureModifier extends PrimitiveStructureModifier<Double> {
+
+    /**
+     * Creates a primitive view of a structure modifier for double fields, sharing its fields and target.
+     *
+     * @param modifier - the structure modifier of every double field.
+     */
+    public DoubleStructureModifier(StructureModifier<Double> modifier) {
+        super(modifier, double.class);
+    }
+
+    /**
+     * Reads the value of a field given its index.
+     *
+     * @param fieldIndex - index of the field.
+     * @return Value of the field.
+     * @see #read(int)
+     */
+    public double readDouble(int fieldIndex) throws FieldAccessException {
+        return this.requireFieldAccessor(fieldIndex).getDouble(this.currentTarget());
+    }
+
+    /**
+     * Writes the value of a field given its index.
+     *
+     * @param fieldIndex - index of the field.
+     * @param value      - new value of the field.
+     * @return This structure modifier - for chaining.
+     * @see #write(int, Object)
+     */
+    public DoubleStructureModifier writeDouble(int fieldIndex, double value) throws FieldAccessException {
+        this.requireFieldAccessor(fieldIndex).setDouble(this.writableTarget(), value);
+        return this;
+    }
+
+    /**
+     * Reads the value of a field of the given target, given its index.
+     *
+     * @param target     - the object to read from, an instance of the target type.
+     * @param fieldIndex - index of the field.
+     * @return Value of the field.
+     * @see #read(Object, int)
+     */
+    public double readDouble(Object target, int fieldIndex) throws FieldAccessException {
+        return this.requireFieldAccessor(target, fieldIndex).getDouble(target);
+    }
+
+    /**
+     * Writes the value of a field of the given target, given its index.
+     *
+     * @param target     - the object to write to, an instance of the target type.
+     * @param fieldIndex - index of the field.
+     * @param value      - new value of the field.
+     * @return This structure modifier - for chaining.
+     * @see #write(Object, int, Object)
+     */
+    public DoubleStructureModifier writeDouble(Object target, int fieldIndex, double value) throws FieldAccessException {
+        this.requireFieldAccessor(target, fieldIndex).setDouble(target, value);
+        return this;
+    }
+
+    @Override
+    public DoubleStructureModifier withTarget(Object target) {
+        return this.withTarget(new DoubleStructureModifier(this), target);
+    }
+}
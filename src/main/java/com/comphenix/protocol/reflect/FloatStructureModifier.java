@@ -0,0 +1,73 @@
+package com.comphenix.protocol.reflect;
+
+/**
+ * Provides list-oriented access to the float fields of a Minecraft packet, without boxing their values.
+ *
+ * @see PrimitiveStructureModifier
+ */
+public class FloatStructureModifier extends PrimitiveStructureModifier<Float> {
+
+    /**
+     * Creates a primitive view of a structure modifier for float fields, sharing its fields and target.
+     *
+     * @param modifier - the structure modifier of every float field.
+     */
+    public FloatStructureModifier(StructureModifier<Float> modifier) {
+        super(modifier, float.class);
+    }
+
+    /**
+     * Reads the value of a field given its index.
+     *
+     * @param fieldIndex - index of the field.
+     * @return Value of the field.
+     * @see #read(int)
+     */
+    public float readFloat(int fieldIndex) throws FieldAccessException {
+        return this.requireFieldAccessor(fieldIndex).getFloat(this.currentTarget());
+    }
+
+    /**
+     * Writes the value of a field given its index.
+     *
+     * @param fieldIndex - index of the field.
+     * @param value      - new value of the field.
+     * @return This structure modifier - for chaining.
+     * @see #write(int, Object)
+     */
+    public FloatStructureModifier writeFloat(int fieldIndex, float value) throws FieldAccessException {
+        this.requireFieldAccessor(fieldIndex).setFloat(this.writableTarget(), value);
+        return this;
+    }
+
+    /**
+     * Reads the value of a field of the given target, given its index.
+     *
+     * @param target     - the object to read from, an instance of the target type.
+     * @param fieldIndex - index of the field.
+     * @return Value of the field.
+     * @see #read(Object, int)
+     */
+    public float readFloat(Object target, int fieldIndex) throws FieldAccessException {
+        return this.requireFieldAccessor(target, fieldIndex).getFloat(target);
+    }
+
+    /**
+     * Writes the value of a field of the given target, given its index.
+     *
+     * @param target     - the object to write to, an instance of the target type.
+     * @param fieldIndex - index of the field.
+     * @param value      - new value of the field.
+     * @return This structure modifier - for chaining.
+     * @see #write(Object, int, Object)
+     */
+    public FloatStructureModifier writeFloat(Object target, int fieldIndex, float value) throws FieldAccessException {
+        this.requireFieldAccessor(target, fieldIndex).setFloat(target, value);
+        return this;
+    }
+
+    @Override
+    public FloatStructureModifier withTarget(Object target) {
+        return this.withTarget(new FloatStructureModifier(this), target);
+    }
+}
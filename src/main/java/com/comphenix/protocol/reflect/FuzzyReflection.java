@@ -19,12 +19,15 @@ package com.comphenix.protocol.reflect;
 
 import com.comphenix.protocol.reflect.accessors.Accessors;
 import com.comphenix.protocol.reflect.fuzzy.AbstractFuzzyMatcher;
+import com.comphenix.protocol.reflect.fuzzy.AbstractFuzzyMember;
 import com.comphenix.protocol.reflect.fuzzy.FuzzyFieldContract;
 import com.comphenix.protocol.reflect.fuzzy.FuzzyMethodContract;
+import com.comphenix.protocol.utility.ReflectionCache;
 import com.google.common.base.Joiner;
 import com.google.common.collect.Sets;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
@@ -73,7 +76,8 @@ public class FuzzyReflection {
      * @return A fuzzy reflection instance.
      */
     public static FuzzyReflection fromClass(Class<?> source, boolean forceAccess) {
-        return new FuzzyReflection(source, forceAccess);
+        MemberCache members = MemberCache.of(source);
+        return forceAccess ? members.forcedReflection : members.publicReflection;
     }
 
     /**
@@ -83,7 +87,7 @@ public class FuzzyReflection {
      * @return A fuzzy reflection instance that uses the class of the given object.
      */
     public static FuzzyReflection fromObject(Object reference) {
-        return new FuzzyReflection(reference.getClass(), false);
+        return fromClass(reference.getClass(), false);
     }
 
     /**
@@ -94,7 +98,7 @@ public class FuzzyReflection {
      * @return A fuzzy reflection instance that uses the class of the given object.
      */
     public static FuzzyReflection fromObject(Object reference, boolean forceAccess) {
-        return new FuzzyReflection(reference.getClass(), forceAccess);
+        return fromClass(reference.getClass(), forceAccess);
     }
 
     /**
@@ -186,9 +190,15 @@ public class FuzzyReflection {
      * @throws IllegalArgumentException If the method cannot be found.
      */
     public Method getMethod(AbstractFuzzyMatcher<MethodInfo> matcher) {
+        String cacheKey = this.getCacheKey("method", matcher, null);
+        Method cached = this.getCachedMethod(cacheKey, matcher);
+        if (cached != null) {
+            return cached;
+        }
+
         List<Method> result = this.getMethodList(matcher);
         if (result.size() > 0) {
-            return result.get(0);
+            return this.cacheMember(cacheKey, result.get(0));
         } else {
             throw new IllegalArgumentException("Unable to find a method that matches " + matcher);
         }
@@ -206,19 +216,25 @@ public class FuzzyReflection {
      * @throws IllegalArgumentException If the method cannot be found.
      */
     public Method getMethod(AbstractFuzzyMatcher<MethodInfo> matcher, String preferred) {
+        String cacheKey = this.getCacheKey("method", matcher, preferred);
+        Method cached = this.getCachedMethod(cacheKey, matcher);
+        if (cached != null) {
+            return cached;
+        }
+
         List<Method> result = this.getMethodList(matcher);
 
         // if we got more than one result check for the preferred method name
         if (result.size() > 1 && preferred != null) {
             for (Method method : result) {
                 if (method.getName().equals(preferred)) {
-                    return method;
+                    return this.cacheMember(cacheKey, method);
                 }
             }
         }
 
         if (result.size() > 0) {
-            return result.get(0);
+            return this.cacheMember(cacheKey, result.get(0));
         } else {
             throw new IllegalArgumentException("Unable to find a method that matches " + matcher);
         }
@@ -234,7 +250,7 @@ public class FuzzyReflection {
     public Method getMethodByName(String nameRegex) {
         // compile the regex only once
         Pattern match = Pattern.compile(nameRegex);
-        for (Method method : this.getMethods()) {
+        for (Method method : this.members().getMethods(this.forceAccess)) {
             if (match.matcher(method.getName()).matches()) {
                 // Right - this is probably it.
                 return method;
@@ -257,7 +273,7 @@ public class FuzzyReflection {
      */
     public Method getMethodByParameters(String name, Class<?>... args) {
         // Find the correct method to call
-        for (Method method : this.getMethods()) {
+        for (Method method : this.members().getMethods(this.forceAccess)) {
             if (Arrays.equals(method.getParameterTypes(), args)) {
                 return method;
             }
@@ -305,11 +321,21 @@ public class FuzzyReflection {
      * @return List of found methods.
      */
     public List<Method> getMethodList(AbstractFuzzyMatcher<MethodInfo> matcher) {
+        if (isCacheable(matcher)) {
+            return new ArrayList<>(this.members().getMatches("method", this.forceAccess, matcher, () -> this.findMethods(matcher)));
+        }
+        return this.findMethods(matcher);
+    }
+
+    private List<Method> findMethods(AbstractFuzzyMatcher<MethodInfo> matcher) {
         // finds and adds all matching methods
         List<Method> methods = new ArrayList<>();
-        for (Method method : this.getMethods()) {
-            if (matcher.isMatch(MethodInfo.fromMethod(method), this.source)) {
-                methods.add(method);
+        Method[] candidates = this.members().getMethods(this.forceAccess);
+        MethodInfo[] infos = this.members().getMethodInfos(this.forceAccess);
+
+        for (int i = 0; i < candidates.length; i++) {
+            if (matcher.isMatch(infos[i], this.source)) {
+                methods.add(candidates[i]);
             }
         }
 
@@ -326,7 +352,7 @@ public class FuzzyReflection {
     public List<Method> getMethodListByParameters(Class<?> returnType, Class<?>... args) {
         List<Method> methods = new ArrayList<>();
         // Find the correct method to call
-        for (Method method : this.getMethods()) {
+        for (Method method : this.members().getMethods(this.forceAccess)) {
             if (method.getReturnType().equals(returnType) && Arrays.equals(method.getParameterTypes(), args)) {
                 methods.add(method);
             }
@@ -345,9 +371,15 @@ public class FuzzyReflection {
      * @throws IllegalArgumentException If the method cannot be found.
      */
     public Field getField(AbstractFuzzyMatcher<Field> matcher) {
+        String cacheKey = this.getCacheKey("field", matcher, null);
+        Field cached = this.getCachedField(cacheKey, matcher);
+        if (cached != null) {
+            return cached;
+        }
+
         List<Field> result = this.getFieldList(matcher);
         if (result.size() > 0) {
-            return result.get(0);
+            return this.cacheMember(cacheKey, result.get(0));
         } else {
             throw new IllegalArgumentException("Unable to find a field that matches " + matcher);
         }
@@ -363,7 +395,7 @@ public class FuzzyReflection {
     public Field getFieldByName(String nameRegex) {
         // compile the pattern only once
         Pattern match = Pattern.compile(nameRegex);
-        for (Field field : this.getFields()) {
+        for (Field field : this.members().getFields(this.forceAccess)) {
             if (match.matcher(field.getName()).matches()) {
                 return field;
             }
@@ -406,7 +438,7 @@ public class FuzzyReflection {
     public List<Field> getFieldListByType(Class<?> type) {
         // Field with a compatible type
         List<Field> fields = new ArrayList<>();
-        for (Field field : this.getFields()) {
+        for (Field field : this.members().getFields(this.forceAccess)) {
             if (type.isAssignableFrom(field.getType())) {
                 fields.add(field);
             }
@@ -424,7 +456,7 @@ public class FuzzyReflection {
      * @throws IllegalArgumentException If the field cannot be found
      */
     public Field getParameterizedField(Class<?> fieldType, Class<?>... params) {
-        for (Field field : this.getFields()) {
+        for (Field field : this.members().getFields(this.forceAccess)) {
             if (field.getType().equals(fieldType)) {
                 Type type = field.getGenericType();
                 if (type instanceof ParameterizedType) {
@@ -451,9 +483,16 @@ public class FuzzyReflection {
      * @return List of found fields.
      */
     public List<Field> getFieldList(AbstractFuzzyMatcher<Field> matcher) {
+        if (isCacheable(matcher)) {
+            return new ArrayList<>(this.members().getMatches("field", this.forceAccess, matcher, () -> this.findFields(matcher)));
+        }
+        return this.findFields(matcher);
+    }
+
+    private List<Field> findFields(AbstractFuzzyMatcher<Field> matcher) {
         // Add all matching fields to the list
         List<Field> fields = new ArrayList<>();
-        for (Field field : this.getFields()) {
+        for (Field field : this.members().getFields(this.forceAccess)) {
             if (matcher.isMatch(field, this.source)) {
                 fields.add(field);
             }
@@ -479,7 +518,7 @@ public class FuzzyReflection {
         Pattern match = Pattern.compile(typeRegex);
 
         // Like above, only here we test the field type
-        for (Field field : this.getFields()) {
+        for (Field field : this.members().getFields(this.forceAccess)) {
             String name = field.getType().getName();
             if (match.matcher(name).matches()) {
                 return field;
@@ -520,11 +559,22 @@ public class FuzzyReflection {
      * @return List of found constructors.
      */
     public List<Constructor<?>> getConstructorList(AbstractFuzzyMatcher<MethodInfo> matcher) {
+        if (isCacheable(matcher)) {
+            return new ArrayList<>(this.members().getMatches("constructor", this.forceAccess, matcher,
+                    () -> this.findConstructors(matcher)));
+        }
+        return this.findConstructors(matcher);
+    }
+
+    private List<Constructor<?>> findConstructors(AbstractFuzzyMatcher<MethodInfo> matcher) {
         // Add all matching constructors to the list
         List<Constructor<?>> constructors = new ArrayList<>();
-        for (Constructor<?> constructor : this.getConstructors()) {
-            if (matcher.isMatch(MethodInfo.fromConstructor(constructor), this.source)) {
-                constructors.add(constructor);
+        Constructor<?>[] candidates = this.members().getConstructors(this.forceAccess);
+        MethodInfo[] infos = this.members().getConstructorInfos(this.forceAccess);
+
+        for (int i = 0; i < candidates.length; i++) {
+            if (matcher.isMatch(infos[i], this.source)) {
+                constructors.add(candidates[i]);
             }
         }
 
@@ -539,11 +589,7 @@ public class FuzzyReflection {
      * @return Every field.
      */
     public Set<Field> getFields() {
-        if (this.forceAccess) {
-            return combineArrays(this.source.getDeclaredFields(), this.source.getFields());
-        } else {
-            return combineArrays(this.source.getFields());
-        }
+        return combineArrays(this.members().getFields(this.forceAccess));
     }
 
     /**
@@ -559,7 +605,7 @@ public class FuzzyReflection {
             Set<Field> fields = Sets.newLinkedHashSet();
 
             while (current != null && current != excludeClass) {
-                fields.addAll(Arrays.asList(current.getDeclaredFields()));
+                Collections.addAll(fields, MemberCache.of(current).getDeclaredFields());
                 current = current.getSuperclass();
             }
 
@@ -577,11 +623,77 @@ public class FuzzyReflection {
      * @return Every method.
      */
     public Set<Method> getMethods() {
-        if (this.forceAccess) {
-            return combineArrays(this.source.getDeclaredMethods(), this.source.getMethods());
-        } else {
-            return combineArrays(this.source.getMethods());
+        return combineArrays(this.members().getMethods(this.forceAccess));
+    }
+
+    /**
+     * Retrieve the key of a lookup in the reflection cache.
+     * <p>
+     * Only fuzzy contracts that are compared by value describe themselves completely, so other matchers are not cached.
+     *
+     * @param kind      - the kind of member.
+     * @param matcher   - the matcher used in the lookup.
+     * @param preferred - the preferred name, or NULL.
+     * @return The key, or NULL if the lookup should not be cached.
+     */
+    private String getCacheKey(String kind, AbstractFuzzyMatcher<?> matcher, String preferred) {
+        if (!ReflectionCache.getInstance().isEnabled() || !isCacheable(matcher)) {
+            return null;
+        }
+        return kind + "|" + this.source.getName() + "|" + this.forceAccess + "|" + matcher
+                + (preferred != null ? "|" + preferred : "");
+    }
+
+    private Method getCachedMethod(String cacheKey, AbstractFuzzyMatcher<MethodInfo> matcher) {
+        String description = cacheKey != null ? ReflectionCache.getInstance().get(cacheKey) : null;
+        if (description == null) {
+            return null;
+        }
+
+        // verify the cached method, as if we had found it ourselves
+        Method method = ReflectionCache.findMethod(description, this.source.getClassLoader());
+        if (method != null && this.isVisible(method) && matcher.isMatch(MethodInfo.fromMethod(method), this.source)) {
+            return method;
+        }
+
+        ReflectionCache.getInstance().invalidate(cacheKey);
+        return null;
+    }
+
+    private Field getCachedField(String cacheKey, AbstractFuzzyMatcher<Field> matcher) {
+        String description = cacheKey != null ? ReflectionCache.getInstance().get(cacheKey) : null;
+        if (description == null) {
+            return null;
+        }
+
+        Field field = ReflectionCache.findField(description, this.source.getClassLoader());
+        if (field != null && this.isVisible(field) && matcher.isMatch(field, this.source)) {
+            return field;
+        }
+
+        ReflectionCache.getInstance().invalidate(cacheKey);
+        return null;
+    }
+
+    private <T extends Member> T cacheMember(String cacheKey, T member) {
+        if (cacheKey != null) {
+            ReflectionCache.getInstance().put(cacheKey, ReflectionCache.describe(member));
+        }
+        return member;
+    }
+
+    /**
+     * Determine if the given member is among those returned by {@link #getMethods()} or {@link #getFields()}.
+     *
+     * @param member - the member.
+     * @return TRUE if it is, FALSE otherwise.
+     */
+    private boolean isVisible(Member member) {
+        Class<?> declaring = member.getDeclaringClass();
+        if (this.forceAccess && declaring == this.source) {
+            return true;
         }
+        return Modifier.isPublic(member.getModifiers()) && declaring.isAssignableFrom(this.source);
     }
 
     /**
@@ -592,6 +704,20 @@ public class FuzzyReflection {
      * @return Every constructor.
      */
     public Set<Constructor<?>> getConstructors() {
-        return combineArrays(this.forceAccess ? this.source.getDeclaredConstructors() : this.source.getConstructors());
+        return combineArrays(this.members().getConstructors(this.forceAccess));
+    }
+
+    private MemberCache members() {
+        return MemberCache.of(this.source);
+    }
+
+    /**
+     * Determine if the members matched by the given matcher can be cached.
+     *
+     * @param matcher - the matcher.
+     * @return TRUE if it is an immutable contract that is compared by value, FALSE otherwise.
+     */
+    private static boolean isCacheable(AbstractFuzzyMatcher<?> matcher) {
+        return matcher instanceof AbstractFuzzyMember && ((AbstractFuzzyMember<?>) matcher).isCacheable();
     }
 }
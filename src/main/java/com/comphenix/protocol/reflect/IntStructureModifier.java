@@ -0,0 +1,73 @@
+package com.comphenix.protocol.reflect;
+
+/**
+ * Provides list-oriented access to the int fields of a Minecraft packet, without boxing their values.
+ *
+ * @see PrimitiveStructureModifier
+ */
+public class IntStructureModifier extends PrimitiveStructureModifier<Integer> {
+
+    /**
+     * Creates a primitive view of a structure modifier for int fields, sharing its fields and target.
+     *
+     * @param modifier - the structure modifier of every int field.
+     */
+    public IntStructureModifier(StructureModifier<Integer> modifier) {
+        super(modifier, int.class);
+    }
+
+    /**
+     * Reads the value of a field given its index.
+     *
+     * @param fieldIndex - index of the field.
+     * @return Value of the field.
+     * @see #read(int)
+     */
+    public int readInt(int fieldIndex) throws FieldAccessException {
+        return this.requireFieldAccessor(fieldIndex).getInt(this.currentTarget());
+    }
+
+    /**
+     * Writes the value of a field given its index.
+     *
+     * @param fieldIndex - index of the field.
+     * @param value      - new value of the field.
+     * @return This structure modifier - for chaining.
+     * @see #write(int, Object)
+     */
+    public IntStructureModifier writeInt(int fieldIndex, int value) throws FieldAccessException {
+        this.requireFieldAccessor(fieldIndex).setInt(this.writableTarget(), value);
+        return this;
+    }
+
+    /**
+     * Reads the value of a field of the given target, given its index.
+     *
+     * @param target     - the object to read from, an instance of the target type.
+     * @param fieldIndex - index of the field.
+     * @return Value of the field.
+     * @see #read(Object, int)
+     */
+    public int readInt(Object target, int fieldIndex) throws FieldAccessException {
+        return this.requireFieldAccessor(target, fieldIndex).getInt(target);
+    }
+
+    /**
+     * Writes the value of a field of the given target, given its index.
+     *
+     * @param target     - the object to write to, an instance of the target type.
+     * @param fieldIndex - index of the field.
+     * @param value      - new value of the field.
+     * @return This structure modifier - for chaining.
+     * @see #write(Object, int, Object)
+     */
+    public IntStructureModifier writeInt(Object target, int fieldIndex, int value) throws FieldAccessException {
+        this.requireFieldAccessor(target, fieldIndex).setInt(target, value);
+        return this;
+    }
+
+    @Override
+    public IntStructureModifier withTarget(Object target) {
+        return this.withTarget(new IntStructureModifier(this), target);
+    }
+}
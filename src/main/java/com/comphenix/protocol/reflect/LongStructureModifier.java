@@ -0,0 +1,73 @@
+package com.comphenix.protocol.reflect;
+
+/**
+ * Provides list-oriented access to the long fields of a Minecraft packet, without boxing their values.
+ *
+ * @see PrimitiveStructureModifier
+ */
+public class LongStructureModifier extends PrimitiveStructureModifier<Long> {
+
+    /**
+     * Creates a primitive view of a structure modifier for long fields, sharing its fields and target.
+     *
+     * @param modifier - the structure modifier of every long field.
+     */
+    public LongStructureModifier(StructureModifier<Long> modifier) {
+        super(modifier, long.class);
+    }
+
+    /**
+     * Reads the value of a field given its index.
+     *
+     * @param fieldIndex - index of the field.
+     * @return Value of the field.
+     * @see #read(int)
+     */
+    public long readLong(int fieldIndex) throws FieldAccessException {
+        return this.requireFieldAccessor(fieldIndex).getLong(this.currentTarget());
+    }
+
+    /**
+     * Writes the value of a field given its index.
+     *
+     * @param fieldIndex - index of the field.
+     * @param value      - new value of the field.
+     * @return This structure modifier - for chaining.
+     * @see #write(int, Object)
+     */
+    public LongStructureModifier writeLong(int fieldIndex, long value) throws FieldAccessException {
+        this.requireFieldAccessor(fieldIndex).setLong(this.writableTarget(), value);
+        return this;
+    }
+
+    /**
+     * Reads the value of a field of the given target, given its index.
+     *
+     * @param target     - the object to read from, an instance of the target type.
+     * @param fieldIndex - index of the field.
+     * @return Value of the field.
+     * @see #read(Object, int)
+     */
+    public long readLong(Object target, int fieldIndex) throws FieldAccessException {
+        return this.requireFieldAccessor(target, fieldIndex).getLong(target);
+    }
+
+    /**
+     * Writes the value of a field of the given target, given its index.
+     *
+     * @param target     - the object to write to, an instance of the target type.
+     * @param fieldIndex - index of the field.
+     * @param value      - new value of the field.
+     * @return This structure modifier - for chaining.
+     * @see #write(Object, int, Object)
+     */
+    public LongStructureModifier writeLong(Object target, int fieldIndex, long value) throws FieldAccessException {
+        this.requireFieldAccessor(target, fieldIndex).setLong(target, value);
+        return this;
+    }
+
+    @Override
+    public LongStructureModifier withTarget(Object target) {
+        return this.withTarget(new LongStructureModifier(this), target);
+    }
+}
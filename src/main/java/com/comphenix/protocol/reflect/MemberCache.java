@@ -0,0 +1,231 @@
+package com.comphenix.protocol.reflect;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import com.comphenix.protocol.reflect.fuzzy.AbstractFuzzyMatcher;
+import com.comphenix.protocol.reflect.fuzzy.AbstractFuzzyMember;
+
+/**
+ * The reflected members of a class, shared by every {@link FuzzyReflection} of the class.
+ * <p>
+ * {@link Class#getDeclaredFields()} and friends copy every member on each call, which adds up when the same classes are
+ * searched over and over. The members are retrieved once here instead, and must never be handed out without copying
+ * the arrays.
+ */
+final class MemberCache {
+
+    // the most contracts whose results are kept per class, so contracts built from changing values can't pile up
+    private static final int MAX_MATCHES = 256;
+
+    private static final ClassValue<MemberCache> CACHE = new ClassValue<MemberCache>() {
+        @Override
+        protected MemberCache computeValue(Class<?> type) {
+            return new MemberCache(type);
+        }
+    };
+
+    private final Class<?> type;
+
+    // the shared fuzzy reflection instances
+    final FuzzyReflection publicReflection;
+    final FuzzyReflection forcedReflection;
+
+    // lazily retrieved, a race only retrieves them twice
+    private volatile Field[] declaredFields;
+    private volatile Field[] fields;
+    private volatile Field[] accessibleFields;
+    private volatile Method[] methods;
+    private volatile Method[] accessibleMethods;
+    private volatile MethodInfo[] methodInfos;
+    private volatile MethodInfo[] accessibleMethodInfos;
+    private volatile Constructor<?>[] constructors;
+    private volatile Constructor<?>[] declaredConstructors;
+    private volatile MethodInfo[] constructorInfos;
+    private volatile MethodInfo[] declaredConstructorInfos;
+
+    // the results of immutable contracts
+    private final ConcurrentMap<List<Object>, List<?>> matches = new ConcurrentHashMap<>();
+
+    private MemberCache(Class<?> type) {
+        this.type = type;
+        this.publicReflection = new FuzzyReflection(type, false);
+        this.forcedReflection = new FuzzyReflection(type, true);
+    }
+
+    /**
+     * Retrieve the member cache of the given class.
+     *
+     * @param type - the class.
+     * @return The member cache.
+     */
+    static MemberCache of(Class<?> type) {
+        return CACHE.get(type);
+    }
+
+    /**
+     * Retrieve the fields declared by the class itself.
+     *
+     * @return The declared fields, not to be modified.
+     */
+    Field[] getDeclaredFields() {
+        Field[] result = this.declaredFields;
+        if (result == null) {
+            this.declaredFields = result = this.type.getDeclaredFields();
+        }
+        return result;
+    }
+
+    /**
+     * Retrieve the fields visible to a fuzzy reflection, in the same order as {@link FuzzyReflection#getFields()}.
+     *
+     * @param forceAccess - whether to include the non-public fields declared by the class.
+     * @return The fields, not to be modified.
+     */
+    Field[] getFields(boolean forceAccess) {
+        if (forceAccess) {
+            Field[] result = this.accessibleFields;
+            if (result == null) {
+                this.accessibleFields = result = FuzzyReflection.combineArrays(this.getDeclaredFields(), this.getFields(false))
+                        .toArray(new Field[0]);
+            }
+            return result;
+        }
+
+        Field[] result = this.fields;
+        if (result == null) {
+            this.fields = result = this.type.getFields();
+        }
+        return result;
+    }
+
+    /**
+     * Retrieve the methods visible to a fuzzy reflection, in the same order as {@link FuzzyReflection#getMethods()}.
+     *
+     * @param forceAccess - whether to include the non-public methods declared by the class.
+     * @return The methods, not to be modified.
+     */
+    Method[] getMethods(boolean forceAccess) {
+        if (forceAccess) {
+            Method[] result = this.accessibleMethods;
+            if (result == null) {
+                this.accessibleMethods = result = FuzzyReflection.combineArrays(this.type.getDeclaredMethods(), this.getMethods(false))
+                        .toArray(new Method[0]);
+            }
+            return result;
+        }
+
+        Method[] result = this.methods;
+        if (result == null) {
+            this.methods = result = this.type.getMethods();
+        }
+        return result;
+    }
+
+    /**
+     * Retrieve the methods of {@link #getMethods(boolean)} as method infos.
+     *
+     * @param forceAccess - whether to include the non-public methods declared by the class.
+     * @return The method infos, not to be modified.
+     */
+    MethodInfo[] getMethodInfos(boolean forceAccess) {
+        MethodInfo[] result = forceAccess ? this.accessibleMethodInfos : this.methodInfos;
+        if (result == null) {
+            Method[] methods = this.getMethods(forceAccess);
+            result = new MethodInfo[methods.length];
+            for (int i = 0; i < methods.length; i++) {
+                result[i] = MethodInfo.fromMethod(methods[i]);
+            }
+
+            if (forceAccess) {
+                this.accessibleMethodInfos = result;
+            } else {
+                this.methodInfos = result;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Retrieve the constructors visible to a fuzzy reflection.
+     *
+     * @param forceAccess - whether to include the non-public constructors.
+     * @return The constructors, not to be modified.
+     */
+    Constructor<?>[] getConstructors(boolean forceAccess) {
+        if (forceAccess) {
+            Constructor<?>[] result = this.declaredConstructors;
+            if (result == null) {
+                this.declaredConstructors = result = this.type.getDeclaredConstructors();
+            }
+            return result;
+        }
+
+        Constructor<?>[] result = this.constructors;
+        if (result == null) {
+            this.constructors = result = this.type.getConstructors();
+        }
+        return result;
+    }
+
+    /**
+     * Retrieve the constructors of {@link #getConstructors(boolean)} as method infos.
+     *
+     * @param forceAccess - whether to include the non-public constructors.
+     * @return The method infos, not to be modified.
+     */
+    MethodInfo[] getConstructorInfos(boolean forceAccess) {
+        MethodInfo[] result = forceAccess ? this.declaredConstructorInfos : this.constructorInfos;
+        if (result == null) {
+            Constructor<?>[] constructors = this.getConstructors(forceAccess);
+            result = new MethodInfo[constructors.length];
+            for (int i = 0; i < constructors.length; i++) {
+                result[i] = MethodInfo.fromConstructor(constructors[i]);
+            }
+
+            if (forceAccess) {
+                this.declaredConstructorInfos = result;
+            } else {
+                this.constructorInfos = result;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Retrieve the members matched by a contract, searching for them on the first call.
+     * <p>
+     * The results are only kept if the contract is {@link AbstractFuzzyMember#isCacheable() cacheable}, and only for
+     * the first {@value #MAX_MATCHES} contracts of the class. Other contracts search again on every call.
+     *
+     * @param <T>         - the type of the members.
+     * @param kind        - the kind of members.
+     * @param forceAccess - whether non-public members are included.
+     * @param contract    - the contract.
+     * @param search      - searches for the members.
+     * @return The matched members, not to be modified.
+     */
+    @SuppressWarnings("unchecked")
+    <T> List<T> getMatches(String kind, boolean forceAccess, AbstractFuzzyMatcher<?> contract, Supplier<List<T>> search) {
+        if (!(contract instanceof AbstractFuzzyMember) || !((AbstractFuzzyMember<?>) contract).isCacheable()) {
+            return Collections.unmodifiableList(search.get());
+        }
+
+        List<Object> key = Arrays.asList(kind, forceAccess, contract);
+        List<?> result = this.matches.get(key);
+        if (result == null) {
+            result = Collections.unmodifiableList(search.get());
+            if (this.matches.size() < MAX_MATCHES) {
+                this.matches.putIfAbsent(key, result);
+            }
+        }
+        return (List<T>) result;
+    }
+}
@@ -0,0 +1,81 @@
+package com.comphenix.protocol.reflect;
+
+/**
+ * Provides list-oriented access to the fields of a primitive type in a Minecraft packet, without boxing their values.
+ * <p>
+ * Subclasses add typed methods such as {@link IntStructureModifier#readInt(int)}, which pass the values directly to the
+ * primitive methods of the field accessors. The inherited methods keep working with boxed values.
+ * <p>
+ * Structure modifiers of a primitive field type are always created as the matching subclass, so casting the result of
+ * {@code withType(int.class)} to {@link IntStructureModifier} is safe as long as no converter is given.
+ *
+ * @param <T> Boxed type of the fields.
+ */
+public abstract class PrimitiveStructureModifier<T> extends StructureModifier<T> {
+
+    /**
+     * Creates a primitive view of a structure modifier, sharing its fields and target.
+     *
+     * @param modifier      - the structure modifier of every field of the primitive type.
+     * @param primitiveType - the primitive type of the fields.
+     * @throws IllegalArgumentException If the modifier is not a modifier of the primitive type, or has a converter.
+     */
+    protected PrimitiveStructureModifier(StructureModifier<T> modifier, Class<?> primitiveType) {
+        if (modifier.getFieldType() != primitiveType) {
+            throw new IllegalArgumentException(
+                    "Expected a modifier of " + primitiveType + " fields, got " + modifier.getFieldType());
+        }
+        if (modifier.converter != null) {
+            throw new IllegalArgumentException("Cannot create a primitive view of a modifier with a converter.");
+        }
+
+        this.initialize(modifier);
+        this.target = modifier.target;
+        this.copyOnWrite = modifier.copyOnWrite;
+    }
+
+    /**
+     * Creates the primitive view of the given structure modifier, if it is a modifier of a primitive field type.
+     *
+     * @param modifier - the structure modifier, without a converter.
+     * @return The primitive view, or the given modifier if its field type is not primitive.
+     */
+    @SuppressWarnings("unchecked")
+    static StructureModifier<?> of(StructureModifier<?> modifier) {
+        Class<?> fieldType = modifier.getFieldType();
+
+        if (fieldType == boolean.class) {
+            return new BooleanStructureModifier((StructureModifier<Boolean>) modifier);
+        } else if (fieldType == byte.class) {
+            return new ByteStructureModifier((StructureModifier<Byte>) modifier);
+        } else if (fieldType == short.class) {
+            return new ShortStructureModifier((StructureModifier<Short>) modifier);
+        } else if (fieldType == int.class) {
+            return new IntStructureModifier((StructureModifier<Integer>) modifier);
+        } else if (fieldType == long.class) {
+            return new LongStructureModifier((StructureModifier<Long>) modifier);
+        } else if (fieldType == float.class) {
+            return new FloatStructureModifier((StructureModifier<Float>) modifier);
+        } else if (fieldType == double.class) {
+            return new DoubleStructureModifier((StructureModifier<Double>) modifier);
+        }
+        return modifier;
+    }
+
+    /**
+     * Point a copy of this modifier at a different target.
+     *
+     * @param <M>    Type of the copy.
+     * @param copy   - a copy of this modifier.
+     * @param target - the new target.
+     * @return The copy.
+     */
+    protected <M extends PrimitiveStructureModifier<T>> M withTarget(M copy, Object target) {
+        copy.target = target;
+        copy.copyOnWrite = null;
+        return copy;
+    }
+
+    @Override
+    public abstract PrimitiveStructureModifier<T> withTarget(Object target);
+}
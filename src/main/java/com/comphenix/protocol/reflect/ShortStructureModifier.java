@@ -0,0 +1,73 @@
+package com.comphenix.protocol.reflect;
+
+/**
+ * Provides list-oriented access to the short fields of a Minecraft packet, without boxing their values.
+ *
+ * @see PrimitiveStructureModifier
+ */
+public class ShortStructureModifier extends PrimitiveStructureModifier<Short> {
+
+    /**
+     * Creates a primitive view of a structure modifier for short fields, sharing its fields and target.
+     *
+     * @param modifier - the structure modifier of every short field.
+     */
+    public ShortStructureModifier(StructureModifier<Short> modifier) {
+        super(modifier, short.class);
+    }
+
+    /**
+     * Reads the value of a field given its index.
+     *
+     * @param fieldIndex - index of the field.
+     * @return Value of the field.
+     * @see #read(int)
+     */
+    public short readShort(int fieldIndex) throws FieldAccessException {
+        return this.requireFieldAccessor(fieldIndex).getShort(this.currentTarget());
+    }
+
+    /**
+     * Writes the value of a field given its index.
+     *
+     * @param fieldIndex - index of the field.
+     * @param value      - new value of the field.
+     * @return This structure modifier - for chaining.
+     * @see #write(int, Object)
+     */
+    public ShortStructureModifier writeShort(int fieldIndex, short value) throws FieldAccessException {
+        this.requireFieldAccessor(fieldIndex).setShort(this.writableTarget(), value);
+        return this;
+    }
+
+    /**
+     * Reads the value of a field of the given target, given its index.
+     *
+     * @param target     - the object to read from, an instance of the target type.
+     * @param fieldIndex - index of the field.
+     * @return Value of the field.
+     * @see #read(Object, int)
+     */
+    public short readShort(Object target, int fieldIndex) throws FieldAccessException {
+        return this.requireFieldAccessor(target, fieldIndex).getShort(target);
+    }
+
+    /**
+     * Writes the value of a field of the given target, given its index.
+     *
+     * @param target     - the object to write to, an instance of the target type.
+     * @param fieldIndex - index of the field.
+     * @param value      - new value of the field.
+     * @return This structure modifier - for chaining.
+     * @see #write(Object, int, Object)
+     */
+    public ShortStructureModifier writeShort(Object target, int fieldIndex, short value) throws FieldAccessException {
+        this.requireFieldAccessor(target, fieldIndex).setShort(target, value);
+        return this;
+    }
+
+    @Override
+    public ShortStructureModifier withTarget(Object target) {
+        return this.withTarget(new ShortStructureModifier(this), target);
+    }
+}
@@ -23,17 +23,15 @@ import com.comphenix.protocol.reflect.instances.BannedGenerator;
 import com.comphenix.protocol.reflect.instances.DefaultInstances;
 import com.comphenix.protocol.reflect.instances.InstanceProvider;
 import com.comphenix.protocol.utility.MinecraftReflection;
-import com.google.common.collect.HashBasedTable;
-import com.google.common.collect.Table;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 
-import java.lang.ref.Reference;
-import java.lang.ref.SoftReference;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
@@ -61,6 +59,16 @@ public class StructureModifier<T> {
             return this;
         }
 
+        @Override
+        public Object read(Object target, int fieldIndex) throws FieldAccessException {
+            return null;
+        }
+
+        @Override
+        public StructureModifier<Object> write(Object target, int fieldIndex, Object value) throws FieldAccessException {
+            return this;
+        }
+
         @Override
         protected FieldAccessor findFieldAccessor(int fieldIndex) {
             return null;
@@ -71,6 +79,9 @@ public class StructureModifier<T> {
     protected Object target;
     protected Class<?> targetType;
 
+    // Shares the target with other modifiers until it is first written to, or NULL
+    protected CopyOnWriteTarget copyOnWrite;
+
     // The fields to read in order
     protected Class<?> fieldType;
     protected List<FieldAccessor> accessors = new ArrayList<>();
@@ -80,8 +91,10 @@ public class StructureModifier<T> {
 
     // Improved default values
     protected Map<FieldAccessor, Integer> defaultFields;
-    // Cache of previous types
+    // Cache of previous types, shared by every copy of this modifier
     protected Map<Class<?>, StructureModifier<?>> subtypeCache;
+    // Cache of previous types with type parameters, keyed by the field type followed by the type parameters
+    protected Map<List<Class<?>>, StructureModifier<?>> parameterizedSubtypeCache;
 
     // Whether or subclasses should handle conversion
     protected boolean customConvertHandling;
@@ -107,10 +120,11 @@ public class StructureModifier<T> {
             Class<?> superclassExclude,
             boolean requireDefault
     ) {
-        List<FieldAccessor> fields = getFields(targetType, superclassExclude);
-        Map<FieldAccessor, Integer> defaults = requireDefault ? generateDefaultFields(fields) : new Object2ObjectOpenHashMap<>();
+        FieldLayout layout = getFieldLayout(targetType, superclassExclude);
+        Map<FieldAccessor, Integer> defaults = requireDefault ? layout.getDefaultFields() : new Object2ObjectOpenHashMap<>();
 
-        this.initialize(targetType, Object.class, fields, defaults, null, new Object2ObjectOpenHashMap<>());
+        this.initialize(targetType, Object.class, layout.accessors, defaults, null, new ConcurrentHashMap<>());
+        this.parameterizedSubtypeCache = new ConcurrentHashMap<>();
     }
 
     /**
@@ -150,34 +164,46 @@ public class StructureModifier<T> {
         return requireDefaults;
     }
 
-    // Used to filter out irrelevant fields
-    private static final ThreadLocal<Table<Class<?>, Class<?>, Reference<List<FieldAccessor>>>>
-        fieldCacheLocal = ThreadLocal.withInitial(HashBasedTable::create);
+    // Field layouts of every class, by the excluded superclass
+    private static final ClassValue<ConcurrentMap<Class<?>, FieldLayout>> FIELD_LAYOUTS =
+            new ClassValue<ConcurrentMap<Class<?>, FieldLayout>>() {
+                @Override
+                protected ConcurrentMap<Class<?>, FieldLayout> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>(2);
+                }
+            };
     private static final Class<?> NULL_CACHE_CLASS_REPLACEMENT = Void.class;
 
+    // Field types that are looked up for nearly every packet
+    private static final Class<?>[] PRECOMPUTED_TYPES = {
+            boolean.class, byte.class, short.class, int.class, long.class, float.class, double.class, String.class
+    };
+
     // Used to filter out irrelevant fields
-    private static List<FieldAccessor> getFields(Class<?> type, Class<?> superclassExclude) {
+    private static FieldLayout getFieldLayout(Class<?> type, Class<?> superclassExclude) {
         if (type == null) {
             throw new IllegalArgumentException("Type cannot be NULL.");
         }
-        Table<Class<?>, Class<?>, Reference<List<FieldAccessor>>> fieldCache = fieldCacheLocal.get();
+
+        ConcurrentMap<Class<?>, FieldLayout> layouts = FIELD_LAYOUTS.get(type);
         Class<?> superclassKey = superclassExclude == null ? NULL_CACHE_CLASS_REPLACEMENT : superclassExclude;
-        Reference<List<FieldAccessor>> cacheEntryReference = fieldCache.get(type, superclassKey);
-        if (cacheEntryReference != null) {
-            List<FieldAccessor> cacheEntry = cacheEntryReference.get();
-            if (cacheEntry != null) {
-                return cacheEntry;
+
+        FieldLayout layout = layouts.get(superclassKey);
+        if (layout == null) {
+            List<FieldAccessor> accessors = FuzzyReflection.fromClass(type, true)
+                .getDeclaredFields(superclassExclude)
+                .stream()
+                .filter(field -> !Modifier.isStatic(field.getModifiers()))
+                .map(Accessors::getFieldAccessor)
+                .collect(Collectors.toList());
+
+            // computing the layout twice is harmless, but only one of them should be kept
+            FieldLayout existing = layouts.putIfAbsent(superclassKey, layout = new FieldLayout(accessors));
+            if (existing != null) {
+                layout = existing;
             }
         }
-        List<FieldAccessor> accessors = FuzzyReflection.fromClass(type, true)
-            .getDeclaredFields(superclassExclude)
-            .stream()
-            .filter(field -> !Modifier.isStatic(field.getModifiers()))
-            .map(Accessors::getFieldAccessor)
-            .collect(Collectors.toList());
-        fieldCache.put(type, superclassKey, new SoftReference<>(accessors));
-        fieldCache.cellSet().removeIf(entry -> entry.getValue().get() == null);
-        return accessors;
+        return layout;
     }
 
     /**
@@ -193,6 +219,7 @@ public class StructureModifier<T> {
                 other.defaultFields,
                 other.converter,
                 other.subtypeCache);
+        this.parameterizedSubtypeCache = other.parameterizedSubtypeCache;
     }
 
     /**
@@ -234,15 +261,24 @@ public class StructureModifier<T> {
      * @throws IllegalStateException if this modifier has no target set.
      */
     public T read(int fieldIndex) throws FieldAccessException {
-        FieldAccessor accessor = this.findFieldAccessor(fieldIndex);
-        if (accessor == null) {
-            throw FieldAccessException.fromFormat(
-                    "Field index %d is out of bounds for length %s",
-                    fieldIndex,
-                    this.accessors.size());
-        }
+        return this.readInternal(this.currentTarget(), this.requireFieldAccessor(fieldIndex));
+    }
 
-        return this.readInternal(accessor);
+    /**
+     * Reads the value of a field of the given target, given its index.
+     * <p>
+     * Unlike {@link #read(int)}, this method ignores the target of this modifier. A single modifier without a target
+     * can therefore be shared and used to read the fields of any object of the target type, without allocating a new
+     * modifier for every object.
+     *
+     * @param target     - the object to read from, an instance of the target type.
+     * @param fieldIndex - index of the field.
+     * @return Value of the field.
+     * @throws FieldAccessException     if the given field index is out of bounds.
+     * @throws IllegalArgumentException if the target is NULL or not an instance of the target type.
+     */
+    public T read(Object target, int fieldIndex) throws FieldAccessException {
+        return this.readInternal(target, this.requireFieldAccessor(target, fieldIndex));
     }
 
     /**
@@ -266,7 +302,7 @@ public class StructureModifier<T> {
      * @throws IllegalStateException if this modifier has no target set.
      */
     public T readSafely(int fieldIndex) throws FieldAccessException {
-        return this.readInternal(this.findFieldAccessor(fieldIndex));
+        return this.readInternal(this.currentTarget(), this.findFieldAccessor(fieldIndex));
     }
 
     /**
@@ -284,14 +320,14 @@ public class StructureModifier<T> {
     }
 
     @SuppressWarnings("unchecked")
-    private T readInternal(FieldAccessor accessor) {
+    private T readInternal(Object target, FieldAccessor accessor) {
         // just return null if the accessor is null
         if (accessor == null) {
             return null;
         }
 
         // get the field value and convert it if needed
-        Object fieldValue = accessor.get(this.target);
+        Object fieldValue = accessor.get(target);
         return this.needConversion() ? this.converter.getSpecific(fieldValue) : (T) fieldValue;
     }
 
@@ -305,15 +341,25 @@ public class StructureModifier<T> {
      *                              contraints.
      */
     public StructureModifier<T> write(int fieldIndex, T value) throws FieldAccessException {
-        FieldAccessor accessor = this.findFieldAccessor(fieldIndex);
-        if (accessor == null) {
-            throw FieldAccessException.fromFormat(
-                    "Field index %d is out of bounds for length %s",
-                    fieldIndex,
-                    this.accessors.size());
-        }
+        FieldAccessor accessor = this.requireFieldAccessor(fieldIndex);
+        return this.writeInternal(this.writableTarget(), accessor, value);
+    }
 
-        return this.writeInternal(accessor, value);
+    /**
+     * Writes the value of a field of the given target, given its index.
+     * <p>
+     * Unlike {@link #write(int, Object)}, this method ignores the target of this modifier.
+     *
+     * @param target     - the object to write to, an instance of the target type.
+     * @param fieldIndex - index of the field.
+     * @param value      - new value of the field.
+     * @return This structure modifier - for chaining.
+     * @throws FieldAccessException     if the given field index is out of bounds.
+     * @throws IllegalArgumentException if the target is NULL or not an instance of the target type.
+     * @see #read(Object, int)
+     */
+    public StructureModifier<T> write(Object target, int fieldIndex, T value) throws FieldAccessException {
+        return this.writeInternal(target, this.requireFieldAccessor(target, fieldIndex), value);
     }
 
     /**
@@ -326,7 +372,11 @@ public class StructureModifier<T> {
      */
     public StructureModifier<T> writeSafely(int fieldIndex, T value) throws FieldAccessException {
         FieldAccessor accessor = this.findFieldAccessor(fieldIndex);
-        return this.writeInternal(accessor, value);
+        if (accessor == null) {
+            // don't copy a shared target for nothing
+            return this;
+        }
+        return this.writeInternal(this.writableTarget(), accessor, value);
     }
 
     /**
@@ -342,7 +392,7 @@ public class StructureModifier<T> {
         return this.write(fieldIndex, select.apply(value));
     }
 
-    private StructureModifier<T> writeInternal(FieldAccessor accessor, T value) throws FieldAccessException {
+    private StructureModifier<T> writeInternal(Object target, FieldAccessor accessor, T value) throws FieldAccessException {
         // just ignore if the accessor is not present
         if (accessor == null) {
             return this;
@@ -350,11 +400,56 @@ public class StructureModifier<T> {
 
         // convert and write
         Object fieldValue = this.needConversion() ? this.converter.getGeneric(value) : value;
-        accessor.set(this.target, fieldValue);
+        accessor.set(target, fieldValue);
 
         return this;
     }
 
+    /**
+     * Retrieve the accessor of a field given its index.
+     *
+     * @param fieldIndex - index of the field.
+     * @return The field accessor.
+     * @throws FieldAccessException  if the given field index is out of bounds.
+     * @throws IllegalStateException if this modifier has no target set.
+     */
+    protected FieldAccessor requireFieldAccessor(int fieldIndex) throws FieldAccessException {
+        FieldAccessor accessor = this.findFieldAccessor(fieldIndex);
+        if (accessor == null) {
+            throw FieldAccessException.fromFormat(
+                    "Field index %d is out of bounds for length %s",
+                    fieldIndex,
+                    this.accessors.size());
+        }
+
+        return accessor;
+    }
+
+    /**
+     * Retrieve the accessor of a field of the given target, given its index.
+     *
+     * @param target     - the object the field will be accessed on.
+     * @param fieldIndex - index of the field.
+     * @return The field accessor.
+     * @throws FieldAccessException     if the given field index is out of bounds.
+     * @throws IllegalArgumentException if the target is NULL or not an instance of the target type.
+     */
+    protected FieldAccessor requireFieldAccessor(Object target, int fieldIndex) throws FieldAccessException {
+        // some accessors don't check the type of the target themselves
+        if (!this.targetType.isInstance(target)) {
+            throw new IllegalArgumentException("Expected a target of type " + this.targetType + ", got " + target);
+        }
+
+        if (fieldIndex < 0 || fieldIndex >= this.accessors.size()) {
+            throw FieldAccessException.fromFormat(
+                    "Field index %d is out of bounds for length %s",
+                    fieldIndex,
+                    this.accessors.size());
+        }
+
+        return this.accessors.get(fieldIndex);
+    }
+
     protected FieldAccessor findFieldAccessor(int fieldIndex) {
         if (this.target == null) {
             throw new IllegalStateException("Cannot read from modifier which has no target!");
@@ -384,19 +479,21 @@ public class StructureModifier<T> {
      * @throws FieldAccessException If we're unable to write to the fields due to a security limitation.
      */
     public StructureModifier<T> writeDefaults() throws FieldAccessException {
+        Object target = this.writableTarget();
+
         // Write a default instance to every field
         for (FieldAccessor accessor : this.defaultFields.keySet()) {
             // Special case for Spigot's custom chat components
             // They must be null or messages will be blank
             Field field = accessor.getField();
             if (field.getType().getCanonicalName().equals("net.md_5.bungee.api.chat.BaseComponent[]")) {
-                accessor.set(this.target, null);
+                accessor.set(target, null);
                 continue;
             }
 
             // get the default value and write the field
             Object defaultValue = DEFAULT_GENERATOR.getDefault(field.getType());
-            accessor.set(this.target, defaultValue);
+            accessor.set(target, defaultValue);
         }
 
         return this;
@@ -426,7 +523,7 @@ public class StructureModifier<T> {
      * @return Object we're modifying.
      */
     public Object getTarget() {
-        return this.target;
+        return this.currentTarget();
     }
 
     /**
@@ -483,6 +580,8 @@ public class StructureModifier<T> {
 
     /**
      * Retrieves a structure modifier that only reads and writes fields of a given type.
+     * <p>
+     * For a primitive field type, this is the matching {@link PrimitiveStructureModifier}.
      *
      * @param <R>       Type
      * @param fieldType - the type, or supertype, of every field to modify.
@@ -524,54 +623,114 @@ public class StructureModifier<T> {
             return (StructureModifier<R>) NO_OP_MODIFIER;
         }
 
-        // Do we need to update the cache?
-        StructureModifier<R> result = (StructureModifier<R>) this.subtypeCache.get(fieldType);
-        if (result == null) {
-            List<FieldAccessor> fields = new ArrayList<>();
-            Map<FieldAccessor, Integer> defaults = new Object2ObjectOpenHashMap<>();
+        StructureModifier<R> subtype = (StructureModifier<R>) this.getSubtype(fieldType, paramTypes);
 
-            // filter out all fields we don't need
-            for (int i = 0; i < this.accessors.size(); i++) {
-                FieldAccessor accessor = this.accessors.get(i);
-                Field field = accessor.getField();
+        // Add the target too
+        StructureModifier<R> result;
+        if (converter == null) {
+            result = subtype.withTarget(this.target);
+        } else {
+            // the primitive modifiers would bypass the converter
+            result = new StructureModifier<>();
+            result.initialize(subtype);
+            result.target = this.target;
+            result.converter = converter;
+        }
+        result.copyOnWrite = this.copyOnWrite;
 
-                // check if the field type matches
-                if (!fieldType.isAssignableFrom(field.getType())) {
-                    continue;
+        return result;
+    }
+
+    /**
+     * Build the structure modifiers of the primitive types, strings and the type of every field ahead of time.
+     * <p>
+     * Modifiers of other types are still created on first use.
+     */
+    public void precomputeSubtypes() {
+        for (Class<?> primitive : PRECOMPUTED_TYPES) {
+            this.getSubtype(primitive);
+        }
+        for (FieldAccessor accessor : this.accessors) {
+            this.getSubtype(accessor.getField().getType());
+        }
+    }
+
+    /**
+     * Retrieve the cached structure modifier of the given field type, without a target or converter.
+     * <p>
+     * Modifiers are cached in concurrent maps shared by every copy of this modifier. Once created, a lookup never locks
+     * or mutates the maps. Concurrent first lookups might filter the fields more than once, but all of them end up
+     * with the same modifier.
+     *
+     * @param fieldType  - the type, or supertype, of every field to modify.
+     * @param paramTypes - field type parameters.
+     * @return The cached structure modifier.
+     */
+    private StructureModifier<?> getSubtype(Class<?> fieldType, Class<?>... paramTypes) {
+        if (paramTypes.length == 0) {
+            StructureModifier<?> result = this.subtypeCache.get(fieldType);
+            if (result == null) {
+                result = this.filterFieldType(fieldType, paramTypes);
+
+                StructureModifier<?> existing = this.subtypeCache.putIfAbsent(fieldType, result);
+                if (existing != null) {
+                    result = existing;
                 }
+            }
+            return result;
+        }
+
+        // subclasses might not provide this cache
+        if (this.parameterizedSubtypeCache == null) {
+            return this.filterFieldType(fieldType, paramTypes);
+        }
+
+        Class<?>[] key = new Class<?>[paramTypes.length + 1];
+        key[0] = fieldType;
+        System.arraycopy(paramTypes, 0, key, 1, paramTypes.length);
+
+        return this.parameterizedSubtypeCache.computeIfAbsent(
+                Arrays.asList(key),
+                k -> this.filterFieldType(fieldType, paramTypes));
+    }
+
+    private StructureModifier<?> filterFieldType(Class<?> fieldType, Class<?>... paramTypes) {
+        List<FieldAccessor> fields = new ArrayList<>();
+        Map<FieldAccessor, Integer> defaults = new Object2ObjectOpenHashMap<>();
+
+        // filter out all fields we don't need
+        for (int i = 0; i < this.accessors.size(); i++) {
+            FieldAccessor accessor = this.accessors.get(i);
+            Field field = accessor.getField();
+
+            // check if the field type matches
+            if (!fieldType.isAssignableFrom(field.getType())) {
+                continue;
+            }
 
-                // check if we need to check for parameters
-                if (paramTypes.length > 0) {
-                    // check if the field is parameterized
-                    Type generic = field.getGenericType();
-                    if (!(generic instanceof ParameterizedType)) {
-                        continue;
-                    }
-
-                    // check if the type arguments of the field are matching
-                    ParameterizedType parameterized = (ParameterizedType) generic;
-                    if (!Arrays.equals(parameterized.getActualTypeArguments(), paramTypes)) {
-                        continue;
-                    }
+            // check if we need to check for parameters
+            if (paramTypes.length > 0) {
+                // check if the field is parameterized
+                Type generic = field.getGenericType();
+                if (!(generic instanceof ParameterizedType)) {
+                    continue;
                 }
 
-                // this field should be included
-                fields.add(accessor);
-                if (this.defaultFields.containsKey(accessor)) {
-                    defaults.put(accessor, i);
+                // check if the type arguments of the field are matching
+                ParameterizedType parameterized = (ParameterizedType) generic;
+                if (!Arrays.equals(parameterized.getActualTypeArguments(), paramTypes)) {
+                    continue;
                 }
             }
 
-            // Cache structure modifiers
-            result = this.withFieldType(fieldType, fields, defaults);
-            this.subtypeCache.put(fieldType, result);
+            // this field should be included
+            fields.add(accessor);
+            if (this.defaultFields.containsKey(accessor)) {
+                defaults.put(accessor, i);
+            }
         }
 
-        // Add the target too
-        result = result.withTarget(this.target);
-        result.converter = converter;
-
-        return result;
+        return this.withFieldType(fieldType, fields, defaults);
     }
 
     /**
@@ -601,7 +760,7 @@ public class StructureModifier<T> {
      * @param converter - the new converter, or NULL.
      * @return A new structure modifier.
      */
-    @SuppressWarnings("SameParameterValue") // api method, maybe someone needs it
+    @SuppressWarnings({"SameParameterValue", "unchecked"}) // api method, maybe someone needs it
     protected <V> StructureModifier<V> withFieldType(
             Class<?> fieldType,
             List<FieldAccessor> filtered,
@@ -615,8 +774,11 @@ public class StructureModifier<T> {
                 filtered,
                 defaults,
                 converter,
-                new Object2ObjectOpenHashMap<>());
-        return result;
+                new ConcurrentHashMap<>());
+        result.parameterizedSubtypeCache = new ConcurrentHashMap<>();
+
+        // primitive fields are accessed through the matching primitive modifier, converters need boxed values
+        return converter == null ? (StructureModifier<V>) PrimitiveStructureModifier.of(result) : result;
     }
 
     /**
@@ -634,6 +796,37 @@ public class StructureModifier<T> {
         return copy;
     }
 
+    /**
+     * Retrieves a structure modifier of the same type for a target that is shared with other modifiers until it is
+     * first written to. Every modifier derived from the returned modifier shares the same target.
+     *
+     * @param target - the shared target, which must be of the same type.
+     * @return Structure modifier with the new target.
+     */
+    public StructureModifier<T> withCopyOnWrite(CopyOnWriteTarget target) {
+        StructureModifier<T> copy = this.withTarget(target.get());
+        copy.copyOnWrite = target;
+        return copy;
+    }
+
+    /**
+     * Retrieve the object to read from.
+     *
+     * @return The current target.
+     */
+    protected Object currentTarget() {
+        return this.copyOnWrite != null ? this.copyOnWrite.get() : this.target;
+    }
+
+    /**
+     * Retrieve the object to write to, which copies a shared target on the first write.
+     *
+     * @return The target to write to.
+     */
+    protected Object writableTarget() {
+        return this.copyOnWrite != null ? this.copyOnWrite.getForWrite() : this.target;
+    }
+
     /**
      * Retrieves a structure modifier with the same type and target, but using a new object converter.
      *
@@ -643,6 +836,7 @@ public class StructureModifier<T> {
     @SuppressWarnings("unchecked")
     private <V> StructureModifier<V> withConverter(EquivalentConverter<V> converter) {
         StructureModifier<V> copy = (StructureModifier<V>) this.withTarget(this.target);
+        copy.copyOnWrite = this.copyOnWrite;
         copy.setConverter(converter);
         return copy;
     }
@@ -660,4 +854,27 @@ public class StructureModifier<T> {
     public String toString() {
         return "StructureModifier[fieldType=" + this.fieldType + ", data=" + this.accessors + "]";
     }
+
+    /**
+     * The accessors of every instance field of a class, shared by every thread.
+     */
+    private static final class FieldLayout {
+
+        private final List<FieldAccessor> accessors;
+
+        // generated when first needed, as not every modifier writes default values
+        private volatile Map<FieldAccessor, Integer> defaultFields;
+
+        private FieldLayout(List<FieldAccessor> accessors) {
+            this.accessors = Collections.unmodifiableList(accessors);
+        }
+
+        private Map<FieldAccessor, Integer> getDefaultFields() {
+            Map<FieldAccessor, Integer> defaults = this.defaultFields;
+            if (defaults == null) {
+                this.defaultFields = defaults = Collections.unmodifiableMap(generateDefaultFields(this.accessors));
+            }
+            return defaults;
+        }
+    }
 }
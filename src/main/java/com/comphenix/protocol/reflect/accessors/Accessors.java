@@ -78,6 +78,10 @@ public final class Accessors {
 
     /**
      * Retrieve a field accessor from a given field that uses unchecked exceptions.
+     * <p>
+     * Fields of Minecraft classes are accessed with Unsafe if possible. Other fields, and fields that Unsafe cannot
+     * access (such as those of records and hidden classes), use a generated accessor if these were measured to be faster
+     * than method handles on this JVM, and method handles otherwise.
      *
      * @param field - the field.
      * @return The field accessor.
@@ -91,6 +95,13 @@ public final class Accessors {
             }
         }
 
+        if (GeneratedFieldAccessor.isPreferred()) {
+            FieldAccessor generated = GeneratedFieldAccessor.create(field);
+            if (generated != null) {
+                return generated;
+            }
+        }
+
         return MethodHandleHelper.getFieldAccessor(field);
     }
 
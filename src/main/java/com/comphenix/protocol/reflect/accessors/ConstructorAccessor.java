@@ -12,6 +12,56 @@ public interface ConstructorAccessor {
      */
     Object invoke(Object... args);
 
+    /**
+     * Invoke the underlying constructor without any arguments.
+     * <p>
+     * Unlike {@link #invoke(Object...)}, this does not allocate an argument array.
+     *
+     * @return The new instance.
+     */
+    default Object invoke0() {
+        return this.invoke();
+    }
+
+    /**
+     * Invoke the underlying constructor with a single argument.
+     * <p>
+     * Unlike {@link #invoke(Object...)}, this does not allocate an argument array.
+     *
+     * @param arg0 - the first argument.
+     * @return The new instance.
+     */
+    default Object invoke1(Object arg0) {
+        return this.invoke(arg0);
+    }
+
+    /**
+     * Invoke the underlying constructor with two arguments.
+     * <p>
+     * Unlike {@link #invoke(Object...)}, this does not allocate an argument array.
+     *
+     * @param arg0 - the first argument.
+     * @param arg1 - the second argument.
+     * @return The new instance.
+     */
+    default Object invoke2(Object arg0, Object arg1) {
+        return this.invoke(arg0, arg1);
+    }
+
+    /**
+     * Invoke the underlying constructor with three arguments.
+     * <p>
+     * Unlike {@link #invoke(Object...)}, this does not allocate an argument array.
+     *
+     * @param arg0 - the first argument.
+     * @param arg1 - the second argument.
+     * @param arg2 - the third argument.
+     * @return The new instance.
+     */
+    default Object invoke3(Object arg0, Object arg1, Object arg2) {
+        return this.invoke(arg0, arg1, arg2);
+    }
+
     /**
      * Retrieve the underlying constructor.
      *
@@ -6,11 +6,18 @@ import java.lang.reflect.Constructor;
 final class DefaultConstrutorAccessor implements ConstructorAccessor {
 
     private final Constructor<?> constructor;
+    private final int parameterCount;
+
     private final MethodHandle constructorAccessor;
+    // takes every argument directly, or null if the constructor has too many parameters
+    private final MethodHandle fixedArityAccessor;
 
-    public DefaultConstrutorAccessor(Constructor<?> constructor, MethodHandle constructorAccessor) {
+    public DefaultConstrutorAccessor(Constructor<?> constructor, MethodHandle constructorAccessor,
+            MethodHandle fixedArityAccessor, int parameterCount) {
         this.constructor = constructor;
         this.constructorAccessor = constructorAccessor;
+        this.fixedArityAccessor = fixedArityAccessor;
+        this.parameterCount = parameterCount;
     }
 
     @Override
@@ -22,6 +29,58 @@ final class DefaultConstrutorAccessor implements ConstructorAccessor {
         }
     }
 
+    @Override
+    public Object invoke0() {
+        if (this.parameterCount != 0) {
+            return this.invoke();
+        }
+
+        try {
+            return (Object) this.fixedArityAccessor.invokeExact();
+        } catch (Throwable throwable) {
+            throw new IllegalStateException("Unable to construct new instance using " + this.constructor, throwable);
+        }
+    }
+
+    @Override
+    public Object invoke1(Object arg0) {
+        if (this.parameterCount != 1) {
+            return this.invoke(arg0);
+        }
+
+        try {
+            return (Object) this.fixedArityAccessor.invokeExact(arg0);
+        } catch (Throwable throwable) {
+            throw new IllegalStateException("Unable to construct new instance using " + this.constructor, throwable);
+        }
+    }
+
+    @Override
+    public Object invoke2(Object arg0, Object arg1) {
+        if (this.parameterCount != 2) {
+            return this.invoke(arg0, arg1);
+        }
+
+        try {
+            return (Object) this.fixedArityAccessor.invokeExact(arg0, arg1);
+        } catch (Throwable throwable) {
+            throw new IllegalStateException("Unable to construct new instance using " + this.constructor, throwable);
+        }
+    }
+
+    @Override
+    public Object invoke3(Object arg0, Object arg1, Object arg2) {
+        if (this.parameterCount != 3) {
+            return this.invoke(arg0, arg1, arg2);
+        }
+
+        try {
+            return (Object) this.fixedArityAccessor.invokeExact(arg0, arg1, arg2);
+        } catch (Throwable throwable) {
+            throw new IllegalStateException("Unable to construct new instance using " + this.constructor, throwable);
+        }
+    }
+
     @Override
     public Constructor<?> getConstructor() {
         return this.constructor;
@@ -2,19 +2,21 @@ package com.comphenix.protocol.reflect.accessors;
 
 import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
 
 final class DefaultMethodAccessor implements MethodAccessor {
 
     private final Method method;
-    private final boolean staticMethod;
+    private final int parameterCount;
 
     private final MethodHandle methodHandle;
+    // takes the target and every argument directly, or null if the method has too many parameters
+    private final MethodHandle fixedArityHandle;
 
-    public DefaultMethodAccessor(Method method, MethodHandle methodHandle, boolean staticMethod) {
+    public DefaultMethodAccessor(Method method, MethodHandle methodHandle, MethodHandle fixedArityHandle, int parameterCount) {
         this.method = method;
         this.methodHandle = methodHandle;
-        this.staticMethod = staticMethod;
+        this.fixedArityHandle = fixedArityHandle;
+        this.parameterCount = parameterCount;
     }
 
     @Override
@@ -26,6 +28,58 @@ final class DefaultMethodAccessor implements MethodAccessor {
         }
     }
 
+    @Override
+    public Object invoke0(Object target) {
+        if (this.parameterCount != 0) {
+            return this.invoke(target);
+        }
+
+        try {
+            return (Object) this.fixedArityHandle.invokeExact(target);
+        } catch (Throwable throwable) {
+            throw new IllegalStateException("Unable to invoke method " + this.method, throwable);
+        }
+    }
+
+    @Override
+    public Object invoke1(Object target, Object arg0) {
+        if (this.parameterCount != 1) {
+            return this.invoke(target, arg0);
+        }
+
+        try {
+            return (Object) this.fixedArityHandle.invokeExact(target, arg0);
+        } catch (Throwable throwable) {
+            throw new IllegalStateException("Unable to invoke method " + this.method, throwable);
+        }
+    }
+
+    @Override
+    public Object invoke2(Object target, Object arg0, Object arg1) {
+        if (this.parameterCount != 2) {
+            return this.invoke(target, arg0, arg1);
+        }
+
+        try {
+            return (Object) this.fixedArityHandle.invokeExact(target, arg0, arg1);
+        } catch (Throwable throwable) {
+            throw new IllegalStateException("Unable to invoke method " + this.method, throwable);
+        }
+    }
+
+    @Override
+    public Object invoke3(Object target, Object arg0, Object arg1, Object arg2) {
+        if (this.parameterCount != 3) {
+            return this.invoke(target, arg0, arg1, arg2);
+        }
+
+        try {
+            return (Object) this.fixedArityHandle.invokeExact(target, arg0, arg1, arg2);
+        } catch (Throwable throwable) {
+            throw new IllegalStateException("Unable to invoke method " + this.method, throwable);
+        }
+    }
+
     @Override
     public Method getMethod() {
         return this.method;
@@ -26,6 +26,166 @@ public interface FieldAccessor {
      */
     void set(Object instance, Object value);
 
+    /**
+     * Retrieve the value of a boolean field for a particular instance, without boxing if the accessor supports it.
+     *
+     * @param instance - the instance, or NULL for a static field.
+     * @return The value of the field.
+     */
+    default boolean getBoolean(Object instance) {
+        return (Boolean) this.get(instance);
+    }
+
+    /**
+     * Set the value of a boolean field for a particular instance, without boxing if the accessor supports it.
+     *
+     * @param instance - the instance, or NULL for a static field.
+     * @param value    - the new value of the field.
+     */
+    default void setBoolean(Object instance, boolean value) {
+        this.set(instance, value);
+    }
+
+    /**
+     * Retrieve the value of a byte field for a particular instance, without boxing if the accessor supports it.
+     *
+     * @param instance - the instance, or NULL for a static field.
+     * @return The value of the field.
+     */
+    default byte getByte(Object instance) {
+        return (Byte) this.get(instance);
+    }
+
+    /**
+     * Set the value of a byte field for a particular instance, without boxing if the accessor supports it.
+     *
+     * @param instance - the instance, or NULL for a static field.
+     * @param value    - the new value of the field.
+     */
+    default void setByte(Object instance, byte value) {
+        this.set(instance, value);
+    }
+
+    /**
+     * Retrieve the value of a short field for a particular instance, without boxing if the accessor supports it.
+     *
+     * @param instance - the instance, or NULL for a static field.
+     * @return The value of the field.
+     */
+    default short getShort(Object instance) {
+        return (Short) this.get(instance);
+    }
+
+    /**
+     * Set the value of a short field for a particular instance, without boxing if the accessor supports it.
+     *
+     * @param instance - the instance, or NULL for a static field.
+     * @param value    - the new value of the field.
+     */
+    default void setShort(Object instance, short value) {
+        this.set(instance, value);
+    }
+
+    /**
+     * Retrieve the value of a char field for a particular instance, without boxing if the accessor supports it.
+     *
+     * @param instance - the instance, or NULL for a static field.
+     * @return The value of the field.
+     */
+    default char getChar(Object instance) {
+        return (Character) this.get(instance);
+    }
+
+    /**
+     * Set the value of a char field for a particular instance, without boxing if the accessor supports it.
+     *
+     * @param instance - the instance, or NULL for a static field.
+     * @param value    - the new value of the field.
+     */
+    default void setChar(Object instance, char value) {
+        this.set(instance, value);
+    }
+
+    /**
+     * Retrieve the value of an int field for a particular instance, without boxing if the accessor supports it.
+     *
+     * @param instance - the instance, or NULL for a static field.
+     * @return The value of the field.
+     */
+    default int getInt(Object instance) {
+        return (Integer) this.get(instance);
+    }
+
+    /**
+     * Set the value of an int field for a particular instance, without boxing if the accessor supports it.
+     *
+     * @param instance - the instance, or NULL for a static field.
+     * @param value    - the new value of the field.
+     */
+    default void setInt(Object instance, int value) {
+        this.set(instance, value);
+    }
+
+    /**
+     * Retrieve the value of a long field for a particular instance, without boxing if the accessor supports it.
+     *
+     * @param instance - the instance, or NULL for a static field.
+     * @return The value of the field.
+     */
+    default long getLong(Object instance) {
+        return (Long) this.get(instance);
+    }
+
+    /**
+     * Set the value of a long field for a particular instance, without boxing if the accessor supports it.
+     *
+     * @param instance - the instance, or NULL for a static field.
+     * @param value    - the new value of the field.
+     */
+    default void setLong(Object instance, long value) {
+        this.set(instance, value);
+    }
+
+    /**
+     * Retrieve the value of a float field for a particular instance, without boxing if the accessor supports it.
+     *
+     * @param instance - the instance, or NULL for a static field.
+     * @return The value of the field.
+     */
+    default float getFloat(Object instance) {
+        return (Float) this.get(instance);
+    }
+
+    /**
+     * Set the value of a float field for a particular instance, without boxing if the accessor supports it.
+     *
+     * @param instance - the instance, or NULL for a static field.
+     * @param value    - the new value of the field.
+     */
+    default void setFloat(Object instance, float value) {
+        this.set(instance, value);
+    }
+
+    /**
+     * Retrieve the value of a double field for a particular instance, without boxing if the accessor supports it.
+     *
+     * @param instance - the instance, or NULL for a static field.
+     * @return The value of the field.
+     */
+    default double getDouble(Object instance) {
+        return (Double) this.get(instance);
+    }
+
+    /**
+     * Set the value of a double field for a particular instance, without boxing if the accessor supports it.
+     *
+     * @param instance - the instance, or NULL for a static field.
+     * @param value    - the new value of the field.
+     */
+    default void setDouble(Object instance, double value) {
+        this.set(instance, value);
+    }
+
     /**
      * Retrieve the underlying field.
      *
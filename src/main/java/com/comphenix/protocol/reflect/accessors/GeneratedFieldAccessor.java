@@ -0,0 +1,554 @@
+package com.comphenix.protocol.reflect.accessors;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.logging.Level;
+
+import com.comphenix.protocol.ProtocolLogger;
+import com.comphenix.protocol.utility.JavaInternals;
+import net.bytebuddy.jar.asm.ClassWriter;
+import net.bytebuddy.jar.asm.MethodVisitor;
+import net.bytebuddy.jar.asm.Opcodes;
+import net.bytebuddy.jar.asm.Type;
+
+/**
+ * A field accessor backed by a class generated for the field, which reads and writes it with plain
+ * getfield/putfield instructions.
+ * <p>
+ * The generated class is defined as a hidden nestmate of the declaring class, so private fields are accessible and the
+ * class can be unloaded together with the declaring class. It only implements interfaces of the JDK, as the class
+ * loader of the declaring class usually cannot see ours. Fields of records and hidden classes can be read this way too,
+ * but as these cannot be written by anyone, setting them is left to a method handle accessor.
+ * <p>
+ * Hidden classes were added in Java 15, so the methods to define them are looked up reflectively. On older JVMs, no
+ * accessors are generated.
+ */
+final class GeneratedFieldAccessor implements FieldAccessor {
+
+    private static final String NAME_SUFFIX = "$$ProtocolLibFieldAccessor";
+    private static final String OBJECT = Type.getInternalName(Object.class);
+
+    // Lookup#defineHiddenClass and Class#isHidden, or NULL before Java 15
+    private static final MethodHandle DEFINE_HIDDEN_CLASS;
+    private static final MethodHandle IS_HIDDEN;
+    private static final Object NESTMATE_OPTIONS;
+
+    // used to compare the generated accessors against method handles
+    private static final int BENCHMARK_ROUNDS = 5;
+    private static final int BENCHMARK_ITERATIONS = 20_000;
+
+    static {
+        MethodHandle defineHiddenClass = null;
+        MethodHandle isHidden = null;
+        Object nestmateOptions = null;
+
+        try {
+            Class<?> classOption = Class.forName("java.lang.invoke.MethodHandles$Lookup$ClassOption");
+            nestmateOptions = Array.newInstance(classOption, 1);
+            Array.set(nestmateOptions, 0, classOption.getField("NESTMATE").get(null));
+
+            Lookup lookup = MethodHandles.publicLookup();
+            defineHiddenClass = lookup.findVirtual(Lookup.class, "defineHiddenClass",
+                    MethodType.methodType(Lookup.class, byte[].class, boolean.class, nestmateOptions.getClass()))
+                    .asFixedArity();
+            isHidden = lookup.findVirtual(Class.class, "isHidden", MethodType.methodType(boolean.class));
+        } catch (ReflectiveOperationException ex) {
+            // hidden classes are not supported by this JVM
+            defineHiddenClass = null;
+            isHidden = null;
+        }
+
+        DEFINE_HIDDEN_CLASS = defineHiddenClass;
+        IS_HIDDEN = isHidden;
+        NESTMATE_OPTIONS = nestmateOptions;
+    }
+
+    // cleared if the running JVM cannot define hidden classes
+    private static volatile boolean supported = DEFINE_HIDDEN_CLASS != null;
+
+    // whether generated accessors are faster than method handles on this JVM, measured when first needed
+    private static volatile Boolean preferred;
+
+    private final Field field;
+    private final Class<?> fieldType;
+
+    private final Function<Object, Object> getter;
+    private final BiConsumer<Object, Object> setter;
+
+    // only set for primitive fields, covering every type that fits into them
+    private final ToIntFunction<Object> intGetter;
+    private final ObjIntConsumer<Object> intSetter;
+    private final ToLongFunction<Object> longGetter;
+    private final ObjLongConsumer<Object> longSetter;
+    private final ToDoubleFunction<Object> doubleGetter;
+    private final ObjDoubleConsumer<Object> doubleSetter;
+
+    // used to set final fields, resolved when first needed
+    private volatile FieldAccessor fallback;
+
+    @SuppressWarnings("unchecked")
+    private GeneratedFieldAccessor(Field field, Object generated) {
+        this.field = field;
+        this.fieldType = field.getType();
+
+        this.getter = (Function<Object, Object>) generated;
+        this.setter = generated instanceof BiConsumer ? (BiConsumer<Object, Object>) generated : null;
+
+        this.intGetter = generated instanceof ToIntFunction ? (ToIntFunction<Object>) generated : null;
+        this.intSetter = generated instanceof ObjIntConsumer ? (ObjIntConsumer<Object>) generated : null;
+        this.longGetter = generated instanceof ToLongFunction ? (ToLongFunction<Object>) generated : null;
+        this.longSetter = generated instanceof ObjLongConsumer ? (ObjLongConsumer<Object>) generated : null;
+        this.doubleGetter = generated instanceof ToDoubleFunction ? (ToDoubleFunction<Object>) generated : null;
+        this.doubleSetter = generated instanceof ObjDoubleConsumer ? (ObjDoubleConsumer<Object>) generated : null;
+    }
+
+    /**
+     * Generate an accessor for the given field.
+     *
+     * @param field - the field.
+     * @return The generated accessor, or NULL if no accessor can be generated for the field.
+     */
+    static FieldAccessor create(Field field) {
+        Class<?> owner = field.getDeclaringClass();
+        if (!supported || owner.getClassLoader() == null) {
+            return null;
+        }
+
+        try {
+            if ((boolean) IS_HIDDEN.invokeExact(owner)) {
+                return null;
+            }
+            byte[] bytecode = generate(field);
+
+            // the trusted lookup has full privilege access in every class, which is required to define a nestmate
+            Lookup lookup = (Lookup) DEFINE_HIDDEN_CLASS.invoke(JavaInternals.LOOKUP.in(owner), bytecode, true, NESTMATE_OPTIONS);
+            Object generated = lookup.findConstructor(lookup.lookupClass(), MethodType.methodType(void.class)).invoke();
+
+            return new GeneratedFieldAccessor(field, generated);
+        } catch (LinkageError | UnsupportedOperationException error) {
+            // older JVMs and unknown restrictions, don't try again
+            supported = false;
+            ProtocolLogger.log(Level.WARNING, "Unable to generate field accessors, falling back to method handles", error);
+            return null;
+        } catch (Throwable throwable) {
+            ProtocolLogger.debug("Unable to generate accessor for field " + field, throwable);
+            return null;
+        }
+    }
+
+    /**
+     * Determine if generated accessors should be used instead of method handles.
+     * <p>
+     * The first call compares both on a field of our own, which takes a few milliseconds. Generated accessors are only
+     * preferred if they were faster in the best of several rounds.
+     *
+     * @return TRUE if generated accessors are faster on this JVM, FALSE otherwise.
+     */
+    static boolean isPreferred() {
+        Boolean preferred = GeneratedFieldAccessor.preferred;
+        if (preferred == null) {
+            GeneratedFieldAccessor.preferred = preferred = benchmark();
+        }
+        return preferred;
+    }
+
+    private static boolean benchmark() {
+        if (!supported) {
+            return false;
+        }
+
+        try {
+            Field intField = Probe.class.getDeclaredField("value");
+            Field referenceField = Probe.class.getDeclaredField("reference");
+
+            FieldAccessor generatedInt = create(intField);
+            FieldAccessor generatedReference = create(referenceField);
+            if (generatedInt == null || generatedReference == null) {
+                return false;
+            }
+
+            FieldAccessor handleInt = MethodHandleHelper.getFieldAccessor(intField);
+            FieldAccessor handleReference = MethodHandleHelper.getFieldAccessor(referenceField);
+
+            // the best round of each, so neither pays for warming up
+            Probe probe = new Probe();
+            long generated = Long.MAX_VALUE;
+            long handles = Long.MAX_VALUE;
+
+            for (int round = 0; round < BENCHMARK_ROUNDS; round++) {
+                generated = Math.min(generated, time(generatedInt, generatedReference, probe));
+                handles = Math.min(handles, time(handleInt, handleReference, probe));
+            }
+
+            boolean result = generated < handles;
+            ProtocolLogger.debug("Generated field accessors took {0}ns, method handles {1}ns. Using {2}.",
+                    generated, handles, result ? "generated accessors" : "method handles");
+            return result;
+        } catch (Throwable throwable) {
+            ProtocolLogger.debug("Unable to compare generated field accessors", throwable);
+            return false;
+        }
+    }
+
+    private static long time(FieldAccessor intAccessor, FieldAccessor referenceAccessor, Probe probe) {
+        long start = System.nanoTime();
+        for (int i = 0; i < BENCHMARK_ITERATIONS; i++) {
+            intAccessor.setInt(probe, intAccessor.getInt(probe) + 1);
+            referenceAccessor.set(probe, referenceAccessor.get(probe));
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static byte[] generate(Field field) {
+        Class<?> owner = field.getDeclaringClass();
+        Class<?> type = field.getType();
+
+        boolean staticField = Modifier.isStatic(field.getModifiers());
+        boolean writable = !Modifier.isFinal(field.getModifiers());
+
+        // interfaces implemented by the generated class, along with their primitive variants
+        String[] interfaces;
+        String primitiveGetter = null;
+        String primitiveSetter = null;
+        Type primitive = null;
+
+        if (type == long.class) {
+            primitiveGetter = "applyAsLong";
+            primitive = Type.LONG_TYPE;
+            interfaces = interfaces(writable, ToLongFunction.class, ObjLongConsumer.class);
+        } else if (type == float.class || type == double.class) {
+            primitiveGetter = "applyAsDouble";
+            primitive = Type.DOUBLE_TYPE;
+            interfaces = interfaces(writable, ToDoubleFunction.class, ObjDoubleConsumer.class);
+        } else if (type.isPrimitive()) {
+            primitiveGetter = "applyAsInt";
+            primitive = Type.INT_TYPE;
+            interfaces = interfaces(writable, ToIntFunction.class, ObjIntConsumer.class);
+        } else {
+            interfaces = interfaces(writable, null, null);
+        }
+        if (primitive != null && writable) {
+            primitiveSetter = "accept";
+        }
+
+        String ownerName = Type.getInternalName(owner);
+        String fieldDescriptor = Type.getDescriptor(type);
+        Type fieldAsmType = Type.getType(type);
+
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(Opcodes.V11, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER,
+                ownerName + NAME_SUFFIX, null, OBJECT, interfaces);
+
+        MethodVisitor constructor = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        constructor.visitCode();
+        constructor.visitVarInsn(Opcodes.ALOAD, 0);
+        constructor.visitMethodInsn(Opcodes.INVOKESPECIAL, OBJECT, "<init>", "()V", false);
+        constructor.visitInsn(Opcodes.RETURN);
+        constructor.visitMaxs(0, 0);
+        constructor.visitEnd();
+
+        // Object apply(Object instance)
+        MethodVisitor get = writer.visitMethod(Opcodes.ACC_PUBLIC, "apply",
+                "(Ljava/lang/Object;)Ljava/lang/Object;", null, null);
+        get.visitCode();
+        loadField(get, staticField, ownerName, field.getName(), fieldDescriptor);
+        box(get, fieldAsmType);
+        get.visitInsn(Opcodes.ARETURN);
+        get.visitMaxs(0, 0);
+        get.visitEnd();
+
+        if (writable) {
+            // void accept(Object instance, Object value)
+            MethodVisitor set = writer.visitMethod(Opcodes.ACC_PUBLIC, "accept",
+                    "(Ljava/lang/Object;Ljava/lang/Object;)V", null, null);
+            set.visitCode();
+            loadInstance(set, staticField, ownerName);
+            set.visitVarInsn(Opcodes.ALOAD, 2);
+            unbox(set, fieldAsmType);
+            storeField(set, staticField, ownerName, field.getName(), fieldDescriptor);
+            set.visitInsn(Opcodes.RETURN);
+            set.visitMaxs(0, 0);
+            set.visitEnd();
+        }
+
+        if (primitiveGetter != null) {
+            // int applyAsInt(Object instance), long applyAsLong(Object instance) or double applyAsDouble(Object instance)
+            MethodVisitor get2 = writer.visitMethod(Opcodes.ACC_PUBLIC, primitiveGetter,
+                    "(Ljava/lang/Object;)" + primitive.getDescriptor(), null, null);
+            get2.visitCode();
+            loadField(get2, staticField, ownerName, field.getName(), fieldDescriptor);
+            if (type == float.class) {
+                get2.visitInsn(Opcodes.F2D);
+            }
+            get2.visitInsn(primitive.getOpcode(Opcodes.IRETURN));
+            get2.visitMaxs(0, 0);
+            get2.visitEnd();
+        }
+
+        if (primitiveSetter != null) {
+            // void accept(Object instance, int value) - or long and double
+            MethodVisitor set2 = writer.visitMethod(Opcodes.ACC_PUBLIC, primitiveSetter,
+                    "(Ljava/lang/Object;" + primitive.getDescriptor() + ")V", null, null);
+            set2.visitCode();
+            loadInstance(set2, staticField, ownerName);
+            set2.visitVarInsn(primitive.getOpcode(Opcodes.ILOAD), 2);
+            narrow(set2, type);
+            storeField(set2, staticField, ownerName, field.getName(), fieldDescriptor);
+            set2.visitInsn(Opcodes.RETURN);
+            set2.visitMaxs(0, 0);
+            set2.visitEnd();
+        }
+
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    private static String[] interfaces(boolean writable, Class<?> primitiveGetter, Class<?> primitiveSetter) {
+        String[] result = new String[(writable ? 2 : 1) + (primitiveGetter != null ? (writable ? 2 : 1) : 0)];
+        int index = 0;
+
+        result[index++] = Type.getInternalName(Function.class);
+        if (writable) {
+            result[index++] = Type.getInternalName(BiConsumer.class);
+        }
+        if (primitiveGetter != null) {
+            result[index++] = Type.getInternalName(primitiveGetter);
+            if (writable) {
+                result[index] = Type.getInternalName(primitiveSetter);
+            }
+        }
+        return result;
+    }
+
+    private static void loadInstance(MethodVisitor method, boolean staticField, String owner) {
+        if (!staticField) {
+            method.visitVarInsn(Opcodes.ALOAD, 1);
+            method.visitTypeInsn(Opcodes.CHECKCAST, owner);
+        }
+    }
+
+    private static void loadField(MethodVisitor method, boolean staticField, String owner, String name, String desc) {
+        loadInstance(method, staticField, owner);
+        method.visitFieldInsn(staticField ? Opcodes.GETSTATIC : Opcodes.GETFIELD, owner, name, desc);
+    }
+
+    private static void storeField(MethodVisitor method, boolean staticField, String owner, String name, String desc) {
+        method.visitFieldInsn(staticField ? Opcodes.PUTSTATIC : Opcodes.PUTFIELD, owner, name, desc);
+    }
+
+    private static void box(MethodVisitor method, Type type) {
+        Type wrapper = wrapper(type);
+        if (wrapper != null) {
+            method.visitMethodInsn(Opcodes.INVOKESTATIC, wrapper.getInternalName(), "valueOf",
+                    Type.getMethodDescriptor(wrapper, type), false);
+        }
+    }
+
+    private static void unbox(MethodVisitor method, Type type) {
+        Type wrapper = wrapper(type);
+        if (wrapper != null) {
+            method.visitTypeInsn(Opcodes.CHECKCAST, wrapper.getInternalName());
+            method.visitMethodInsn(Opcodes.INVOKEVIRTUAL, wrapper.getInternalName(), type.getClassName() + "Value",
+                    Type.getMethodDescriptor(type), false);
+        } else if (!OBJECT.equals(type.getInternalName())) {
+            method.visitTypeInsn(Opcodes.CHECKCAST, type.getInternalName());
+        }
+    }
+
+    private static void narrow(MethodVisitor method, Class<?> type) {
+        if (type == boolean.class) {
+            method.visitInsn(Opcodes.ICONST_1);
+            method.visitInsn(Opcodes.IAND);
+        } else if (type == byte.class) {
+            method.visitInsn(Opcodes.I2B);
+        } else if (type == short.class) {
+            method.visitInsn(Opcodes.I2S);
+        } else if (type == char.class) {
+            method.visitInsn(Opcodes.I2C);
+        } else if (type == float.class) {
+            method.visitInsn(Opcodes.D2F);
+        }
+    }
+
+    private static Type wrapper(Type type) {
+        switch (type.getSort()) {
+            case Type.BOOLEAN:
+                return Type.getType(Boolean.class);
+            case Type.BYTE:
+                return Type.getType(Byte.class);
+            case Type.SHORT:
+                return Type.getType(Short.class);
+            case Type.CHAR:
+                return Type.getType(Character.class);
+            case Type.INT:
+                return Type.getType(Integer.class);
+            case Type.LONG:
+                return Type.getType(Long.class);
+            case Type.FLOAT:
+                return Type.getType(Float.class);
+            case Type.DOUBLE:
+                return Type.getType(Double.class);
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    public Object get(Object instance) {
+        return this.getter.apply(instance);
+    }
+
+    @Override
+    public void set(Object instance, Object value) {
+        if (this.setter != null) {
+            this.setter.accept(instance, value);
+        } else {
+            this.getFallback().set(instance, value);
+        }
+    }
+
+    @Override
+    public boolean getBoolean(Object instance) {
+        return this.fieldType == boolean.class ? this.intGetter.applyAsInt(instance) != 0 : FieldAccessor.super.getBoolean(instance);
+    }
+
+    @Override
+    public void setBoolean(Object instance, boolean value) {
+        if (this.fieldType == boolean.class && this.intSetter != null) {
+            this.intSetter.accept(instance, value ? 1 : 0);
+        } else {
+            this.set(instance, value);
+        }
+    }
+
+    @Override
+    public byte getByte(Object instance) {
+        return this.fieldType == byte.class ? (byte) this.intGetter.applyAsInt(instance) : FieldAccessor.super.getByte(instance);
+    }
+
+    @Override
+    public void setByte(Object instance, byte value) {
+        if (this.fieldType == byte.class && this.intSetter != null) {
+            this.intSetter.accept(instance, value);
+        } else {
+            this.set(instance, value);
+        }
+    }
+
+    @Override
+    public short getShort(Object instance) {
+        return this.fieldType == short.class ? (short) this.intGetter.applyAsInt(instance) : FieldAccessor.super.getShort(instance);
+    }
+
+    @Override
+    public void setShort(Object instance, short value) {
+        if (this.fieldType == short.class && this.intSetter != null) {
+            this.intSetter.accept(instance, value);
+        } else {
+            this.set(instance, value);
+        }
+    }
+
+    @Override
+    public char getChar(Object instance) {
+        return this.fieldType == char.class ? (char) this.intGetter.applyAsInt(instance) : FieldAccessor.super.getChar(instance);
+    }
+
+    @Override
+    public void setChar(Object instance, char value) {
+        if (this.fieldType == char.class && this.intSetter != null) {
+            this.intSetter.accept(instance, value);
+        } else {
+            this.set(instance, value);
+        }
+    }
+
+    @Override
+    public int getInt(Object instance) {
+        return this.fieldType == int.class ? this.intGetter.applyAsInt(instance) : FieldAccessor.super.getInt(instance);
+    }
+
+    @Override
+    public void setInt(Object instance, int value) {
+        if (this.fieldType == int.class && this.intSetter != null) {
+            this.intSetter.accept(instance, value);
+        } else {
+            this.set(instance, value);
+        }
+    }
+
+    @Override
+    public long getLong(Object instance) {
+        return this.fieldType == long.class ? this.longGetter.applyAsLong(instance) : FieldAccessor.super.getLong(instance);
+    }
+
+    @Override
+    public void setLong(Object instance, long value) {
+        if (this.fieldType == long.class && this.longSetter != null) {
+            this.longSetter.accept(instance, value);
+        } else {
+            this.set(instance, value);
+        }
+    }
+
+    @Override
+    public float getFloat(Object instance) {
+        // float to double and back is lossless
+        return this.fieldType == float.class ? (float) this.doubleGetter.applyAsDouble(instance) : FieldAccessor.super.getFloat(instance);
+    }
+
+    @Override
+    public void setFloat(Object instance, float value) {
+        if (this.fieldType == float.class && this.doubleSetter != null) {
+            this.doubleSetter.accept(instance, value);
+        } else {
+            this.set(instance, value);
+        }
+    }
+
+    @Override
+    public double getDouble(Object instance) {
+        return this.fieldType == double.class ? this.doubleGetter.applyAsDouble(instance) : FieldAccessor.super.getDouble(instance);
+    }
+
+    @Override
+    public void setDouble(Object instance, double value) {
+        if (this.fieldType == double.class && this.doubleSetter != null) {
+            this.doubleSetter.accept(instance, value);
+        } else {
+            this.set(instance, value);
+        }
+    }
+
+    @Override
+    public Field getField() {
+        return this.field;
+    }
+
+    private FieldAccessor getFallback() {
+        FieldAccessor fallback = this.fallback;
+        if (fallback == null) {
+            this.fallback = fallback = MethodHandleHelper.getFieldAccessor(this.field);
+        }
+        return fallback;
+    }
+
+    private static final class Probe {
+
+        private int value;
+        private Object reference = "";
+    }
+}
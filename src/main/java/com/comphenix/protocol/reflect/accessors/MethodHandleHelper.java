@@ -17,6 +17,9 @@ final class MethodHandleHelper {
 
     private static final Lookup LOOKUP;
 
+    // the highest number of arguments with a fixed arity entry point in the accessors
+    static final int MAX_FIXED_ARITY = 3;
+
     // static fields, converted as "public Object get()" and "public void set(Object value)"
     private static final MethodType STATIC_FIELD_GETTER = MethodType.methodType(Object.class);
     private static final MethodType STATIC_FIELD_SETTER = MethodType.methodType(void.class, Object.class);
@@ -60,7 +63,8 @@ final class MethodHandleHelper {
             boolean staticMethod = Modifier.isStatic(method.getModifiers());
 
             MethodHandle generified = convertToGeneric(unreflected, staticMethod, false);
-            return new DefaultMethodAccessor(method, generified, staticMethod);
+            MethodHandle fixedArity = convertToFixedArity(unreflected, staticMethod, false);
+            return new DefaultMethodAccessor(method, generified, fixedArity, method.getParameterCount());
         } catch (IllegalAccessException ex) {
             throw new IllegalStateException("Unable to access method " + method, ex);
         }
@@ -72,8 +76,9 @@ final class MethodHandleHelper {
         try {
             MethodHandle unreflected = LOOKUP.unreflectConstructor(constructor);
             MethodHandle generified = convertToGeneric(unreflected, false, true);
+            MethodHandle fixedArity = convertToFixedArity(unreflected, false, true);
 
-            return new DefaultConstrutorAccessor(constructor, generified);
+            return new DefaultConstrutorAccessor(constructor, generified, fixedArity, constructor.getParameterCount());
         } catch (IllegalAccessException ex) {
             throw new IllegalStateException("Unable to access constructor " + constructor, ex);
         }
@@ -134,4 +139,19 @@ final class MethodHandleHelper {
         // convert the type to finish
         return target.asType(methodType);
     }
+
+    private static MethodHandle convertToFixedArity(MethodHandle handle, boolean staticMethod, boolean ctor) {
+        int paramCount = handle.type().parameterCount() - (ctor || staticMethod ? 0 : 1);
+        if (paramCount > MAX_FIXED_ARITY) {
+            return null;
+        }
+
+        MethodHandle target = handle.asFixedArity();
+        // adds a leading 'this' argument which we can ignore
+        if (staticMethod) {
+            target = MethodHandles.dropArguments(target, 0, Object.class);
+        }
+        // every argument and the return value are plain objects, so that callers can use invokeExact
+        return target.asType(MethodType.genericMethodType(paramCount + (ctor ? 0 : 1)));
+    }
 }
@@ -9,6 +9,7 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 
 @Getter
 public class UnsafeFieldAccessor implements FieldAccessor {
@@ -51,6 +52,7 @@ public class UnsafeFieldAccessor implements FieldAccessor {
 
 
     private final Field field;
+    private final Class<?> fieldType;
     private final boolean isStatic;
 
     private final long fieldOffset;
@@ -61,6 +63,7 @@ public class UnsafeFieldAccessor implements FieldAccessor {
 
     public UnsafeFieldAccessor(Field field) {
         this.field = field;
+        fieldType = field.getType();
         isStatic = Modifier.isStatic(field.getModifiers());
 
         fieldOffset = isStatic()
@@ -102,6 +105,147 @@ public class UnsafeFieldAccessor implements FieldAccessor {
 //        JavaInternals.UNSAFE.putObject(instance, fieldOffset, value);
     }
 
+    @Override
+    public boolean getBoolean(Object instance) {
+        if (fieldType != boolean.class) {
+            return FieldAccessor.super.getBoolean(instance);
+        }
+        return JavaInternals.UNSAFE.getBoolean(base(instance), fieldOffset);
+    }
+
+    @Override
+    public void setBoolean(Object instance, boolean value) {
+        if (fieldType != boolean.class) {
+            FieldAccessor.super.setBoolean(instance, value);
+        } else {
+            JavaInternals.UNSAFE.putBoolean(base(instance), fieldOffset, value);
+        }
+    }
+
+    @Override
+    public byte getByte(Object instance) {
+        if (fieldType != byte.class) {
+            return FieldAccessor.super.getByte(instance);
+        }
+        return JavaInternals.UNSAFE.getByte(base(instance), fieldOffset);
+    }
+
+    @Override
+    public void setByte(Object instance, byte value) {
+        if (fieldType != byte.class) {
+            FieldAccessor.super.setByte(instance, value);
+        } else {
+            JavaInternals.UNSAFE.putByte(base(instance), fieldOffset, value);
+        }
+    }
+
+    @Override
+    public short getShort(Object instance) {
+        if (fieldType != short.class) {
+            return FieldAccessor.super.getShort(instance);
+        }
+        return JavaInternals.UNSAFE.getShort(base(instance), fieldOffset);
+    }
+
+    @Override
+    public void setShort(Object instance, short value) {
+        if (fieldType != short.class) {
+            FieldAccessor.super.setShort(instance, value);
+        } else {
+            JavaInternals.UNSAFE.putShort(base(instance), fieldOffset, value);
+        }
+    }
+
+    @Override
+    public char getChar(Object instance) {
+        if (fieldType != char.class) {
+            return FieldAccessor.super.getChar(instance);
+        }
+        return JavaInternals.UNSAFE.getChar(base(instance), fieldOffset);
+    }
+
+    @Override
+    public void setChar(Object instance, char value) {
+        if (fieldType != char.class) {
+            FieldAccessor.super.setChar(instance, value);
+        } else {
+            JavaInternals.UNSAFE.putChar(base(instance), fieldOffset, value);
+        }
+    }
+
+    @Override
+    public int getInt(Object instance) {
+        if (fieldType != int.class) {
+            return FieldAccessor.super.getInt(instance);
+        }
+        return JavaInternals.UNSAFE.getInt(base(instance), fieldOffset);
+    }
+
+    @Override
+    public void setInt(Object instance, int value) {
+        if (fieldType != int.class) {
+            FieldAccessor.super.setInt(instance, value);
+        } else {
+            JavaInternals.UNSAFE.putInt(base(instance), fieldOffset, value);
+        }
+    }
+
+    @Override
+    public long getLong(Object instance) {
+        if (fieldType != long.class) {
+            return FieldAccessor.super.getLong(instance);
+        }
+        return JavaInternals.UNSAFE.getLong(base(instance), fieldOffset);
+    }
+
+    @Override
+    public void setLong(Object instance, long value) {
+        if (fieldType != long.class) {
+            FieldAccessor.super.setLong(instance, value);
+        } else {
+            JavaInternals.UNSAFE.putLong(base(instance), fieldOffset, value);
+        }
+    }
+
+    @Override
+    public float getFloat(Object instance) {
+        if (fieldType != float.class) {
+            return FieldAccessor.super.getFloat(instance);
+        }
+        return JavaInternals.UNSAFE.getFloat(base(instance), fieldOffset);
+    }
+
+    @Override
+    public void setFloat(Object instance, float value) {
+        if (fieldType != float.class) {
+            FieldAccessor.super.setFloat(instance, value);
+        } else {
+            JavaInternals.UNSAFE.putFloat(base(instance), fieldOffset, value);
+        }
+    }
+
+    @Override
+    public double getDouble(Object instance) {
+        if (fieldType != double.class) {
+            return FieldAccessor.super.getDouble(instance);
+        }
+        return JavaInternals.UNSAFE.getDouble(base(instance), fieldOffset);
+    }
+
+    @Override
+    public void setDouble(Object instance, double value) {
+        if (fieldType != double.class) {
+            FieldAccessor.super.setDouble(instance, value);
+        } else {
+            JavaInternals.UNSAFE.putDouble(base(instance), fieldOffset, value);
+        }
+    }
+
+    private Object base(Object instance) {
+        // unlike the boxed methods, there is no sensible value to return for a missing instance
+        return isStatic() ? staticFieldBase : Objects.requireNonNull(instance, "instance cannot be NULL");
+    }
+
     public boolean isStatic() {
         return isStatic;
     }
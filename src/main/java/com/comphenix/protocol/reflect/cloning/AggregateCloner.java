@@ -27,6 +27,8 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Implements a cloning procedure by trying multiple methods in turn until one is successful.
@@ -76,6 +78,7 @@ public class AggregateCloner implements Cloner {
     public static class Builder {
         private final List<Function<BuilderParameters, Cloner>> factories = new ArrayList<>();
         private final BuilderParameters parameters;
+        private boolean compiled;
 
         /**
          * Create a new aggregate builder.
@@ -121,12 +124,24 @@ public class AggregateCloner implements Cloner {
             return this;
         }
 
+        /**
+         * Select the cloner of each class once, the first time an object of the class is cloned, instead of asking
+         * every cloner for every object. Field cloners are also compiled for the class.
+         * <p>
+         * Only use this if every cloner in the builder decides whether it can clone an object by its class alone.
+         * @return This builder.
+         */
+        public Builder compiled() {
+            this.compiled = true;
+            return this;
+        }
+
         /**
          * Build a new aggregate cloner using the supplied values.
          * @return A new aggregate cloner.
          */
         public AggregateCloner build() {
-            AggregateCloner newCloner = new AggregateCloner();
+            AggregateCloner newCloner = new AggregateCloner(compiled);
 
             // The parameters we will pass to our cloners
             Cloner paramCloner = new NullableCloner(newCloner);
@@ -172,6 +187,9 @@ public class AggregateCloner implements Cloner {
     private WeakReference<Object> lastObject;
     private int lastResult;
 
+    // The cloner of each class, or NULL if not compiled
+    private final Map<Class<?>, Cloner> compiledCloners;
+
     /**
      * Begins constructing a new aggregate cloner.
      * @return A builder for a new aggregate cloner.
@@ -183,8 +201,9 @@ public class AggregateCloner implements Cloner {
     /**
      * Construct a new, empty aggregate cloner.
      */
-    private AggregateCloner() {
+    private AggregateCloner(boolean compiled) {
         // Only used by our builder above.
+        this.compiledCloners = compiled ? new ConcurrentHashMap<>() : null;
     }
 
     /**
@@ -205,6 +224,9 @@ public class AggregateCloner implements Cloner {
 
     @Override
     public boolean canClone(Object source) {
+        if (compiledCloners != null && source != null && compiledCloners.containsKey(source.getClass()))
+            return true;
+
         // Optimize a bit
         lastResult = getFirstCloner(source);
         lastObject = new WeakReference<>(source);
@@ -231,6 +253,8 @@ public class AggregateCloner implements Cloner {
     public Object clone(Object source) {
         if (source == null)
             throw new IllegalAccessError("source cannot be NULL.");
+        if (compiledCloners != null)
+            return getCompiledCloner(source).clone(source);
         int index = 0;
 
         // Are we dealing with the same object?
@@ -254,4 +278,29 @@ public class AggregateCloner implements Cloner {
         // Damn - failure
         throw new IllegalArgumentException("Cannot clone " + source + " ( " + source.getClass() + "): No cloner is suitable.");
     }
+
+    /**
+     * Retrieve the cloner of the class of the given object, selecting it if this is the first object of its class.
+     * @param source - the object to clone.
+     * @return The cloner of its class.
+     */
+    private Cloner getCompiledCloner(Object source) {
+        Class<?> type = source.getClass();
+        Cloner cloner = compiledCloners.get(type);
+
+        if (cloner == null) {
+            int index = getFirstCloner(source);
+            if (index >= cloners.size())
+                throw new IllegalArgumentException("Cannot clone " + source + " ( " + type + "): No cloner is suitable.");
+
+            cloner = cloners.get(index);
+            if (cloner instanceof FieldCloner)
+                cloner = ((FieldCloner) cloner).compile(type);
+
+            Cloner existing = compiledCloners.putIfAbsent(type, cloner);
+            if (existing != null)
+                cloner = existing;
+        }
+        return cloner;
+    }
 }
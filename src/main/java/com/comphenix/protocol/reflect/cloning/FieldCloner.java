@@ -17,10 +17,18 @@
 
 package com.comphenix.protocol.reflect.cloning;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
 import com.comphenix.protocol.reflect.ObjectWriter;
 import com.comphenix.protocol.reflect.StructureModifier;
+import com.comphenix.protocol.reflect.accessors.Accessors;
+import com.comphenix.protocol.reflect.accessors.FieldAccessor;
 import com.comphenix.protocol.reflect.instances.InstanceProvider;
 import com.comphenix.protocol.reflect.instances.NotConstructableException;
+import com.google.common.primitives.Primitives;
 
 /**
  * Represents a class capable of cloning objects by deeply copying its fields.
@@ -34,6 +42,9 @@ public class FieldCloner implements Cloner {
     // Used to clone objects
     protected ObjectWriter writer;
     
+    // The writer that clones every field, unless a subclass replaced it
+    private final ObjectWriter cloningWriter;
+    
     /**
      * Constructs a field cloner that copies objects by reading and writing the internal fields directly.
      * @param defaultCloner - the default cloner used while copying fields.
@@ -51,6 +62,7 @@ public class FieldCloner implements Cloner {
                 defaultTransform(modifierDest, modifierDest, getDefaultCloner(), fieldIndex);
             }
         };
+        this.cloningWriter = this.writer;
     }
 
     /**
@@ -92,6 +104,40 @@ public class FieldCloner implements Cloner {
         return copy;
     }
     
+    /**
+     * Compile a cloner for objects of exactly the given class.
+     * <p>
+     * The fields are looked up once, and fields of primitive types, their wrappers, strings and enums are copied
+     * directly instead of going through the default cloner. Returns this cloner if the writer has been replaced, as it
+     * may not clone every field.
+     * @param type - the class of the objects to clone.
+     * @return A cloner for the given class.
+     */
+    public Cloner compile(Class<?> type) {
+        if (writer != cloningWriter) {
+            return this;
+        }
+        
+        List<FieldAccessor> copied = new ArrayList<>();
+        List<FieldAccessor> cloned = new ArrayList<>();
+        
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+                
+                Class<?> fieldType = field.getType();
+                if (fieldType.isPrimitive() || Primitives.isWrapperType(fieldType) || fieldType == String.class || fieldType.isEnum()) {
+                    copied.add(Accessors.getFieldAccessor(field));
+                } else {
+                    cloned.add(Accessors.getFieldAccessor(field));
+                }
+            }
+        }
+        return new CompiledFieldCloner(type, copied.toArray(new FieldAccessor[0]), cloned.toArray(new FieldAccessor[0]));
+    }
+    
     /**
      * Retrieve the default cloner used to clone the content of each field.
      * @return Cloner used to clone fields.
@@ -107,4 +153,44 @@ public class FieldCloner implements Cloner {
     public InstanceProvider getInstanceProvider() {
         return instanceProvider;
     }
+    
+    /**
+     * Clones objects of a single class with a precomputed list of fields.
+     */
+    private final class CompiledFieldCloner implements Cloner {
+        private final Class<?> type;
+        private final FieldAccessor[] copied;
+        private final FieldAccessor[] cloned;
+        
+        private CompiledFieldCloner(Class<?> type, FieldAccessor[] copied, FieldAccessor[] cloned) {
+            this.type = type;
+            this.copied = copied;
+            this.cloned = cloned;
+        }
+        
+        @Override
+        public boolean canClone(Object source) {
+            return source != null && source.getClass() == type;
+        }
+        
+        @Override
+        public Object clone(Object source) {
+            if (source == null)
+                throw new IllegalArgumentException("source cannot be NULL.");
+            
+            Object copy = instanceProvider.create(type);
+            
+            try {
+                for (FieldAccessor accessor : copied) {
+                    accessor.set(copy, accessor.get(source));
+                }
+                for (FieldAccessor accessor : cloned) {
+                    accessor.set(copy, defaultCloner.clone(accessor.get(source)));
+                }
+            } catch (Exception e) {
+                throw new RuntimeException("Unable to copy fields from " + type.getName(), e);
+            }
+            return copy;
+        }
+    }
 }
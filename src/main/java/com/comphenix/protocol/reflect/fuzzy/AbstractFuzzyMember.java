@@ -157,6 +157,15 @@ public abstract class AbstractFuzzyMember<T extends Member> implements AbstractF
         return map;
     }
 
+    /**
+     * Determine if this contract is immutable and compared by value, so that the members it matches can be cached.
+     *
+     * @return TRUE if it is, FALSE otherwise.
+     */
+    public boolean isCacheable() {
+        return this.sealed && FuzzyMatchers.isComparable(this.declaringMatcher);
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj) {
@@ -28,4 +28,15 @@ final class ClassRegexMatcher implements AbstractFuzzyMatcher<Class<?>> {
     public String toString() {
         return "{ type matches \"" + this.regex.pattern() + "\" }";
     }
+
+    @Override
+    public boolean equals(Object obj) {
+        return this == obj
+                || (obj instanceof ClassRegexMatcher && FuzzyMatchers.checkPattern(this.regex, ((ClassRegexMatcher) obj).regex));
+    }
+
+    @Override
+    public int hashCode() {
+        return this.regex != null ? this.regex.pattern().hashCode() : 0;
+    }
 }
@@ -24,4 +24,14 @@ final class ClassSetMatcher implements AbstractFuzzyMatcher<Class<?>> {
     public String toString() {
         return "{ type any of " + this.classes + " }";
     }
+
+    @Override
+    public boolean equals(Object obj) {
+        return this == obj || (obj instanceof ClassSetMatcher && this.classes.equals(((ClassSetMatcher) obj).classes));
+    }
+
+    @Override
+    public int hashCode() {
+        return this.classes.hashCode();
+    }
 }
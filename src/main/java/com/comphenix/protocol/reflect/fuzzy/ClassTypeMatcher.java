@@ -1,5 +1,7 @@
 package com.comphenix.protocol.reflect.fuzzy;
 
+import java.util.Objects;
+
 /**
  * Used to check class equality.
  *
@@ -91,6 +93,23 @@ final class ClassTypeMatcher implements AbstractFuzzyMatcher<Class<?>> {
         }
     }
 
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        } else if (obj instanceof ClassTypeMatcher) {
+            ClassTypeMatcher other = (ClassTypeMatcher) obj;
+            return this.matcher == other.matcher && this.variant == other.variant;
+        } else {
+            return false;
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.matcher, this.variant);
+    }
+
     /**
      * Different matching rules.
      */
@@ -2,6 +2,7 @@ package com.comphenix.protocol.reflect.fuzzy;
 
 import java.lang.reflect.Field;
 import java.util.Map;
+import java.util.Objects;
 import java.util.regex.Pattern;
 import javax.annotation.Nonnull;
 
@@ -75,6 +76,27 @@ public class FuzzyFieldContract extends AbstractFuzzyMember<Field> {
         return member;
     }
 
+    @Override
+    public boolean isCacheable() {
+        return super.isCacheable() && FuzzyMatchers.isComparable(this.typeMatcher);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        } else if (obj instanceof FuzzyFieldContract && super.equals(obj)) {
+            return Objects.equals(this.typeMatcher, ((FuzzyFieldContract) obj).typeMatcher);
+        } else {
+            return false;
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * super.hashCode() + Objects.hashCode(this.typeMatcher);
+    }
+
     /**
      * Represents a builder for a field matcher.
      *
@@ -125,7 +125,20 @@ public class FuzzyMatchers {
         } else if (a == b) {
             return true;
         } else {
-            return a.pattern().equals(b.pattern());
+            return a.pattern().equals(b.pattern()) && a.flags() == b.flags();
         }
     }
+
+    /**
+     * Determine if the given matcher is immutable and implements equals, such that contracts using it can be compared.
+     *
+     * @param matcher - the matcher.
+     * @return TRUE if it can be compared, FALSE otherwise.
+     */
+    static boolean isComparable(AbstractFuzzyMatcher<?> matcher) {
+        return matcher == MATCH_ALL
+                || matcher instanceof ClassTypeMatcher
+                || matcher instanceof ClassSetMatcher
+                || matcher instanceof ClassRegexMatcher;
+    }
 }
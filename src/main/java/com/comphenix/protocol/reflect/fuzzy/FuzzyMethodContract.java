@@ -2,9 +2,11 @@ package com.comphenix.protocol.reflect.fuzzy;
 
 import com.comphenix.protocol.reflect.MethodInfo;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.regex.Pattern;
 import javax.annotation.Nonnull;
 
@@ -186,6 +188,41 @@ public class FuzzyMethodContract extends AbstractFuzzyMember<MethodInfo> {
         return member;
     }
 
+    @Override
+    public boolean isCacheable() {
+        if (!super.isCacheable() || !FuzzyMatchers.isComparable(this.returnMatcher)) {
+            return false;
+        }
+
+        for (ParameterClassMatcher matcher : Iterables.concat(this.paramMatchers, this.exceptionMatchers)) {
+            if (!FuzzyMatchers.isComparable(matcher.typeMatcher)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        } else if (obj instanceof FuzzyMethodContract && super.equals(obj)) {
+            FuzzyMethodContract other = (FuzzyMethodContract) obj;
+            return Objects.equals(this.returnMatcher, other.returnMatcher)
+                    && this.paramMatchers.equals(other.paramMatchers)
+                    && this.exceptionMatchers.equals(other.exceptionMatchers)
+                    && Objects.equals(this.paramCount, other.paramCount);
+        } else {
+            return false;
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * super.hashCode()
+                + Objects.hash(this.returnMatcher, this.paramMatchers, this.exceptionMatchers, this.paramCount);
+    }
+
     private static final class ParameterClassMatcher implements AbstractFuzzyMatcher<Class<?>[]> {
 
         /**
@@ -240,6 +277,23 @@ public class FuzzyMethodContract extends AbstractFuzzyMember<MethodInfo> {
         public String toString() {
             return String.format("{ Parameter Type: %s, Index: %s }", this.typeMatcher, this.indexMatch);
         }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            } else if (obj instanceof ParameterClassMatcher) {
+                ParameterClassMatcher other = (ParameterClassMatcher) obj;
+                return this.typeMatcher.equals(other.typeMatcher) && Objects.equals(this.indexMatch, other.indexMatch);
+            } else {
+                return false;
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.typeMatcher, this.indexMatch);
+        }
     }
 
     /**
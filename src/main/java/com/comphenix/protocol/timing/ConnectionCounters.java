@@ -0,0 +1,66 @@
+package com.comphenix.protocol.timing;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.concurrency.PacketTypeTable;
+import org.bukkit.entity.Player;
+
+/**
+ * Counts the packets sent and received by a single connection.
+ * <p>
+ * Every packet is also added to the server-wide counters of the owning {@link PacketThroughputManager}.
+ */
+public class ConnectionCounters {
+
+    private final PacketThroughputManager manager;
+    private final Supplier<Player> player;
+    private final PacketTypeTable<PacketCounter> counters = new PacketTypeTable<>(type -> new PacketCounter());
+
+    ConnectionCounters(PacketThroughputManager manager, Supplier<Player> player) {
+        this.manager = manager;
+        this.player = player;
+    }
+
+    /**
+     * Record a packet sent or received by this connection.
+     *
+     * @param type - the packet type.
+     * @param size - the encoded size of the packet in bytes, or zero if unknown.
+     */
+    public void record(PacketType type, long size) {
+        this.counters.get(type).record(size);
+        this.manager.record(type, size);
+    }
+
+    /**
+     * Retrieve the player of this connection.
+     *
+     * @return The player, or NULL if the player has not joined yet.
+     */
+    public Player getPlayer() {
+        return this.player.get();
+    }
+
+    /**
+     * Retrieve the current counts of this connection.
+     *
+     * @return The counts, indexed by packet type.
+     */
+    public Map<PacketType, PacketCount> getCounts() {
+        long timestamp = System.nanoTime();
+        Map<PacketType, PacketCount> counts = new HashMap<>();
+
+        this.counters.forEach((type, counter) -> counts.put(type, counter.snapshot(timestamp)));
+        return counts;
+    }
+
+    /**
+     * Stop including this connection in the per-player counts.
+     */
+    public void close() {
+        this.manager.unregister(this);
+    }
+}
@@ -0,0 +1,92 @@
+package com.comphenix.protocol.timing;
+
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.events.ListenerPriority;
+import com.comphenix.protocol.events.PacketEvent;
+import com.comphenix.protocol.events.PacketListener;
+
+/**
+ * Records the flight recorder events of ProtocolLib, if the running JVM supports them.
+ * <p>
+ * The flight recorder is missing from older Java 8 builds, so the event classes are only loaded after a one-time check
+ * found it. Recordings are passed around as plain objects for the same reason, and are NULL while nothing is recorded.
+ *
+ * @see ListenerInvocationEvent
+ * @see PacketInterceptionEvent
+ */
+public final class FlightRecorderEvents {
+
+    // whether jdk.jfr is present, checked once
+    private static final boolean AVAILABLE = isFlightRecorderAvailable();
+
+    private FlightRecorderEvents() {
+    }
+
+    private static boolean isFlightRecorderAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, FlightRecorderEvents.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Determine if the running JVM supports flight recorder events.
+     *
+     * @return TRUE if it does, FALSE otherwise.
+     */
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    /**
+     * Begin recording a listener invocation, if the event is enabled.
+     *
+     * @param event    - the packet event.
+     * @param listener - the listener that will be invoked.
+     * @param priority - the priority of the listener.
+     * @return The started recording, or NULL if the event is disabled or unsupported.
+     * @see ListenerInvocationEvent#start(PacketEvent, PacketListener, ListenerPriority)
+     */
+    public static Object startListenerInvocation(PacketEvent event, PacketListener listener, ListenerPriority priority) {
+        return AVAILABLE ? ListenerInvocationEvent.start(event, listener, priority) : null;
+    }
+
+    /**
+     * Finish and commit a listener invocation recording.
+     *
+     * @param recording - the recording, or NULL.
+     * @param event     - the packet event.
+     */
+    public static void finishListenerInvocation(Object recording, PacketEvent event) {
+        if (recording != null) {
+            ((ListenerInvocationEvent) recording).finish(event);
+        }
+    }
+
+    /**
+     * Begin recording a packet interception, if the event is enabled.
+     *
+     * @param outbound - TRUE if the packet is sent by the server, FALSE otherwise.
+     * @return The started recording, or NULL if the event is disabled or unsupported.
+     * @see PacketInterceptionEvent#start(boolean)
+     */
+    public static Object startPacketInterception(boolean outbound) {
+        return AVAILABLE ? PacketInterceptionEvent.start(outbound) : null;
+    }
+
+    /**
+     * Finish and commit a packet interception recording.
+     *
+     * @param recording - the recording, or NULL.
+     * @param type      - the type of the intercepted packet, or NULL if unknown.
+     * @param player    - the name of the player, or NULL if unknown.
+     * @param event     - the resulting packet event, or NULL if no listener handled the packet.
+     */
+    public static void finishPacketInterception(Object recording, PacketType type, String player, PacketEvent event) {
+        if (recording != null) {
+            ((PacketInterceptionEvent) recording).finish(type, player, event);
+        }
+    }
+}
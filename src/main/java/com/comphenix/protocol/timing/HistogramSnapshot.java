@@ -0,0 +1,161 @@
+package com.comphenix.protocol.timing;
+
+/**
+ * An immutable copy of the values recorded by a {@link LogHistogram}.
+ */
+public class HistogramSnapshot {
+
+    /**
+     * A snapshot without any observations.
+     */
+    public static final HistogramSnapshot EMPTY = new HistogramSnapshot(new long[LogHistogram.BUCKETS], 0, Long.MAX_VALUE, 0);
+
+    private final long[] counts;
+    private final long count;
+    private final long sum;
+    private final long minimum;
+    private final long maximum;
+
+    HistogramSnapshot(long[] counts, long sum, long minimum, long maximum) {
+        long count = 0;
+        for (long bucket : counts) {
+            count += bucket;
+        }
+
+        this.counts = counts;
+        this.count = count;
+        this.sum = sum;
+        this.minimum = minimum;
+        this.maximum = maximum;
+    }
+
+    /**
+     * Retrieve the number of observations.
+     *
+     * @return Number of observations.
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * Retrieve the sum of every observation.
+     *
+     * @return The sum.
+     */
+    public long getSum() {
+        return this.sum;
+    }
+
+    /**
+     * Retrieve the average of all the observations.
+     *
+     * @return The average, or zero if there are no observations.
+     */
+    public double getMean() {
+        return this.count == 0 ? 0 : (double) this.sum / this.count;
+    }
+
+    /**
+     * Retrieve the minimum observation.
+     *
+     * @return The minimum, or zero if there are no observations.
+     */
+    public long getMinimum() {
+        return this.count == 0 ? 0 : this.minimum;
+    }
+
+    /**
+     * Retrieve the maximum observation.
+     *
+     * @return The maximum, or zero if there are no observations.
+     */
+    public long getMaximum() {
+        return this.maximum;
+    }
+
+    /**
+     * Retrieve the value below which the given percentage of observations fall.
+     * <p>
+     * The result is the upper bound of the bucket containing the percentile, so it may overestimate the real value by
+     * up to 1 / {@link LogHistogram#SUB_BUCKETS}.
+     *
+     * @param percentile - the percentile, between 0 and 100.
+     * @return The value at the given percentile, or zero if there are no observations.
+     */
+    public long getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile must be between 0 and 100, got " + percentile);
+        }
+        if (this.count == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * this.count));
+        long seen = 0;
+
+        for (int i = 0; i < this.counts.length; i++) {
+            seen += this.counts[i];
+
+            if (seen >= rank) {
+                long value = Math.min(LogHistogram.upperBound(i), this.maximum);
+                return Math.max(value, this.minimum);
+            }
+        }
+        return this.maximum;
+    }
+
+    /**
+     * Combine the two snapshots.
+     *
+     * @param other - the other snapshot.
+     * @return The combined snapshot.
+     */
+    public HistogramSnapshot add(HistogramSnapshot other) {
+        long[] counts = new long[this.counts.length];
+
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = this.counts[i] + other.counts[i];
+        }
+        return new HistogramSnapshot(counts, this.sum + other.sum,
+                Math.min(this.minimum, other.minimum), Math.max(this.maximum, other.maximum));
+    }
+
+    /**
+     * Convert this snapshot to a statistics stream.
+     * <p>
+     * The count, mean and extremes are exact, while the variance is estimated from the bucket midpoints.
+     *
+     * @return The equivalent statistics.
+     */
+    public StatisticsStream toStatistics() {
+        if (this.count == 0) {
+            return new StatisticsStream();
+        }
+
+        double mean = this.getMean();
+        double m2 = 0;
+
+        for (int i = 0; i < this.counts.length; i++) {
+            if (this.counts[i] > 0) {
+                long upper = Math.min(LogHistogram.upperBound(i), this.maximum);
+                double midpoint = (LogHistogram.lowerBound(i) + upper) / 2.0;
+                double delta = midpoint - mean;
+
+                m2 += this.counts[i] * delta * delta;
+            }
+        }
+        return new StatisticsStream((int) Math.min(this.count, Integer.MAX_VALUE), mean, m2, this.minimum, this.maximum);
+    }
+
+    @Override
+    public String toString() {
+        if (this.count == 0) {
+            return "HistogramSnapshot [Nothing recorded]";
+        }
+
+        return String.format("HistogramSnapshot [Count: %s, Mean: %.3f, p50: %s, p99: %s, p999: %s, Max: %s]",
+                this.count, this.getMean(), this.getPercentile(50), this.getPercentile(99),
+                this.getPercentile(99.9), this.maximum);
+    }
+}
@@ -0,0 +1,100 @@
+package com.comphenix.protocol.timing;
+
+import com.comphenix.protocol.events.ListenerPriority;
+import com.comphenix.protocol.events.PacketEvent;
+import com.comphenix.protocol.events.PacketListener;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * A flight recorder event covering a single packet listener handling a packet.
+ * <p>
+ * Enable it in a recording with the setting {@code com.comphenix.protocol.ListenerInvocation#enabled=true}. While the
+ * event is disabled, {@link #start(PacketEvent, PacketListener, ListenerPriority)} returns NULL without allocating.
+ * <p>
+ * This class can only be loaded on JVMs with a flight recorder, so use {@link FlightRecorderEvents} instead.
+ */
+@Name("com.comphenix.protocol.ListenerInvocation")
+@Label("Packet Listener Invocation")
+@Category("ProtocolLib")
+@Description("A packet listener handling a packet event")
+@StackTrace(false)
+public class ListenerInvocationEvent extends Event {
+
+    // only used to check whether the event is enabled
+    private static final ListenerInvocationEvent PROBE = new ListenerInvocationEvent();
+
+    @Label("Packet Type")
+    String packetType;
+
+    @Label("Plugin")
+    String plugin;
+
+    @Label("Priority")
+    String priority;
+
+    @Label("Cancelled")
+    @Description("Whether the packet was cancelled after the listener returned")
+    boolean cancelled;
+
+    @Label("Thread Kind")
+    @Description("Either main, netty or async")
+    String threadKind;
+
+    /**
+     * Begin recording a listener invocation, if the event is enabled.
+     *
+     * @param event    - the packet event.
+     * @param listener - the listener that will be invoked.
+     * @param priority - the priority of the listener.
+     * @return The started recording, or NULL if the event is disabled.
+     */
+    public static ListenerInvocationEvent start(PacketEvent event, PacketListener listener, ListenerPriority priority) {
+        if (!PROBE.isEnabled()) {
+            return null;
+        }
+
+        ListenerInvocationEvent recording = new ListenerInvocationEvent();
+        recording.begin();
+
+        Plugin plugin = listener.getPlugin();
+        recording.packetType = String.valueOf(event.getPacketType());
+        recording.plugin = plugin != null ? plugin.getName() : "Unknown";
+        recording.priority = String.valueOf(priority);
+        recording.threadKind = threadKind(event.isAsynchronous());
+        return recording;
+    }
+
+    /**
+     * Finish and commit this recording.
+     *
+     * @param event - the packet event.
+     */
+    public void finish(PacketEvent event) {
+        this.end();
+
+        if (this.shouldCommit()) {
+            this.cancelled = event.isCancelled();
+            this.commit();
+        }
+    }
+
+    /**
+     * Retrieve the kind of the current thread.
+     *
+     * @param asynchronous - whether the packet is processed by an asynchronous listener.
+     * @return Either main, netty or async.
+     */
+    static String threadKind(boolean asynchronous) {
+        if (Bukkit.isPrimaryThread()) {
+            return "main";
+        }
+        return asynchronous ? "async" : "netty";
+    }
+}
@@ -0,0 +1,150 @@
+package com.comphenix.protocol.timing;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free histogram of non-negative values, using logarithmic buckets.
+ * <p>
+ * Each power of two is split into {@link #SUB_BUCKETS} linear sub-buckets, which bounds the relative error of
+ * every reported percentile to 1 / {@link #SUB_BUCKETS}. Values above 2^{@link #MAX_EXPONENT} are recorded in the
+ * last bucket. Observations are spread over a few stripes to reduce contention between threads.
+ *
+ * @see HistogramSnapshot
+ */
+public class LogHistogram {
+
+    /**
+     * The number of linear sub-buckets in every power of two.
+     */
+    public static final int SUB_BUCKETS = 8;
+
+    /**
+     * The largest power of two with its own buckets. In nanoseconds, this is about 18 minutes.
+     */
+    public static final int MAX_EXPONENT = 40;
+
+    private static final int SUB_BUCKET_BITS = Integer.numberOfTrailingZeros(SUB_BUCKETS);
+
+    /**
+     * The total number of buckets.
+     */
+    public static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    // Layout of every stripe: the bucket counts, followed by the sum, the minimum and the maximum
+    private static final int SUM_OFFSET = BUCKETS;
+    private static final int MIN_OFFSET = BUCKETS + 1;
+    private static final int MAX_OFFSET = BUCKETS + 2;
+    private static final int STRIPE_SIZE = BUCKETS + 3;
+    private static final int STRIPES = 4;
+
+    private final AtomicLongArray cells = new AtomicLongArray(STRIPES * STRIPE_SIZE);
+
+    public LogHistogram() {
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            this.cells.set(stripe * STRIPE_SIZE + MIN_OFFSET, Long.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Retrieve the bucket a given value is stored in.
+     *
+     * @param value - the value, which cannot be negative.
+     * @return The index of the bucket.
+     */
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Retrieve the smallest value stored in the given bucket.
+     *
+     * @param index - the index of the bucket.
+     * @return The smallest value.
+     */
+    static long lowerBound(int index) {
+        int group = index / SUB_BUCKETS;
+        int subBucket = index % SUB_BUCKETS;
+
+        if (group == 0) {
+            return index;
+        }
+        return (long) (SUB_BUCKETS + subBucket) << (group - 1);
+    }
+
+    /**
+     * Retrieve the largest value stored in the given bucket.
+     *
+     * @param index - the index of the bucket.
+     * @return The largest value.
+     */
+    static long upperBound(int index) {
+        if (index >= BUCKETS - 1) {
+            return Long.MAX_VALUE;
+        }
+        return lowerBound(index + 1) - 1;
+    }
+
+    /**
+     * Record a given value.
+     *
+     * @param value - the value, negative values are recorded as zero.
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+
+        int base = ((int) Thread.currentThread().getId() & (STRIPES - 1)) * STRIPE_SIZE;
+        this.cells.incrementAndGet(base + bucketIndex(value));
+        this.cells.addAndGet(base + SUM_OFFSET, value);
+
+        // update the extremes, this rarely loops more than once
+        long current;
+        while (value < (current = this.cells.get(base + MIN_OFFSET))) {
+            if (this.cells.compareAndSet(base + MIN_OFFSET, current, value)) {
+                break;
+            }
+        }
+        while (value > (current = this.cells.get(base + MAX_OFFSET))) {
+            if (this.cells.compareAndSet(base + MAX_OFFSET, current, value)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Retrieve a snapshot of every value recorded so far.
+     * <p>
+     * This never blocks recording threads, so values recorded concurrently may or may not be included.
+     *
+     * @return The snapshot.
+     */
+    public HistogramSnapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        long sum = 0;
+        long minimum = Long.MAX_VALUE;
+        long maximum = 0;
+
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            int base = stripe * STRIPE_SIZE;
+
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] += this.cells.get(base + i);
+            }
+            sum += this.cells.get(base + SUM_OFFSET);
+            minimum = Math.min(minimum, this.cells.get(base + MIN_OFFSET));
+            maximum = Math.max(maximum, this.cells.get(base + MAX_OFFSET));
+        }
+        return new HistogramSnapshot(counts, sum, minimum, maximum);
+    }
+}
@@ -0,0 +1,91 @@
+package com.comphenix.protocol.timing;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The number of packets and encoded bytes of a packet type at a given point in time.
+ * <p>
+ * Counts only ever increase, so rates are computed by comparing two counts of the same packet type.
+ */
+public class PacketCount {
+
+    private final long packets;
+    private final long bytes;
+    private final long timestamp;
+
+    public PacketCount(long packets, long bytes, long timestamp) {
+        this.packets = packets;
+        this.bytes = bytes;
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * Retrieve the number of packets.
+     *
+     * @return The number of packets.
+     */
+    public long getPackets() {
+        return this.packets;
+    }
+
+    /**
+     * Retrieve the total size of the encoded packets, in bytes.
+     *
+     * @return The number of bytes.
+     */
+    public long getBytes() {
+        return this.bytes;
+    }
+
+    /**
+     * Retrieve the time of this count, as given by {@link System#nanoTime()}.
+     *
+     * @return The time of this count.
+     */
+    public long getTimestamp() {
+        return this.timestamp;
+    }
+
+    /**
+     * Retrieve the number of packets per second since an earlier count.
+     *
+     * @param earlier - the earlier count.
+     * @return Packets per second, or zero if no time has passed.
+     */
+    public double getPacketsPerSecond(PacketCount earlier) {
+        return rate(this.packets - earlier.packets, this.timestamp - earlier.timestamp);
+    }
+
+    /**
+     * Retrieve the number of encoded bytes per second since an earlier count.
+     *
+     * @param earlier - the earlier count.
+     * @return Bytes per second, or zero if no time has passed.
+     */
+    public double getBytesPerSecond(PacketCount earlier) {
+        return rate(this.bytes - earlier.bytes, this.timestamp - earlier.timestamp);
+    }
+
+    /**
+     * Combine the two counts, keeping the latest timestamp.
+     *
+     * @param other - the other count.
+     * @return The combined count.
+     */
+    public PacketCount add(PacketCount other) {
+        return new PacketCount(this.packets + other.packets, this.bytes + other.bytes,
+                Math.max(this.timestamp, other.timestamp));
+    }
+
+    private static double rate(long delta, long elapsedNanos) {
+        if (elapsedNanos <= 0) {
+            return 0;
+        }
+        return delta * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "PacketCount [packets=" + this.packets + ", bytes=" + this.bytes + "]";
+    }
+}
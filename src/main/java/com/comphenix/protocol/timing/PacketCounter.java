@@ -0,0 +1,34 @@
+package com.comphenix.protocol.timing;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the packets of a single packet type, along with their encoded size.
+ */
+public class PacketCounter {
+
+    private final LongAdder packets = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+
+    /**
+     * Record a single packet.
+     *
+     * @param size - the encoded size of the packet in bytes, or zero if unknown.
+     */
+    public void record(long size) {
+        this.packets.increment();
+        if (size > 0) {
+            this.bytes.add(size);
+        }
+    }
+
+    /**
+     * Retrieve an immutable copy of the current counts.
+     *
+     * @param timestamp - the time of the snapshot, as given by {@link System#nanoTime()}.
+     * @return The current counts.
+     */
+    public PacketCount snapshot(long timestamp) {
+        return new PacketCount(this.packets.sum(), this.bytes.sum(), timestamp);
+    }
+}
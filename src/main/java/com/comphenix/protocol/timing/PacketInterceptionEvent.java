@@ -0,0 +1,81 @@
+package com.comphenix.protocol.timing;
+
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.events.PacketEvent;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A flight recorder event covering the interception of a packet by the channel injector, including every listener.
+ * <p>
+ * Enable it in a recording with the setting {@code com.comphenix.protocol.PacketInterception#enabled=true}. While the
+ * event is disabled, {@link #start(boolean)} returns NULL without allocating.
+ * <p>
+ * This class can only be loaded on JVMs with a flight recorder, so use {@link FlightRecorderEvents} instead.
+ */
+@Name("com.comphenix.protocol.PacketInterception")
+@Label("Packet Interception")
+@Category("ProtocolLib")
+@Description("A packet passing through the packet listeners of a channel")
+@StackTrace(false)
+public class PacketInterceptionEvent extends Event {
+
+    // only used to check whether the event is enabled
+    private static final PacketInterceptionEvent PROBE = new PacketInterceptionEvent();
+
+    @Label("Packet Type")
+    String packetType;
+
+    @Label("Outbound")
+    boolean outbound;
+
+    @Label("Player")
+    String player;
+
+    @Label("Cancelled")
+    boolean cancelled;
+
+    @Label("Thread Kind")
+    @Description("Either main, netty or async")
+    String threadKind;
+
+    /**
+     * Begin recording a packet interception, if the event is enabled.
+     *
+     * @param outbound - TRUE if the packet is sent by the server, FALSE otherwise.
+     * @return The started recording, or NULL if the event is disabled.
+     */
+    public static PacketInterceptionEvent start(boolean outbound) {
+        if (!PROBE.isEnabled()) {
+            return null;
+        }
+
+        PacketInterceptionEvent recording = new PacketInterceptionEvent();
+        recording.begin();
+        recording.outbound = outbound;
+        recording.threadKind = ListenerInvocationEvent.threadKind(false);
+        return recording;
+    }
+
+    /**
+     * Finish and commit this recording.
+     *
+     * @param type   - the type of the intercepted packet, or NULL if unknown.
+     * @param player - the name of the player, or NULL if unknown.
+     * @param event  - the resulting packet event, or NULL if no listener handled the packet.
+     */
+    public void finish(PacketType type, String player, PacketEvent event) {
+        this.end();
+
+        if (this.shouldCommit()) {
+            this.packetType = String.valueOf(type);
+            this.player = player;
+            this.cancelled = event != null && event.isCancelled();
+            this.commit();
+        }
+    }
+}
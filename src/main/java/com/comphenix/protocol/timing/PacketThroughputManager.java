@@ -0,0 +1,267 @@
+package com.comphenix.protocol.timing;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.PacketType.Sender;
+import com.comphenix.protocol.ProtocolLogger;
+import com.comphenix.protocol.concurrency.PacketTypeTable;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.bukkit.entity.Player;
+
+/**
+ * Represents a system for counting the packets and encoded bytes of every packet type, both server-wide and for each
+ * connected player.
+ * <p>
+ * Counts only ever increase. Use {@link PacketCount#getPacketsPerSecond(PacketCount)} on two counts to compute a rate,
+ * or {@link #startExport(File, long, TimeUnit)} to periodically write the counts in the Prometheus text format.
+ * <p>
+ * Only connections injected while counting is enabled are counted.
+ */
+public class PacketThroughputManager {
+
+    // The shared manager
+    private static final PacketThroughputManager INSTANCE = new PacketThroughputManager();
+
+    private volatile boolean enabled;
+
+    // Server-wide counters and the currently counted connections
+    private final PacketTypeTable<PacketCounter> totals = new PacketTypeTable<>(type -> new PacketCounter());
+    private final Set<ConnectionCounters> connections = ConcurrentHashMap.newKeySet();
+
+    private ScheduledExecutorService exporter;
+
+    /**
+     * Retrieve the shared throughput manager.
+     *
+     * @return The shared throughput manager.
+     */
+    public static PacketThroughputManager getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Determine if new connections are counted.
+     *
+     * @return TRUE if they are, FALSE otherwise.
+     */
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /**
+     * Set whether or not new connections should be counted.
+     *
+     * @param enabled - TRUE to count new connections, FALSE otherwise.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Start counting the packets of a new connection.
+     *
+     * @param player - supplies the player of the connection, or NULL if the player has not joined yet.
+     * @return The counters of this connection.
+     */
+    public ConnectionCounters register(Supplier<Player> player) {
+        ConnectionCounters counters = new ConnectionCounters(this, player);
+        this.connections.add(counters);
+        return counters;
+    }
+
+    void unregister(ConnectionCounters counters) {
+        this.connections.remove(counters);
+    }
+
+    void record(PacketType type, long size) {
+        this.totals.get(type).record(size);
+    }
+
+    /**
+     * Retrieve the server-wide counts of every packet type.
+     *
+     * @return The counts, indexed by packet type.
+     */
+    public Map<PacketType, PacketCount> getTotals() {
+        long timestamp = System.nanoTime();
+        Map<PacketType, PacketCount> counts = new HashMap<>();
+
+        this.totals.forEach((type, counter) -> counts.put(type, counter.snapshot(timestamp)));
+        return counts;
+    }
+
+    /**
+     * Retrieve the server-wide counts of every packet type sent by the given sender.
+     *
+     * @param sender - the sender, SERVER for outgoing and CLIENT for incoming packets.
+     * @return The counts, indexed by packet type.
+     */
+    public Map<PacketType, PacketCount> getTotals(Sender sender) {
+        Map<PacketType, PacketCount> counts = this.getTotals();
+
+        counts.keySet().removeIf(type -> type.getSender() != sender);
+        return counts;
+    }
+
+    /**
+     * Retrieve the counts of the given player.
+     *
+     * @param player - the player.
+     * @return The counts, indexed by packet type. Empty if the player is not counted.
+     */
+    public Map<PacketType, PacketCount> getCounts(Player player) {
+        Map<PacketType, PacketCount> counts = new HashMap<>();
+
+        for (ConnectionCounters connection : this.connections) {
+            if (player.equals(connection.getPlayer())) {
+                connection.getCounts().forEach((type, count) -> counts.merge(type, count, PacketCount::add));
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Retrieve the counts of every connected player.
+     * <p>
+     * Connections that have not completed the login are only included in the totals.
+     *
+     * @return The counts, indexed by player and packet type.
+     */
+    public Map<Player, Map<PacketType, PacketCount>> getPlayerCounts() {
+        Map<Player, Map<PacketType, PacketCount>> counts = new HashMap<>();
+
+        for (ConnectionCounters connection : this.connections) {
+            Player player = connection.getPlayer();
+
+            if (player != null) {
+                Map<PacketType, PacketCount> playerCounts = counts.computeIfAbsent(player, p -> new HashMap<>());
+                connection.getCounts().forEach((type, count) -> playerCounts.merge(type, count, PacketCount::add));
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Periodically write every count to the given file on a background thread, using the Prometheus text format.
+     *
+     * @param file   - the file to write.
+     * @param period - the time between each write.
+     * @param unit   - the unit of the period.
+     */
+    public synchronized void startExport(File file, long period, TimeUnit unit) {
+        this.stopExport();
+
+        this.exporter = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("ProtocolLib-PacketMetrics %s")
+                .build());
+        this.exporter.scheduleWithFixedDelay(() -> this.export(file.toPath()), period, period, unit);
+    }
+
+    /**
+     * Stop writing the counts to a file.
+     */
+    public synchronized void stopExport() {
+        if (this.exporter != null) {
+            this.exporter.shutdownNow();
+            this.exporter = null;
+        }
+    }
+
+    private void export(Path path) {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try {
+            try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                this.writeExposition(writer);
+            }
+
+            // make sure a scraper never reads a partial file
+            try {
+                Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            ProtocolLogger.log(Level.WARNING, "Unable to write packet metrics to " + path, e);
+        }
+    }
+
+    /**
+     * Write every count in the Prometheus text format.
+     *
+     * @param writer - the destination.
+     * @throws IOException If the counts could not be written.
+     */
+    public void writeExposition(Writer writer) throws IOException {
+        Map<PacketType, PacketCount> totals = this.getTotals();
+        Map<Player, Map<PacketType, PacketCount>> players = this.getPlayerCounts();
+
+        writeHeader(writer, "protocollib_packets_total", "Number of packets by packet type.");
+        for (Map.Entry<PacketType, PacketCount> entry : totals.entrySet()) {
+            writeSample(writer, "protocollib_packets_total", null, entry.getKey(), entry.getValue().getPackets());
+        }
+
+        writeHeader(writer, "protocollib_packet_bytes_total", "Encoded size of the packets by packet type.");
+        for (Map.Entry<PacketType, PacketCount> entry : totals.entrySet()) {
+            writeSample(writer, "protocollib_packet_bytes_total", null, entry.getKey(), entry.getValue().getBytes());
+        }
+
+        writeHeader(writer, "protocollib_player_packets_total", "Number of packets by player and packet type.");
+        for (Map.Entry<Player, Map<PacketType, PacketCount>> player : players.entrySet()) {
+            for (Map.Entry<PacketType, PacketCount> entry : player.getValue().entrySet()) {
+                writeSample(writer, "protocollib_player_packets_total", player.getKey().getName(), entry.getKey(),
+                        entry.getValue().getPackets());
+            }
+        }
+
+        writeHeader(writer, "protocollib_player_packet_bytes_total", "Encoded size of the packets by player and packet type.");
+        for (Map.Entry<Player, Map<PacketType, PacketCount>> player : players.entrySet()) {
+            for (Map.Entry<PacketType, PacketCount> entry : player.getValue().entrySet()) {
+                writeSample(writer, "protocollib_player_packet_bytes_total", player.getKey().getName(), entry.getKey(),
+                        entry.getValue().getBytes());
+            }
+        }
+        writer.flush();
+    }
+
+    private static void writeHeader(Writer writer, String metric, String help) throws IOException {
+        writer.write("# HELP " + metric + " " + help + "\n");
+        writer.write("# TYPE " + metric + " counter\n");
+    }
+
+    private static void writeSample(Writer writer, String metric, String player, PacketType type, long value)
+            throws IOException {
+        StringBuilder builder = new StringBuilder(metric).append('{');
+
+        if (player != null) {
+            builder.append("player=\"").append(escape(player)).append("\",");
+        }
+        builder.append("protocol=\"").append(type.getProtocol().name()).append("\",")
+                .append("sender=\"").append(type.getSender().name()).append("\",")
+                .append("packet=\"").append(escape(type.name())).append("\"} ")
+                .append(value).append('\n');
+        writer.write(builder.toString());
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,213 @@
+package com.comphenix.protocol.timing;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures the wall time and allocated memory of each phase of the initialization of ProtocolLib.
+ * <p>
+ * Phases are nested by thread - a phase that begins while another is running on the same thread is recorded as its
+ * child. Phases that run more than once, like class lookups, are summed up. The allocated memory only covers the thread
+ * running the phase, and is omitted if the JVM cannot measure it.
+ * <p>
+ * While disabled, beginning a phase costs a single volatile read.
+ */
+public final class StartupProfiler {
+
+    // The shared profiler
+    private static final StartupProfiler INSTANCE = new StartupProfiler();
+
+    // Returned while disabled
+    private static final Phase NO_OP = new Phase(null, null, null);
+
+    private volatile boolean enabled;
+
+    private final ThreadLocal<Phase> currentPhase = new ThreadLocal<>();
+    private final Map<String, PhaseStatistics> statistics = new ConcurrentHashMap<>();
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    /**
+     * Retrieve the shared startup profiler.
+     *
+     * @return The shared startup profiler.
+     */
+    public static StartupProfiler getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Determine if phases are being recorded.
+     *
+     * @return TRUE if they are, FALSE otherwise.
+     */
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /**
+     * Set whether phases are recorded.
+     *
+     * @param enabled - TRUE to record phases, FALSE otherwise.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Begin a phase on the current thread, which must be closed on the same thread.
+     * <pre><code>
+     * try (StartupProfiler.Phase ignored = StartupProfiler.getInstance().begin("PacketRegistry.initialize")) {
+     *     ...
+     * }
+     * </code></pre>
+     *
+     * @param name - the name of the phase.
+     * @return The phase.
+     */
+    public Phase begin(String name) {
+        if (!this.enabled) {
+            return NO_OP;
+        }
+
+        Phase parent = this.currentPhase.get();
+        Phase phase = new Phase(this, parent, parent != null ? parent.path + "/" + name : name);
+        this.currentPhase.set(phase);
+        return phase;
+    }
+
+    private void end(Phase phase, long elapsedNanos, long allocatedBytes) {
+        if (phase.parent != null) {
+            this.currentPhase.set(phase.parent);
+        } else {
+            this.currentPhase.remove();
+        }
+
+        PhaseStatistics statistics = this.statistics.computeIfAbsent(phase.path,
+                path -> new PhaseStatistics(this.sequence.getAndIncrement()));
+        statistics.count.increment();
+        statistics.nanos.add(elapsedNanos);
+        if (allocatedBytes >= 0) {
+            statistics.allocatedBytes.add(allocatedBytes);
+        }
+    }
+
+    /**
+     * Write every recorded phase to the given file as JSON, in the order they first completed.
+     *
+     * @param file - the destination file.
+     * @throws IOException If the file could not be written.
+     */
+    public void writeReport(File file) throws IOException {
+        List<Map.Entry<String, PhaseStatistics>> phases = new ArrayList<>(this.statistics.entrySet());
+        phases.sort(Comparator.comparingInt(entry -> entry.getValue().sequence));
+
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            Files.createDirectories(parent.toPath());
+        }
+
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            writer.write("{\n");
+            writer.write("  \"jvmUptimeMillis\": " + ManagementFactory.getRuntimeMXBean().getUptime() + ",\n");
+            writer.write("  \"allocationTracked\": " + (TimedTracker.THREAD_BEAN != null) + ",\n");
+            writer.write("  \"phases\": [");
+
+            for (int i = 0; i < phases.size(); i++) {
+                String path = phases.get(i).getKey();
+                PhaseStatistics statistics = phases.get(i).getValue();
+
+                writer.write(i > 0 ? ",\n" : "\n");
+                writer.write(String.format(Locale.ROOT,
+                        "    {\"path\": \"%s\", \"depth\": %d, \"count\": %d, \"wallMillis\": %.3f, \"allocatedBytes\": %d}",
+                        escape(path),
+                        path.length() - path.replace("/", "").length(),
+                        statistics.count.sum(),
+                        statistics.nanos.sum() / 1e6,
+                        TimedTracker.THREAD_BEAN != null ? statistics.allocatedBytes.sum() : -1));
+            }
+            writer.write("\n  ]\n}\n");
+        }
+    }
+
+    private static String escape(String value) {
+        StringBuilder builder = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                builder.append('\\').append(c);
+            } else if (c < 0x20) {
+                builder.append(String.format("\\u%04x", (int) c));
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Represents a running phase.
+     */
+    public static final class Phase implements AutoCloseable {
+
+        private final StartupProfiler profiler;
+        private final Phase parent;
+        private final String path;
+        private final long startTime;
+        private final long startAllocated;
+
+        private Phase(StartupProfiler profiler, Phase parent, String path) {
+            this.profiler = profiler;
+            this.parent = parent;
+            this.path = path;
+
+            if (profiler != null) {
+                this.startAllocated = TimedTracker.THREAD_BEAN != null
+                        ? TimedTracker.THREAD_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId())
+                        : -1;
+                this.startTime = System.nanoTime();
+            } else {
+                this.startAllocated = -1;
+                this.startTime = 0;
+            }
+        }
+
+        /**
+         * End this phase.
+         */
+        @Override
+        public void close() {
+            if (this.profiler == null) {
+                return;
+            }
+
+            long elapsed = System.nanoTime() - this.startTime;
+            long allocated = this.startAllocated >= 0
+                    ? TimedTracker.THREAD_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId()) - this.startAllocated
+                    : -1;
+            this.profiler.end(this, elapsed, allocated);
+        }
+    }
+
+    private static final class PhaseStatistics {
+
+        private final int sequence;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder allocatedBytes = new LongAdder();
+
+        private PhaseStatistics(int sequence) {
+            this.sequence = sequence;
+        }
+    }
+}
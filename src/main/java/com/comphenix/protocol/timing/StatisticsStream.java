@@ -24,6 +24,23 @@ public class StatisticsStream extends OnlineComputation {
     public StatisticsStream() {
     }
 
+    /**
+     * Construct a stream from precomputed statistics.
+     *
+     * @param count   - the number of observations.
+     * @param mean    - the average of the observations.
+     * @param m2      - the sum of squared differences from the mean.
+     * @param minimum - the minimum observation.
+     * @param maximum - the maximum observation.
+     */
+    StatisticsStream(int count, double mean, double m2, double minimum, double maximum) {
+        this.count = count;
+        this.mean = mean;
+        this.m2 = m2;
+        this.minimum = minimum;
+        this.maximum = maximum;
+    }
+
     /**
      * Construct a copy of the given stream.
      *
@@ -2,6 +2,8 @@ package com.comphenix.protocol.timing;
 
 import java.util.Calendar;
 import java.util.Date;
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -11,9 +13,13 @@ import org.bukkit.plugin.Plugin;
 
 import com.comphenix.protocol.events.PacketListener;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
 
 /**
  * Represents a system for recording the time spent by each packet listener.
+ * <p>
+ * Every observation is stored in a lock-free histogram, so timing may be left running indefinitely. Use
+ * {@link TimedTracker#getSnapshots()} to retrieve the percentiles of a plugin and packet type at any time.
  * @author Kristian
  */
 public class TimedListenerManager {
@@ -173,12 +179,12 @@ public class TimedListenerManager {
      * @return A map of listeners and timed trackers.
      */
     private ImmutableMap<ListenerType, TimedTracker> newTrackerMap() {
-        ImmutableMap.Builder<ListenerType, TimedTracker> builder = ImmutableMap.builder();
+        Map<ListenerType, TimedTracker> trackers = new EnumMap<>(ListenerType.class);
         
         // Construct a map with every listener type
         for (ListenerType type : ListenerType.values()) {
-            builder.put(type, new TimedTracker());
+            trackers.put(type, new TimedTracker());
         }
-        return builder.build();
+        return Maps.immutableEnumMap(trackers);
     }
 }
@@ -1,21 +1,45 @@
 package com.comphenix.protocol.timing;
 
 import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.concurrency.PacketTypeTable;
+import java.lang.management.ManagementFactory;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Tracks the invocation time for a particular plugin against a list of packets.
+ * <p>
+ * Observations are recorded in lock-free histograms indexed by {@link PacketType#ordinal()}, so tracking is cheap
+ * enough to be left enabled. If the JVM supports it, the memory allocated by every invocation is recorded as well.
  *
  * @author Kristian
  */
 public class TimedTracker {
 
-    // Table of packets and invocations
-    private final AtomicInteger observations = new AtomicInteger();
-    private final Map<PacketType, StatisticsStream> packets = new HashMap<>();
+    // Used to measure the allocated memory of the current thread, or NULL if not supported
+    static final com.sun.management.ThreadMXBean THREAD_BEAN = getThreadBean();
+
+    // Table of packets and invocations, indexed by packet type ordinal
+    private final LongAdder observations = new LongAdder();
+    private final PacketTypeTable<PacketTiming> packets = new PacketTypeTable<>(type -> new PacketTiming());
+
+    private static com.sun.management.ThreadMXBean getThreadBean() {
+        try {
+            java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+
+            if (bean instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+
+                if (sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled()) {
+                    return sunBean;
+                }
+            }
+        } catch (LinkageError | RuntimeException ignored) {
+            // not a HotSpot JVM
+        }
+        return null;
+    }
 
     /**
      * Begin tracking an execution time.
@@ -26,22 +50,44 @@ public class TimedTracker {
         return System.nanoTime();
     }
 
+    /**
+     * Begin tracking the memory allocated by the current thread.
+     *
+     * @return The current allocation token, or -1 if allocations cannot be tracked.
+     */
+    public long beginAllocationTracking() {
+        return THREAD_BEAN != null ? THREAD_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId()) : -1;
+    }
+
     /**
      * Stop and record the execution time since the creation of the given tracking token.
      *
      * @param trackingToken - the tracking token.
      * @param type          - the packet type.
      */
-    public synchronized void endTracking(long trackingToken, PacketType type) {
-        StatisticsStream stream = this.packets.get(type);
+    public void endTracking(long trackingToken, PacketType type) {
+        this.endTracking(trackingToken, -1, type);
+    }
+
+    /**
+     * Stop and record the execution time and allocated memory since the creation of the given tokens.
+     * <p>
+     * Both tokens must have been created on the current thread.
+     *
+     * @param trackingToken   - the tracking token.
+     * @param allocationToken - the allocation token, or -1 to only record the execution time.
+     * @param type            - the packet type.
+     */
+    public void endTracking(long trackingToken, long allocationToken, PacketType type) {
+        PacketTiming timing = this.packets.get(type);
 
-        // Lazily create a stream
-        if (stream == null) {
-            this.packets.put(type, stream = new StatisticsStream());
-        }
         // Store this observation
-        stream.observe(System.nanoTime() - trackingToken);
-        this.observations.incrementAndGet();
+        timing.histogram.record(System.nanoTime() - trackingToken);
+        if (allocationToken >= 0) {
+            long allocated = THREAD_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId()) - allocationToken;
+            timing.allocatedBytes.add(Math.max(0, allocated));
+        }
+        this.observations.increment();
     }
 
     /**
@@ -50,23 +96,57 @@ public class TimedTracker {
      * @return Total number of observations.
      */
     public int getObservations() {
-        return this.observations.get();
+        return this.observations.intValue();
     }
 
     /**
      * Retrieve an map (indexed by packet type) of all relevant statistics.
+     * <p>
+     * The standard deviation is estimated from the underlying histogram.
      *
      * @return The map of statistics.
      */
-    public synchronized Map<PacketType, StatisticsStream> getStatistics() {
+    public Map<PacketType, StatisticsStream> getStatistics() {
         final Map<PacketType, StatisticsStream> clone = new HashMap<>();
 
-        for (Entry<PacketType, StatisticsStream> entry : this.packets.entrySet()) {
-            clone.put(
-                    entry.getKey(),
-                    new StatisticsStream(entry.getValue())
-            );
+        for (Map.Entry<PacketType, HistogramSnapshot> entry : this.getSnapshots().entrySet()) {
+            clone.put(entry.getKey(), entry.getValue().toStatistics());
         }
         return clone;
     }
+
+    /**
+     * Retrieve a map (indexed by packet type) of the recorded execution times, in nanoseconds.
+     * <p>
+     * This does not block threads that are currently being tracked.
+     *
+     * @return The map of histogram snapshots.
+     */
+    public Map<PacketType, HistogramSnapshot> getSnapshots() {
+        final Map<PacketType, HistogramSnapshot> snapshots = new HashMap<>();
+
+        this.packets.forEach((type, timing) -> snapshots.put(type, timing.histogram.snapshot()));
+        return snapshots;
+    }
+
+    /**
+     * Retrieve a map (indexed by packet type) of the memory allocated by the listeners, in bytes.
+     * <p>
+     * Packet types are missing if allocations could not be tracked.
+     *
+     * @return The map of allocated bytes.
+     */
+    public Map<PacketType, Long> getAllocatedBytes() {
+        final Map<PacketType, Long> allocations = new HashMap<>();
+
+        if (THREAD_BEAN != null) {
+            this.packets.forEach((type, timing) -> allocations.put(type, timing.allocatedBytes.sum()));
+        }
+        return allocations;
+    }
+
+    private static final class PacketTiming {
+        private final LogHistogram histogram = new LogHistogram();
+        private final LongAdder allocatedBytes = new LongAdder();
+    }
 }
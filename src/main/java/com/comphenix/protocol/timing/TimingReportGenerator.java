@@ -20,11 +20,12 @@ public class TimingReportGenerator {
     private static final String META_STOPPED = "Stopped: %s (after %s seconds)" + NEWLINE;
     private static final String PLUGIN_HEADER = "=== PLUGIN %s ===" + NEWLINE;
     private static final String LISTENER_HEADER = " TYPE: %s " + NEWLINE;
-    private static final String SEPERATION_LINE = " " + Strings.repeat("-", 139) + NEWLINE;
+    private static final String SEPERATION_LINE = " " + Strings.repeat("-", 203) + NEWLINE;
     private static final String STATISTICS_HEADER =
         " Protocol:      Name:                         ID:                 Count:       Min (ms):       " +
-        "Max (ms):       Mean (ms):      Std (ms): " + NEWLINE;
-    private static final String STATISTICS_ROW =    " %-15s %-29s %-19s %-12d %-15.6f %-15.6f %-15.6f %.6f " + NEWLINE;
+        "Max (ms):       Mean (ms):      Std (ms):       p50 (ms):       p99 (ms):       p999 (ms):      Alloc (B/call): " + NEWLINE;
+    private static final String STATISTICS_ROW =
+        " %-15s %-29s %-19s %-12d %-15.6f %-15.6f %-15.6f %-15.6f %-15.6f %-15.6f %-15.6f %s " + NEWLINE;
     private static final String SUM_MAIN_THREAD = " => Time on main thread: %.6f ms" + NEWLINE;
 
     public void saveTo(File destination, TimedListenerManager manager) throws IOException {
@@ -60,39 +61,47 @@ public class TimingReportGenerator {
     }
 
     private void saveStatistics(Writer destination, TimedTracker tracker, ListenerType type) throws IOException {
-        Map<PacketType, StatisticsStream> streams = tracker.getStatistics();
-        StatisticsStream sum = new StatisticsStream();
+        Map<PacketType, HistogramSnapshot> snapshots = tracker.getSnapshots();
+        Map<PacketType, Long> allocations = tracker.getAllocatedBytes();
+        HistogramSnapshot sum = HistogramSnapshot.EMPTY;
+        Long allocationSum = allocations.isEmpty() ? null : 0L;
         int count = 0;
 
         destination.write(STATISTICS_HEADER);
         destination.write(SEPERATION_LINE);
 
         // Write every packet ID that we care about
-        for (PacketType key : new TreeSet<>(streams.keySet())) {
-            final StatisticsStream stream = streams.get(key);
+        for (PacketType key : new TreeSet<>(snapshots.keySet())) {
+            final HistogramSnapshot snapshot = snapshots.get(key);
 
-            if (stream != null && stream.getCount() > 0) {
-                printStatistic(destination, key, stream);
+            if (snapshot != null && snapshot.getCount() > 0) {
+                Long allocated = allocations.get(key);
+                printStatistic(destination, key, snapshot, allocated);
 
                 // Add it
                 count++;
-                sum = sum.add(stream);
+                sum = sum.add(snapshot);
+                if (allocationSum != null && allocated != null) {
+                    allocationSum += allocated;
+                }
             }
         }
 
         // Write the sum - if its useful
         if (count > 1) {
-            printStatistic(destination, null, sum);
+            printStatistic(destination, null, sum, allocationSum);
         }
         // These are executed on the main thread
         if (type == ListenerType.SYNC_SERVER_SIDE) {
             destination.write(String.format(SUM_MAIN_THREAD,
-                toMilli(sum.getCount() * sum.getMean())
+                toMilli(sum.getSum())
             ));
         }
     }
 
-    private void printStatistic(Writer destination, PacketType key, final StatisticsStream stream) throws IOException {
+    private void printStatistic(Writer destination, PacketType key, final HistogramSnapshot snapshot, Long allocated) throws IOException {
+        final StatisticsStream stream = snapshot.toStatistics();
+
         destination.write(String.format(STATISTICS_ROW,
             key != null ? key.getProtocol() : "SUM",
             key != null ? key.name() : "-",
@@ -101,7 +110,11 @@ public class TimingReportGenerator {
             toMilli(stream.getMinimum()),
             toMilli(stream.getMaximum()),
             toMilli(stream.getMean()),
-            toMilli(stream.getStandardDeviation())
+            toMilli(stream.getCount() > 1 ? stream.getStandardDeviation() : 0),
+            toMilli(snapshot.getPercentile(50)),
+            toMilli(snapshot.getPercentile(99)),
+            toMilli(snapshot.getPercentile(99.9)),
+            allocated != null ? Long.toString(allocated / snapshot.getCount()) : "-"
         ));
     }
 
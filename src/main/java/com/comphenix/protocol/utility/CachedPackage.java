@@ -19,6 +19,8 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 
+import com.comphenix.protocol.timing.StartupProfiler;
+
 /**
  * Represents a dynamic package and an arbitrary number of cached classes.
  *
@@ -84,19 +86,41 @@ final class CachedPackage {
      */
     public Optional<Class<?>> getPackageClass(String className, String... aliases) {
         return cache.computeIfAbsent(className, x -> {
-            Optional<Class<?>> clazz = resolveClass(className);
-            if (clazz.isPresent()) {
-                return clazz;
-            }
+            // replay the alias we resolved on the last start, an empty name means none of them exist
+            String cacheKey = "class|" + combine(packageName, className);
+            String cached = ReflectionCache.getInstance().get(cacheKey);
+            if (cached != null) {
+                if (cached.isEmpty()) {
+                    return Optional.empty();
+                }
 
-            for (String alias : aliases) {
-                clazz = resolveClass(alias);
+                Optional<Class<?>> clazz = source.loadClass(cached);
                 if (clazz.isPresent()) {
                     return clazz;
                 }
             }
 
-            return Optional.empty();
+            try (StartupProfiler.Phase ignored = StartupProfiler.getInstance().begin("MinecraftReflection.resolveClass")) {
+                Optional<Class<?>> clazz = resolveClass(className, aliases);
+                ReflectionCache.getInstance().put(cacheKey, clazz.map(Class::getName).orElse(""));
+                return clazz;
+            }
         });
     }
+
+    private Optional<Class<?>> resolveClass(String className, String... aliases) {
+        Optional<Class<?>> clazz = resolveClass(className);
+        if (clazz.isPresent()) {
+            return clazz;
+        }
+
+        for (String alias : aliases) {
+            clazz = resolveClass(alias);
+            if (clazz.isPresent()) {
+                return clazz;
+            }
+        }
+
+        return Optional.empty();
+    }
 }
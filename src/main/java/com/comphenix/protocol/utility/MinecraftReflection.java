@@ -35,6 +35,7 @@ import com.comphenix.protocol.ProtocolLogger;
 import com.comphenix.protocol.injector.BukkitUnwrapper;
 import com.comphenix.protocol.reflect.FuzzyReflection;
 import com.comphenix.protocol.reflect.accessors.Accessors;
+import com.comphenix.protocol.reflect.accessors.ConstructorAccessor;
 import com.comphenix.protocol.reflect.accessors.FieldAccessor;
 import com.comphenix.protocol.reflect.accessors.MethodAccessor;
 import com.comphenix.protocol.reflect.fuzzy.AbstractFuzzyMatcher;
@@ -112,6 +113,9 @@ public final class MinecraftReflection {
     private static MethodAccessor asCraftMirror = null;
     private static MethodAccessor isEmpty = null;
 
+    // ---- Packet serialization
+    private static ConstructorAccessor packetDataSerializerConstructor = null;
+
     private MinecraftReflection() {
         // No need to make this constructable.
     }
@@ -1495,9 +1499,12 @@ public final class MinecraftReflection {
      */
     public static Object getPacketDataSerializer(Object buffer) {
         try {
-            // TODO: move this to MinecraftMethods, or at least, cache the constructor accessor
-            Class<?> packetSerializer = getPacketDataSerializerClass();
-            return packetSerializer.getConstructor(getByteBufClass()).newInstance(buffer);
+            if (packetDataSerializerConstructor == null) {
+                packetDataSerializerConstructor = Accessors.getConstructorAccessor(
+                        getPacketDataSerializerClass(),
+                        getByteBufClass());
+            }
+            return packetDataSerializerConstructor.invoke1(buffer);
         } catch (Exception e) {
             throw new RuntimeException("Cannot construct packet serializer.", e);
         }
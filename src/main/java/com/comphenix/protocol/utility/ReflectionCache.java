@@ -0,0 +1,336 @@
+package com.comphenix.protocol.utility;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+import com.comphenix.protocol.ProtocolLogger;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.primitives.Primitives;
+import org.bukkit.Bukkit;
+
+/**
+ * Remembers the results of reflection lookups between server restarts.
+ * <p>
+ * Resolving classes by their aliases, and fields and methods by fuzzy contracts, scans every candidate each time the
+ * server starts. The results only depend on the server jar, so they are stored in a file along with a fingerprint of
+ * the server jar and the version of ProtocolLib. If the fingerprint still matches on the next start, the results are
+ * replayed instead. Every replayed result is still verified by the caller, so a stale entry only costs a regular
+ * lookup. Only the results that were looked up or recorded since the file was loaded are written back, so results of
+ * lookups that are no longer made don't pile up.
+ * <p>
+ * Until a cache file is loaded, every lookup misses and nothing is recorded.
+ */
+public final class ReflectionCache {
+
+    // The shared cache
+    private static volatile ReflectionCache instance = new ReflectionCache(null, null);
+
+    private static final String SEPARATOR = "\t";
+
+    private final Path path;
+    private final String fingerprint;
+    private final Map<String, String> entries = new ConcurrentHashMap<>();
+    // keys looked up or recorded during this run, and keys in the file
+    private final Set<String> used = ConcurrentHashMap.newKeySet();
+    private volatile Set<String> written = ConcurrentHashMap.newKeySet();
+    private volatile boolean dirty;
+
+    private ReflectionCache(Path path, String fingerprint) {
+        this.path = path;
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Retrieve the shared reflection cache.
+     *
+     * @return The shared reflection cache.
+     */
+    public static ReflectionCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * Load the shared reflection cache from the given file, discarding it if it was written for another server jar or
+     * version of ProtocolLib.
+     *
+     * @param file          - the cache file, which might not exist yet.
+     * @param pluginVersion - the version of ProtocolLib.
+     * @return The loaded cache.
+     */
+    public static synchronized ReflectionCache load(File file, String pluginVersion) {
+        ReflectionCache cache = new ReflectionCache(file.toPath(), computeFingerprint(pluginVersion));
+
+        if (file.exists()) {
+            try (BufferedReader reader = Files.newBufferedReader(cache.path, StandardCharsets.UTF_8)) {
+                if (cache.fingerprint.equals(reader.readLine())) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        int separator = line.indexOf(SEPARATOR);
+                        if (separator > 0) {
+                            String key = unescape(line.substring(0, separator));
+                            cache.entries.put(key, unescape(line.substring(separator + 1)));
+                            cache.written.add(key);
+                        }
+                    }
+                } else {
+                    // the server (or we) changed, start over
+                    cache.dirty = true;
+                }
+            } catch (IOException e) {
+                ProtocolLogger.log(Level.WARNING, "Unable to read reflection cache " + file, e);
+                cache.entries.clear();
+                cache.written.clear();
+            }
+        }
+
+        instance = cache;
+        return cache;
+    }
+
+    /**
+     * Compute the fingerprint of the running server and the given version of ProtocolLib.
+     * <p>
+     * The server jar is identified by its location, size and modification time rather than its content, as hashing the
+     * whole jar would take a good part of the time the cache saves.
+     *
+     * @param pluginVersion - the version of ProtocolLib.
+     * @return The fingerprint.
+     */
+    private static String computeFingerprint(String pluginVersion) {
+        // stay clear of MinecraftReflection, its lookups are what we want to cache
+        Hasher hasher = Hashing.sha256().newHasher()
+                .putString(pluginVersion, StandardCharsets.UTF_8)
+                .putString(Bukkit.getVersion(), StandardCharsets.UTF_8);
+
+        try {
+            CodeSource source = Bukkit.getServer().getClass().getProtectionDomain().getCodeSource();
+            if (source != null && source.getLocation() != null) {
+                File jar = new File(source.getLocation().toURI());
+                hasher.putString(jar.getAbsolutePath(), StandardCharsets.UTF_8)
+                        .putLong(jar.length())
+                        .putLong(jar.lastModified());
+            }
+        } catch (URISyntaxException | RuntimeException e) {
+            ProtocolLogger.debug("Unable to locate the server jar", e);
+        }
+        return hasher.hash().toString();
+    }
+
+    /**
+     * Determine if this cache has been loaded from a file.
+     *
+     * @return TRUE if it has, FALSE if every lookup misses.
+     */
+    public boolean isEnabled() {
+        return this.path != null;
+    }
+
+    /**
+     * Retrieve the result of a previous lookup.
+     *
+     * @param key - the lookup key.
+     * @return The result, or NULL if not found.
+     */
+    public String get(String key) {
+        String value = this.isEnabled() ? this.entries.get(key) : null;
+        if (value != null && this.used.add(key) && !this.written.contains(key)) {
+            // used again after it was left out of the file
+            this.dirty = true;
+        }
+        return value;
+    }
+
+    /**
+     * Record the result of a lookup.
+     *
+     * @param key   - the lookup key.
+     * @param value - the result.
+     */
+    public void put(String key, String value) {
+        if (!this.isEnabled()) {
+            return;
+        }
+        boolean changed = !Objects.equals(this.entries.put(key, value), value);
+        boolean added = this.used.add(key) && !this.written.contains(key);
+        if (changed || added) {
+            this.dirty = true;
+        }
+    }
+
+    /**
+     * Forget the result of a lookup, for instance because it could no longer be verified.
+     *
+     * @param key - the lookup key.
+     */
+    public void invalidate(String key) {
+        if (this.isEnabled() && this.entries.remove(key) != null) {
+            this.used.remove(key);
+            this.dirty = true;
+        }
+    }
+
+    /**
+     * Write the results that were looked up or recorded during this run to the cache file, if that changes the file.
+     */
+    public synchronized void save() {
+        // without changes, every used key is in the file - so the file only needs pruning if it has more
+        if (!this.isEnabled() || !this.dirty && this.written.size() == this.used.size()) {
+            return;
+        }
+        this.dirty = false;
+
+        Set<String> written = ConcurrentHashMap.newKeySet();
+
+        Path temporary = this.path.resolveSibling(this.path.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(this.path.getParent());
+
+            try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                writer.write(this.fingerprint);
+                writer.write('\n');
+
+                for (String key : this.used) {
+                    String value = this.entries.get(key);
+                    if (value != null) {
+                        writer.write(escape(key));
+                        writer.write(SEPARATOR);
+                        writer.write(escape(value));
+                        writer.write('\n');
+                        written.add(key);
+                    }
+                }
+            }
+
+            try {
+                Files.move(temporary, this.path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, this.path, StandardCopyOption.REPLACE_EXISTING);
+            }
+            this.written = written;
+        } catch (IOException e) {
+            ProtocolLogger.log(Level.WARNING, "Unable to write reflection cache " + this.path, e);
+        }
+    }
+
+    /**
+     * Describe a field or method, so that it can be found again with {@link #findField(String, ClassLoader)} or
+     * {@link #findMethod(String, ClassLoader)}.
+     *
+     * @param member - the field or method.
+     * @return The description.
+     */
+    public static String describe(Member member) {
+        StringBuilder builder = new StringBuilder(member.getDeclaringClass().getName())
+                .append('#')
+                .append(member.getName());
+
+        if (member instanceof Method) {
+            builder.append('(');
+            Class<?>[] parameters = ((Method) member).getParameterTypes();
+            for (int i = 0; i < parameters.length; i++) {
+                builder.append(i > 0 ? "," : "").append(parameters[i].getName());
+            }
+            builder.append(')');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Find the field of the given description.
+     *
+     * @param description - the description.
+     * @param loader      - the class loader of the declaring class.
+     * @return The field, or NULL if it no longer exists.
+     */
+    public static Field findField(String description, ClassLoader loader) {
+        int separator = description.indexOf('#');
+        if (separator < 0) {
+            return null;
+        }
+
+        try {
+            Class<?> declaring = loadClass(description.substring(0, separator), loader);
+            return declaring.getDeclaredField(description.substring(separator + 1));
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * Find the method of the given description.
+     *
+     * @param description - the description.
+     * @param loader      - the class loader of the declaring class.
+     * @return The method, or NULL if it no longer exists.
+     */
+    public static Method findMethod(String description, ClassLoader loader) {
+        int separator = description.indexOf('#');
+        int parametersStart = description.indexOf('(', separator);
+        if (separator < 0 || parametersStart < 0 || !description.endsWith(")")) {
+            return null;
+        }
+
+        try {
+            Class<?> declaring = loadClass(description.substring(0, separator), loader);
+            String parameterList = description.substring(parametersStart + 1, description.length() - 1);
+            String[] parameterNames = parameterList.isEmpty() ? new String[0] : parameterList.split(",");
+
+            Class<?>[] parameters = new Class<?>[parameterNames.length];
+            for (int i = 0; i < parameterNames.length; i++) {
+                parameters[i] = loadClass(parameterNames[i], declaring.getClassLoader());
+            }
+            return declaring.getDeclaredMethod(description.substring(separator + 1, parametersStart), parameters);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    private static Class<?> loadClass(String name, ClassLoader loader) throws ClassNotFoundException {
+        for (Class<?> primitive : Primitives.allPrimitiveTypes()) {
+            if (primitive.getName().equals(name)) {
+                return primitive;
+            }
+        }
+        return Class.forName(name, false, loader);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    private static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+
+        StringBuilder builder = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char current = value.charAt(i);
+            if (current == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                builder.append(next == 't' ? '\t' : next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                builder.append(current);
+            }
+        }
+        return builder.toString();
+    }
+}
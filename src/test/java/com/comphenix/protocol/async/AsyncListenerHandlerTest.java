@@ -0,0 +1,136 @@
+package com.comphenix.protocol.async;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.comphenix.protocol.BukkitInitialization;
+import com.comphenix.protocol.PacketStream;
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.error.ErrorReporter;
+import com.comphenix.protocol.events.ListeningWhitelist;
+import com.comphenix.protocol.events.PacketContainer;
+import com.comphenix.protocol.events.PacketEvent;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class AsyncListenerHandlerTest {
+
+    private AsyncFilterManager filterManager;
+    private ErrorReporter reporter;
+
+    @BeforeAll
+    public static void initializeBukkit() {
+        BukkitInitialization.initializeAll();
+    }
+
+    @BeforeEach
+    public void setUp() {
+        this.filterManager = mock(AsyncFilterManager.class);
+        this.reporter = mock(ErrorReporter.class);
+
+        when(this.filterManager.getScheduler()).thenReturn(mock(BukkitScheduler.class));
+        when(this.filterManager.getErrorReporter()).thenReturn(this.reporter);
+    }
+
+    @Test
+    public void testDecidedInline() {
+        PacketEvent event = createEvent();
+        int delay = event.getAsyncMarker().getProcessingDelay();
+
+        this.createHandler(CompletableFuture.completedFuture(PacketDecision.CANCEL)).invokeListener(event);
+
+        // the packet is held and released right away
+        assertEquals(delay + 1, event.getAsyncMarker().getProcessingDelay());
+        verify(this.filterManager, times(1)).signalPacketTransmission(event);
+        assertTrue(event.isCancelled());
+    }
+
+    @Test
+    public void testDecidedLater() {
+        PacketEvent event = createEvent();
+        int delay = event.getAsyncMarker().getProcessingDelay();
+        CompletableFuture<PacketDecision> decision = new CompletableFuture<>();
+
+        this.createHandler(decision).invokeListener(event);
+
+        // held until the decision is made
+        assertEquals(delay + 1, event.getAsyncMarker().getProcessingDelay());
+        verify(this.filterManager, never()).signalPacketTransmission(any());
+
+        decision.complete(PacketDecision.RELEASE);
+        verify(this.filterManager, times(1)).signalPacketTransmission(event);
+        assertFalse(event.isCancelled());
+    }
+
+    @Test
+    public void testDecisionFailed() {
+        PacketEvent event = createEvent();
+        CompletableFuture<PacketDecision> decision = new CompletableFuture<>();
+
+        this.createHandler(decision).invokeListener(event);
+        decision.completeExceptionally(new IllegalStateException("failed"));
+
+        // reported, and released regardless
+        verify(this.reporter).reportMinimal(any(), anyString(), any(IllegalStateException.class));
+        verify(this.filterManager, times(1)).signalPacketTransmission(event);
+        assertFalse(event.isCancelled());
+    }
+
+    @Test
+    public void testNoDecision() {
+        PacketEvent event = createEvent();
+        int delay = event.getAsyncMarker().getProcessingDelay();
+
+        this.createHandler(null).invokeListener(event);
+
+        // released as soon as the listener returns
+        assertEquals(delay, event.getAsyncMarker().getProcessingDelay());
+        verify(this.filterManager, never()).signalPacketTransmission(any());
+    }
+
+    private AsyncListenerHandler createHandler(CompletionStage<PacketDecision> decision) {
+        AsyncPacketListener listener = new AsyncPacketListener() {
+            @Override
+            public CompletionStage<PacketDecision> onPacketSendingAsync(PacketEvent event) {
+                return decision;
+            }
+
+            @Override
+            public ListeningWhitelist getSendingWhitelist() {
+                return ListeningWhitelist.newBuilder().types(PacketType.Play.Server.UPDATE_TIME).build();
+            }
+
+            @Override
+            public ListeningWhitelist getReceivingWhitelist() {
+                return ListeningWhitelist.EMPTY_WHITELIST;
+            }
+
+            @Override
+            public Plugin getPlugin() {
+                return null;
+            }
+        };
+        return new AsyncListenerHandler(Thread.currentThread(), this.filterManager, listener);
+    }
+
+    private static PacketEvent createEvent() {
+        PacketContainer packet = new PacketContainer(PacketType.Play.Server.UPDATE_TIME);
+        PacketEvent event = PacketEvent.fromServer(AsyncListenerHandlerTest.class, packet, null);
+
+        AsyncMarker marker = new AsyncMarker(mock(PacketStream.class), 0, System.currentTimeMillis(), 2000);
+        return PacketEvent.fromSynchronous(event, marker);
+    }
+}
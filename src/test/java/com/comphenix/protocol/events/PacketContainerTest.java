@@ -32,8 +32,10 @@ import java.util.concurrent.ThreadLocalRandom;
 import com.comphenix.protocol.BukkitInitialization;
 import com.comphenix.protocol.PacketType;
 import com.comphenix.protocol.injector.PacketConstructor;
+import com.comphenix.protocol.reflect.DoubleStructureModifier;
 import com.comphenix.protocol.reflect.EquivalentConverter;
 import com.comphenix.protocol.reflect.FuzzyReflection;
+import com.comphenix.protocol.reflect.IntStructureModifier;
 import com.comphenix.protocol.reflect.StructureModifier;
 import com.comphenix.protocol.reflect.accessors.Accessors;
 import com.comphenix.protocol.reflect.accessors.FieldAccessor;
@@ -90,6 +92,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -189,6 +192,70 @@ public class PacketContainerTest {
         this.testPrimitive(explosion.getDoubles(), 0, (double) 0, 0.8);
     }
 
+    @Test
+    public void testGetIntModifier() {
+        PacketContainer closeWindow = new PacketContainer(PacketType.Play.Client.CLOSE_WINDOW);
+        IntStructureModifier integers = closeWindow.getIntModifier();
+
+        assertEquals(0, integers.readInt(0));
+        integers.writeInt(0, 1);
+        assertEquals(1, integers.readInt(0));
+        assertEquals(1, closeWindow.getIntegers().read(0));
+
+        // the primitive modifier is the only modifier of int fields, unless a converter is needed
+        assertInstanceOf(IntStructureModifier.class, closeWindow.getIntegers());
+        assertInstanceOf(IntStructureModifier.class, integers.withTarget(closeWindow.getHandle()));
+        assertFalse(closeWindow.getModifier().withType(int.class, Converters.passthrough(Integer.class))
+                instanceof IntStructureModifier);
+    }
+
+    @Test
+    public void testGetDoubleModifier() {
+        PacketContainer explosion = new PacketContainer(PacketType.Play.Server.EXPLOSION);
+        DoubleStructureModifier doubles = explosion.getDoubleModifier();
+
+        assertEquals(0, doubles.readDouble(0));
+        doubles.writeDouble(0, 0.8);
+        assertEquals(0.8, doubles.readDouble(0));
+        assertEquals(0.8, explosion.getDoubles().read(0));
+    }
+
+    @Test
+    public void testTypedModifiersAreCached() {
+        PacketContainer closeWindow = new PacketContainer(PacketType.Play.Client.CLOSE_WINDOW);
+
+        assertSame(closeWindow.getIntegers(), closeWindow.getIntegers());
+        assertSame(closeWindow.getIntegers(), closeWindow.getIntModifier());
+        assertSame(closeWindow.getStrings(), closeWindow.getSpecificModifier(String.class));
+
+        // the cached modifiers of a shared packet still copy it on the first write
+        PacketContainer copy = closeWindow.copyOnWrite();
+        StructureModifier<Integer> integers = copy.getIntegers();
+        integers.write(0, 5);
+
+        assertSame(integers, copy.getIntegers());
+        assertEquals(5, copy.getIntegers().read(0));
+        assertEquals(0, closeWindow.getIntegers().read(0));
+    }
+
+    @Test
+    public void testStructureHandle() {
+        PacketContainer first = new PacketContainer(PacketType.Play.Client.CLOSE_WINDOW);
+        PacketContainer second = new PacketContainer(PacketType.Play.Client.CLOSE_WINDOW);
+
+        StructureModifier<Integer> integers = PacketContainer.getStructureHandle(PacketType.Play.Client.CLOSE_WINDOW, int.class);
+        assertSame(integers, PacketContainer.getStructureHandle(PacketType.Play.Client.CLOSE_WINDOW, int.class));
+        assertNull(integers.getTarget());
+
+        integers.write(first.getHandle(), 0, 1);
+        ((IntStructureModifier) integers).writeInt(second.getHandle(), 0, 2);
+
+        assertEquals(1, integers.read(first.getHandle(), 0));
+        assertEquals(2, ((IntStructureModifier) integers).readInt(second.getHandle(), 0));
+        assertEquals(1, first.getIntegers().read(0));
+        assertThrows(IllegalArgumentException.class, () -> integers.read(new Object(), 0));
+    }
+
     @Test
     public void testGetStrings() {
         PacketContainer explosion = new PacketContainer(PacketType.Play.Client.CHAT);
@@ -716,6 +783,49 @@ public class PacketContainerTest {
         assertEquals(1234, (int) container.getIntegers().read(0));
     }
 
+    @Test
+    public void testCopyOnWrite() {
+        PacketContainer original = new PacketContainer(PacketType.Play.Server.UPDATE_ATTRIBUTES);
+        original.getIntegers().write(0, 123);
+
+        PacketContainer copy = original.copyOnWrite();
+        IntStructureModifier integers = copy.getIntModifier();
+        assertSame(original.getHandle(), copy.getHandle());
+        assertEquals(123, integers.readInt(0));
+        assertTrue(copy.isSharedPacket());
+
+        // the first write copies the packet, for every modifier of the container
+        integers.writeInt(0, 42);
+        assertFalse(copy.isSharedPacket());
+        assertNotSame(original.getHandle(), copy.getHandle());
+        assertEquals(42, (int) copy.getIntegers().read(0));
+        assertEquals(123, (int) original.getIntegers().read(0));
+
+        copy.getIntegers().write(0, 7);
+        assertEquals(7, integers.readInt(0));
+        assertEquals(123, (int) original.getIntegers().read(0));
+    }
+
+    @Test
+    public void testAdaptiveClone() {
+        PacketContainer packet = new PacketContainer(PacketType.Play.Server.UPDATE_TIME);
+        packet.getLongs().write(0, 1234L);
+
+        for (int i = 0; i < 40; i++) {
+            PacketContainer clone = packet.deepClone();
+            assertNotSame(packet.getHandle(), clone.getHandle());
+            assertEquals(1234L, (long) clone.getLongs().read(0));
+        }
+
+        // reading the packet back might lose state, so it is always cloned reflectively
+        AdaptivePacketCloner.CloneStatistics statistics = AdaptivePacketCloner.getInstance()
+                .getStatistics(PacketType.Play.Server.UPDATE_TIME);
+        assertTrue(statistics.getClones() >= 40);
+        assertEquals(AdaptivePacketCloner.Strategy.REFLECTIVE, statistics.getStrategy());
+        assertFalse(Double.isNaN(statistics.getReflectiveNanos()));
+        assertTrue(Double.isNaN(statistics.getSerializedNanos()));
+    }
+
     @Test
     public void testMapChunk() {
         // this is a special case as we are generating a data serializer class (we only need to construct the packet)
@@ -0,0 +1,49 @@
+package com.comphenix.protocol.events;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+public class PacketMetadataTest {
+
+    @Test
+    public void testIdentity() {
+        String first = new String("packet");
+        String second = new String("packet");
+
+        PacketMetadata.set(first, "key", 1);
+        assertEquals(Optional.of(1), PacketMetadata.get(first, "key"));
+        assertFalse(PacketMetadata.get(second, "key").isPresent());
+    }
+
+    @Test
+    public void testManyKeys() {
+        Object packet = new Object();
+        for (int i = 0; i < 100; i++) {
+            PacketMetadata.set(packet, "key" + i, i);
+        }
+        PacketMetadata.set(packet, "key42", -42);
+
+        // removing shifts the following entries, which must still be found
+        for (int i = 0; i < 100; i += 3) {
+            assertEquals(Optional.of(i == 42 ? -42 : i), PacketMetadata.remove(packet, "key" + i));
+        }
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i % 3 == 0 ? Optional.empty() : Optional.of(i), PacketMetadata.get(packet, "key" + i));
+        }
+    }
+
+    @Test
+    public void testCopy() {
+        Object packet = new Object();
+        Object copy = new Object();
+        PacketMetadata.set(packet, "key", "value");
+        PacketMetadata.copy(packet, copy);
+
+        PacketMetadata.set(copy, "key", "other");
+        assertEquals(Optional.of("value"), PacketMetadata.get(packet, "key"));
+        assertEquals(Optional.of("other"), PacketMetadata.get(copy, "key"));
+    }
+}
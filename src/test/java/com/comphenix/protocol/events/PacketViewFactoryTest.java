@@ -0,0 +1,99 @@
+package com.comphenix.protocol.events;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.comphenix.protocol.BukkitInitialization;
+import com.comphenix.protocol.PacketType;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class PacketViewFactoryTest {
+
+    @BeforeAll
+    public static void initializeBukkit() {
+        BukkitInitialization.initializeAll();
+    }
+
+    @Test
+    public void testReadWrite() {
+        PacketContainer explosion = new PacketContainer(PacketType.Play.Server.EXPLOSION);
+        Explosion view = PacketViewFactory.of(PacketType.Play.Server.EXPLOSION, Explosion.class).wrap(explosion);
+
+        view.x(1.5);
+        view.z(-3);
+        assertEquals(1.5, view.x());
+        assertEquals(-3, view.z());
+        assertEquals(1.5, explosion.getDoubles().read(0));
+        assertEquals(-3, explosion.getDoubles().read(2));
+
+        explosion.getFloat().write(0, 0.8f);
+        assertEquals(0.8f, view.power());
+        assertEquals(0.8f, view.boxedPower());
+        assertSame(explosion.getHandle(), view.getHandle());
+    }
+
+    @Test
+    public void testSharedPacket() {
+        PacketContainer original = new PacketContainer(PacketType.Play.Server.EXPLOSION);
+        original.getDoubles().write(0, 2.0);
+
+        // the view writes to a copy, not to the shared packet
+        PacketContainer copy = original.copyOnWrite();
+        Explosion view = PacketViewFactory.of(PacketType.Play.Server.EXPLOSION, Explosion.class).wrap(copy);
+        view.x(4.0);
+
+        assertFalse(copy.isSharedPacket());
+        assertEquals(4.0, copy.getDoubles().read(0));
+        assertEquals(2.0, original.getDoubles().read(0));
+    }
+
+    @Test
+    public void testFactoryIsShared() {
+        assertSame(
+                PacketViewFactory.of(PacketType.Play.Server.EXPLOSION, Explosion.class),
+                PacketViewFactory.of(PacketType.Play.Server.EXPLOSION, Explosion.class));
+    }
+
+    @Test
+    public void testInvalidViews() {
+        assertThrows(IllegalArgumentException.class,
+                () -> PacketViewFactory.of(PacketType.Play.Client.CLOSE_WINDOW, Explosion.class));
+        assertThrows(IllegalArgumentException.class,
+                () -> PacketViewFactory.of(PacketType.Play.Server.EXPLOSION, Explosion.class).wrap(new Object()));
+        assertThrows(IllegalArgumentException.class,
+                () -> PacketViewFactory.of(PacketType.Play.Server.EXPLOSION, HiddenExplosion.class));
+    }
+
+    public interface Explosion {
+
+        @PacketField(index = 0)
+        double x();
+
+        @PacketField(index = 0)
+        void x(double x);
+
+        @PacketField(index = 2)
+        double z();
+
+        @PacketField(index = 2)
+        void z(double z);
+
+        @PacketField(index = 0)
+        float power();
+
+        @PacketField(index = 0, type = float.class)
+        Float boxedPower();
+
+        Object getHandle();
+    }
+
+    // the generated view cannot implement an interface that isn't public
+    interface HiddenExplosion {
+
+        @PacketField(index = 0)
+        double x();
+    }
+}
@@ -0,0 +1,145 @@
+package com.comphenix.protocol.injector;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.comphenix.protocol.BukkitInitialization;
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.error.ErrorReporter;
+import com.comphenix.protocol.error.Report.ReportBuilder;
+import com.comphenix.protocol.events.ListeningWhitelist;
+import com.comphenix.protocol.events.PacketContainer;
+import com.comphenix.protocol.events.PacketEvent;
+import com.comphenix.protocol.events.PacketListener;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.bukkit.plugin.Plugin;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class SlowListenerWatchdogTest {
+
+    @BeforeAll
+    public static void initializeBukkit() {
+        BukkitInitialization.initializeAll();
+    }
+
+    @Test
+    public void testDemotion() throws InterruptedException {
+        SlowListenerWatchdog watchdog = new SlowListenerWatchdog(16);
+        ErrorReporter reporter = mock(ErrorReporter.class);
+        RecordingListener listener = new RecordingListener(new CountDownLatch(0));
+        PacketEvent event = createEvent();
+
+        try {
+            assertFalse(watchdog.invokeIfDemoted(reporter, event, listener));
+            demote(watchdog, reporter, event, listener);
+
+            // reported as slow, and demoted
+            verify(reporter, times(2)).reportWarning(eq(watchdog), any(ReportBuilder.class));
+            assertTrue(watchdog.invokeIfDemoted(reporter, event, listener));
+
+            PacketEvent received = listener.received.poll(5, TimeUnit.SECONDS);
+            assertNotNull(received);
+            assertTrue(received.isReadOnly());
+            assertNotSame(event.getPacket().getHandle(), received.getPacket().getHandle());
+        } finally {
+            watchdog.close();
+        }
+    }
+
+    @Test
+    public void testBoundedQueue() throws InterruptedException {
+        SlowListenerWatchdog watchdog = new SlowListenerWatchdog(2);
+        ErrorReporter reporter = mock(ErrorReporter.class);
+        CountDownLatch gate = new CountDownLatch(1);
+        RecordingListener listener = new RecordingListener(gate);
+        PacketEvent event = createEvent();
+
+        try {
+            demote(watchdog, reporter, event, listener);
+
+            // the first event blocks the worker, the next two are queued and the rest dropped
+            for (int i = 0; i < 10; i++) {
+                assertTrue(watchdog.invokeIfDemoted(reporter, event, listener));
+            }
+            assertEquals(7, watchdog.getDroppedEvents());
+
+            // two reports for the demotion, and one after the first, second and fourth dropped event
+            verify(reporter, times(5)).reportWarning(eq(watchdog), any(ReportBuilder.class));
+
+            gate.countDown();
+            for (int i = 0; i < 3; i++) {
+                assertNotNull(listener.received.poll(5, TimeUnit.SECONDS));
+            }
+            assertEquals(7, watchdog.getDroppedEvents());
+        } finally {
+            watchdog.close();
+        }
+    }
+
+    private static void demote(SlowListenerWatchdog watchdog, ErrorReporter reporter, PacketEvent event,
+            PacketListener listener) {
+        watchdog.setBudget(1, TimeUnit.MICROSECONDS);
+        watchdog.setDemotion(true);
+
+        // every invocation takes a millisecond
+        for (int i = 0; i < SlowListenerWatchdog.WINDOW; i++) {
+            watchdog.record(reporter, event, listener, TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    private static PacketEvent createEvent() {
+        PacketContainer packet = new PacketContainer(PacketType.Play.Server.UPDATE_TIME);
+        return PacketEvent.fromServer(SlowListenerWatchdogTest.class, packet, null);
+    }
+
+    private static final class RecordingListener implements PacketListener {
+
+        private final BlockingQueue<PacketEvent> received = new LinkedBlockingQueue<>();
+        private final CountDownLatch gate;
+
+        private RecordingListener(CountDownLatch gate) {
+            this.gate = gate;
+        }
+
+        @Override
+        public void onPacketSending(PacketEvent event) {
+            try {
+                this.gate.await();
+                this.received.add(event);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void onPacketReceiving(PacketEvent event) {
+        }
+
+        @Override
+        public ListeningWhitelist getSendingWhitelist() {
+            return ListeningWhitelist.EMPTY_WHITELIST;
+        }
+
+        @Override
+        public ListeningWhitelist getReceivingWhitelist() {
+            return ListeningWhitelist.EMPTY_WHITELIST;
+        }
+
+        @Override
+        public Plugin getPlugin() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.comphenix.protocol.injector.netty.channel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import com.comphenix.protocol.BukkitInitialization;
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.events.PacketContainer;
+import com.comphenix.protocol.timing.ConnectionCounters;
+import com.comphenix.protocol.timing.PacketCount;
+import com.comphenix.protocol.timing.PacketThroughputManager;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.util.Map;
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class PacketCountingHandlerTest {
+
+    @BeforeAll
+    public static void initializeBukkit() {
+        BukkitInitialization.initializeAll();
+    }
+
+    @Test
+    public void testCountsEncodedPackets() {
+        PacketThroughputManager manager = new PacketThroughputManager();
+        PacketCountingHandler handler = new PacketCountingHandler(manager.register(() -> null));
+
+        // the same order as in the pipeline of a player
+        EmbeddedChannel channel = new EmbeddedChannel(
+                handler.inboundByteHandler(),
+                handler.outboundByteHandler(),
+                new FixedSizeEncoder(10),
+                new FixedDecoder(new PacketContainer(PacketType.Play.Client.KEEP_ALIVE).getHandle()),
+                handler.outboundPacketHandler(),
+                handler.inboundPacketHandler());
+
+        Object sent = new PacketContainer(PacketType.Play.Server.UPDATE_TIME).getHandle();
+        channel.writeOutbound(sent);
+        channel.writeOutbound(sent);
+        channel.writeInbound(Unpooled.wrappedBuffer(new byte[7]));
+
+        // messages that are not packets are not counted
+        channel.writeOutbound(Unpooled.wrappedBuffer(new byte[3]));
+        channel.finishAndReleaseAll();
+
+        Map<PacketType, PacketCount> counts = handler.getCounters().getCounts();
+        assertEquals(2, counts.size());
+        assertCount(2, 20, counts.get(PacketType.Play.Server.UPDATE_TIME));
+        assertCount(1, 7, counts.get(PacketType.Play.Client.KEEP_ALIVE));
+
+        // also included in the totals
+        assertCount(2, 20, manager.getTotals().get(PacketType.Play.Server.UPDATE_TIME));
+        assertEquals(1, manager.getTotals(PacketType.Sender.CLIENT).size());
+    }
+
+    @Test
+    public void testConnectionCounters() {
+        PacketThroughputManager manager = new PacketThroughputManager();
+        Player player = mock(Player.class);
+
+        ConnectionCounters first = manager.register(() -> player);
+        ConnectionCounters second = manager.register(() -> player);
+        ConnectionCounters other = manager.register(() -> null);
+
+        first.record(PacketType.Play.Server.UPDATE_TIME, 10);
+        second.record(PacketType.Play.Server.UPDATE_TIME, 5);
+        other.record(PacketType.Play.Server.UPDATE_TIME, 100);
+
+        // both connections of the player are merged
+        assertCount(1, 10, first.getCounts().get(PacketType.Play.Server.UPDATE_TIME));
+        assertCount(2, 15, manager.getCounts(player).get(PacketType.Play.Server.UPDATE_TIME));
+        assertCount(3, 115, manager.getTotals().get(PacketType.Play.Server.UPDATE_TIME));
+
+        // closed connections only remain in the totals
+        first.close();
+        assertCount(1, 5, manager.getCounts(player).get(PacketType.Play.Server.UPDATE_TIME));
+        second.close();
+        assertTrue(manager.getCounts(player).isEmpty());
+        assertCount(3, 115, manager.getTotals().get(PacketType.Play.Server.UPDATE_TIME));
+        assertNull(manager.getTotals().get(PacketType.Play.Client.KEEP_ALIVE));
+    }
+
+    private static void assertCount(long packets, long bytes, PacketCount count) {
+        assertEquals(packets, count.getPackets());
+        assertEquals(bytes, count.getBytes());
+    }
+
+    /**
+     * Encodes every packet into a buffer of a fixed size.
+     */
+    private static final class FixedSizeEncoder extends ChannelOutboundHandlerAdapter {
+
+        private final int size;
+
+        private FixedSizeEncoder(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+            ctx.write(msg instanceof ByteBuf ? msg : Unpooled.wrappedBuffer(new byte[this.size]), promise);
+        }
+    }
+
+    /**
+     * Decodes every buffer into the same packet.
+     */
+    private static final class FixedDecoder extends ChannelInboundHandlerAdapter {
+
+        private final Object packet;
+
+        private FixedDecoder(Object packet) {
+            this.packet = packet;
+        }
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            if (msg instanceof ByteBuf) {
+                ((ByteBuf) msg).release();
+                ctx.fireChannelRead(this.packet);
+            } else {
+                ctx.fireChannelRead(msg);
+            }
+        }
+    }
+}
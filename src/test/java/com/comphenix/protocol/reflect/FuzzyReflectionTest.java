@@ -0,0 +1,92 @@
+package com.comphenix.protocol.reflect;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.comphenix.protocol.reflect.fuzzy.FuzzyFieldContract;
+import com.comphenix.protocol.reflect.fuzzy.FuzzyMatchers;
+import com.comphenix.protocol.reflect.fuzzy.FuzzyMethodContract;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class FuzzyReflectionTest {
+
+    @Test
+    public void testSharedInstances() {
+        assertSame(FuzzyReflection.fromClass(Sample.class, true), FuzzyReflection.fromClass(Sample.class, true));
+        assertSame(FuzzyReflection.fromClass(Sample.class), FuzzyReflection.fromObject(new Sample()));
+        assertFalse(FuzzyReflection.fromClass(Sample.class).isForceAccess());
+    }
+
+    @Test
+    public void testContractEquality() {
+        FuzzyMethodContract first = FuzzyMethodContract.newBuilder().returnTypeExact(int.class).parameterCount(1).build();
+        FuzzyMethodContract second = FuzzyMethodContract.newBuilder().returnTypeExact(int.class).parameterCount(1).build();
+        FuzzyMethodContract other = FuzzyMethodContract.newBuilder().returnTypeExact(long.class).parameterCount(1).build();
+
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+        assertNotEquals(first, other);
+        assertTrue(first.isCacheable());
+
+        FuzzyFieldContract array = FuzzyFieldContract.matchType(FuzzyMatchers.matchArray(FuzzyMatchers.matchExact(int.class)));
+        assertFalse(array.isCacheable());
+    }
+
+    @Test
+    public void testMemoizedLookups() {
+        FuzzyReflection fuzzy = FuzzyReflection.fromClass(Sample.class, true);
+
+        Method method = fuzzy.getMethod(FuzzyMethodContract.newBuilder().returnTypeExact(int.class).parameterCount(1).build());
+        assertEquals("increment", method.getName());
+        assertEquals("name", fuzzy.getMethod(FuzzyMethodContract.newBuilder().returnTypeExact(String.class).build()).getName());
+
+        Field field = fuzzy.getField(FuzzyFieldContract.newBuilder().typeExact(String.class).build());
+        assertEquals("name", field.getName());
+
+        // the results can still be modified by the caller
+        List<Field> fields = fuzzy.getFieldList(FuzzyFieldContract.newBuilder().typeExact(int.class).build());
+        assertEquals(2, fields.size());
+        fields.clear();
+        assertEquals(2, fuzzy.getFieldList(FuzzyFieldContract.newBuilder().typeExact(int.class).build()).size());
+    }
+
+    @Test
+    public void testUncacheableMatchesAreNotKept() {
+        MemberCache members = MemberCache.of(Sample.class);
+        FuzzyFieldContract array = FuzzyFieldContract.matchType(FuzzyMatchers.matchArray(FuzzyMatchers.matchExact(int.class)));
+        int[] searches = new int[1];
+
+        members.getMatches("field", true, array, () -> {
+            searches[0]++;
+            return new ArrayList<>();
+        });
+        members.getMatches("field", true, array, () -> {
+            searches[0]++;
+            return new ArrayList<>();
+        });
+        assertEquals(2, searches[0]);
+    }
+
+    @SuppressWarnings("unused")
+    private static class Sample {
+
+        private final String name = "sample";
+        private int counter;
+        private int limit;
+
+        private int increment(int amount) {
+            return this.counter += amount;
+        }
+
+        private String name() {
+            return this.name;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.comphenix.protocol.reflect.accessors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.reflect.Field;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class GeneratedFieldAccessorTest {
+
+    @BeforeAll
+    public static void checkSupport() {
+        // hidden classes require Java 15
+        assumeTrue(hasMethod(Class.class, "isHidden"));
+    }
+
+    @Test
+    public void testObjectField() {
+        Sample sample = new Sample();
+        FieldAccessor accessor = create("name");
+
+        assertEquals("ABC", accessor.get(sample));
+        accessor.set(sample, "MODIFIED");
+        assertEquals("MODIFIED", sample.name);
+        assertEquals("name", accessor.getField().getName());
+    }
+
+    @Test
+    public void testStaticField() {
+        FieldAccessor accessor = create("counter");
+
+        accessor.set(null, 5);
+        assertEquals(5, accessor.get(null));
+        accessor.setInt(null, 6);
+        assertEquals(6, Sample.counter);
+    }
+
+    @Test
+    public void testIntFields() {
+        Sample sample = new Sample();
+
+        FieldAccessor id = create("id");
+        assertEquals(12, id.getInt(sample));
+        id.setInt(sample, 15);
+        assertEquals(15, sample.id);
+        assertEquals(15, id.get(sample));
+
+        FieldAccessor flag = create("flag");
+        assertTrue(flag.getBoolean(sample));
+        flag.setBoolean(sample, false);
+        assertFalse(sample.flag);
+
+        FieldAccessor letter = create("letter");
+        assertEquals('a', letter.getChar(sample));
+        letter.setChar(sample, 'b');
+        assertEquals('b', sample.letter);
+
+        FieldAccessor small = create("small");
+        assertEquals((byte) -3, small.getByte(sample));
+        small.setByte(sample, (byte) 4);
+        assertEquals((byte) 4, sample.small);
+
+        FieldAccessor medium = create("medium");
+        assertEquals((short) -300, medium.getShort(sample));
+        medium.setShort(sample, (short) 400);
+        assertEquals((short) 400, sample.medium);
+    }
+
+    @Test
+    public void testWideFields() {
+        Sample sample = new Sample();
+
+        FieldAccessor time = create("time");
+        assertEquals(Long.MAX_VALUE, time.getLong(sample));
+        time.setLong(sample, Long.MIN_VALUE);
+        assertEquals(Long.MIN_VALUE, sample.time);
+
+        FieldAccessor ratio = create("ratio");
+        assertEquals(0.1F, ratio.getFloat(sample));
+        ratio.setFloat(sample, 0.3F);
+        assertEquals(0.3F, sample.ratio);
+        assertEquals(0.3F, ratio.get(sample));
+
+        FieldAccessor value = create("value");
+        assertEquals(0.2, value.getDouble(sample));
+        value.setDouble(sample, 0.4);
+        assertEquals(0.4, sample.value);
+    }
+
+    @Test
+    public void testFinalField() {
+        Sample sample = new Sample();
+        FieldAccessor accessor = create("fixed");
+
+        assertEquals(7, accessor.getInt(sample));
+        assertEquals(7, accessor.get(sample));
+    }
+
+    @Test
+    public void testSelectionIsMeasuredOnce() {
+        // the outcome depends on the JVM, but it must not change once measured
+        boolean preferred = GeneratedFieldAccessor.isPreferred();
+        assertEquals(preferred, GeneratedFieldAccessor.isPreferred());
+    }
+
+    private static FieldAccessor create(String name) {
+        try {
+            Field field = Sample.class.getDeclaredField(name);
+            FieldAccessor accessor = GeneratedFieldAccessor.create(field);
+
+            assertNotNull(accessor, "no accessor generated for " + field);
+            return accessor;
+        } catch (NoSuchFieldException ex) {
+            throw new AssertionError(ex);
+        }
+    }
+
+    private static boolean hasMethod(Class<?> type, String name) {
+        try {
+            type.getMethod(name);
+            return true;
+        } catch (NoSuchMethodException ex) {
+            return false;
+        }
+    }
+
+    // --- A class we can use for testing ---
+    @SuppressWarnings("unused")
+    private static class Sample {
+
+        private static int counter;
+
+        private String name = "ABC";
+        private int id = 12;
+        private boolean flag = true;
+        private char letter = 'a';
+        private byte small = -3;
+        private short medium = -300;
+        private long time = Long.MAX_VALUE;
+        private float ratio = 0.1F;
+        private double value = 0.2;
+        private final int fixed = 7;
+    }
+}
@@ -1,10 +1,14 @@
 package com.comphenix.protocol.reflect.cloning;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 import com.comphenix.protocol.BukkitInitialization;
 import com.comphenix.protocol.PacketType;
 import com.comphenix.protocol.events.PacketContainer;
+import com.comphenix.protocol.reflect.instances.DefaultInstances;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import net.minecraft.core.NonNullList;
@@ -26,6 +30,36 @@ public class AggregateClonerTest {
         assertEquals(input, AggregateCloner.DEFAULT.clone(input));
     }
 
+    @Test
+    public void testCompiled() {
+        AggregateCloner cloner = AggregateCloner.newBuilder()
+                .instanceProvider(DefaultInstances.DEFAULT)
+                .andThen(ImmutableDetector.class)
+                .andThen(CollectionCloner.class)
+                .andThen(FieldCloner.class)
+                .compiled()
+                .build();
+
+        Node child = new Node("child", 2, null);
+        Node parent = new Node("parent", 1, child);
+        parent.children.add(child);
+
+        for (int i = 0; i < 2; i++) {
+            Node copy = (Node) cloner.clone(parent);
+            assertNotSame(parent, copy);
+            assertSame(parent.name, copy.name);
+            assertEquals(1, copy.value);
+
+            assertNotSame(child, copy.next);
+            assertEquals("child", copy.next.name);
+            assertEquals(2, copy.next.value);
+
+            assertNotSame(parent.children, copy.children);
+            assertEquals(1, copy.children.size());
+            assertNotSame(child, copy.children.get(0));
+        }
+    }
+
     // @Test
     // Usages of NonNullList were removed in 1.17.1
     public void testNonNullList() {
@@ -42,4 +76,21 @@ public class AggregateClonerTest {
         assertEquals(list.size(), list1.size());
         Assertions.assertArrayEquals(list.toArray(), list1.toArray());
     }
+
+    public static class Node {
+
+        private String name;
+        private int value;
+        private Node next;
+        private List<Node> children = new ArrayList<>();
+
+        public Node() {
+        }
+
+        private Node(String name, int value, Node next) {
+            this.name = name;
+            this.value = value;
+            this.next = next;
+        }
+    }
 }
@@ -0,0 +1,51 @@
+package com.comphenix.protocol.timing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class LogHistogramTest {
+
+    @Test
+    public void testBucketBounds() {
+        for (int i = 0; i < LogHistogram.BUCKETS - 1; i++) {
+            assertEquals(i, LogHistogram.bucketIndex(LogHistogram.lowerBound(i)));
+            assertEquals(i, LogHistogram.bucketIndex(LogHistogram.upperBound(i)));
+        }
+        assertEquals(LogHistogram.BUCKETS - 1, LogHistogram.bucketIndex(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testPercentiles() {
+        LogHistogram histogram = new LogHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals(1000, snapshot.getCount());
+        assertEquals(1000, snapshot.getMinimum());
+        assertEquals(1000000, snapshot.getMaximum());
+        assertEquals(500500, snapshot.getMean(), 0.001);
+
+        // every percentile is within the relative error of the histogram
+        double error = 1.0 / LogHistogram.SUB_BUCKETS;
+        assertWithin(500000, snapshot.getPercentile(50), error);
+        assertWithin(990000, snapshot.getPercentile(99), error);
+        assertWithin(999000, snapshot.getPercentile(99.9), error);
+    }
+
+    @Test
+    public void testEmpty() {
+        HistogramSnapshot snapshot = new LogHistogram().snapshot();
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0, snapshot.getPercentile(99));
+        assertEquals(0, snapshot.toStatistics().getCount());
+    }
+
+    private static void assertWithin(long expected, long actual, double relativeError) {
+        assertTrue(Math.abs(actual - expected) <= expected * relativeError,
+                "Expected " + expected + " but got " + actual);
+    }
+}